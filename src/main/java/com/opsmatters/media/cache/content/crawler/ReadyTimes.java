@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.cache.content.crawler;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import com.opsmatters.media.model.content.crawler.ReadyTime;
+import com.opsmatters.media.cache.StaticCache;
+
+/**
+ * Class representing the observed page ready times of each configuration.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ReadyTimes extends StaticCache
+{
+    private static Map<String,ReadyTime> timeMap = Collections.synchronizedMap(new TreeMap<String,ReadyTime>());
+
+    /**
+     * Private constructor.
+     */
+    private ReadyTimes()
+    {
+    }
+
+    /**
+     * Returns the key for the given code and category.
+     */
+    private static String getKey(String code, String category)
+    {
+        return code+":"+category;
+    }
+
+    /**
+     * Clears the ready times.
+     */
+    public static void clear()
+    {
+        timeMap.clear();
+    }
+
+    /**
+     * Returns the ready time for the given code and category.
+     */
+    public static ReadyTime get(String code, String category)
+    {
+        return timeMap.get(getKey(code, category));
+    }
+
+    /**
+     * Adds an observed ready time for the given code and category.
+     */
+    public static void add(String code, String category, long elapsed, long sleep, boolean ready)
+    {
+        ReadyTime time;
+        synchronized(timeMap)
+        {
+            String key = getKey(code, category);
+            time = timeMap.get(key);
+            if(time == null)
+            {
+                time = new ReadyTime(code, category);
+                timeMap.put(key, time);
+            }
+        }
+
+        time.add(elapsed, sleep, ready);
+    }
+
+    /**
+     * Returns the count of ready times.
+     */
+    public static int size()
+    {
+        return timeMap.size();
+    }
+
+    /**
+     * Returns the list of ready times.
+     */
+    public static List<ReadyTime> list()
+    {
+        synchronized(timeMap)
+        {
+            return new ArrayList<ReadyTime>(timeMap.values());
+        }
+    }
+}
@@ -15,17 +15,24 @@
  */
 package com.opsmatters.media.cache.content.util;
 
+import java.time.Instant;
 import java.util.Map;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import com.opsmatters.media.model.content.util.ContentProxy;
+import com.opsmatters.media.model.content.util.ProxyStatus;
 import com.opsmatters.media.cache.StaticCache;
 
 /**
  * Class representing the set of content proxies.
+ * <p>
+ * The proxies are selected in turn, skipping any proxies with a poor latency or error rate.
+ * The health of a proxy is saved as the "unhealthy" status, which is separate from
+ *  the "disabled" status set by an administrator, so that unhealthy proxies are still
+ *  loaded and can be retried.
  * 
  * @author Gerald Curley (opsmatters)
  */
@@ -33,9 +40,13 @@ public class ContentProxies extends StaticCache
 {
     private static final Logger logger = Logger.getLogger(ContentProxies.class.getName());
 
-    private static Map<String,ContentProxy> proxyMap = new LinkedHashMap<String,ContentProxy>();
+    private static Map<String,ContentProxy> proxyMap = new ConcurrentHashMap<String,ContentProxy>();
     private static List<ContentProxy> proxyList = new ArrayList<ContentProxy>();
-    private static Iterator<ContentProxy> iterator = null;
+    private static volatile ContentProxy[] proxies = new ContentProxy[0];
+    private static AtomicInteger cursor = new AtomicInteger();
+    private static Map<String,ProxyHealth> healthMap = new ConcurrentHashMap<String,ProxyHealth>();
+    private static Map<String,ContentProxy> hostMap = new ConcurrentHashMap<String,ContentProxy>();
+    private static Map<String,ContentProxy> statusMap = new ConcurrentHashMap<String,ContentProxy>();
 
     /**
      * Private constructor.
@@ -54,13 +65,13 @@ public class ContentProxies extends StaticCache
         clear();
         for(ContentProxy proxy : proxies)
         {
-            if(proxy.isActive())
+            if(proxy.isActive() || proxy.isUnhealthy())
             {
                 add(proxy);
             }
         }
 
-        setIterator();
+        setProxies();
 
         logger.info("Loaded "+size()+" content proxies");
 
@@ -74,6 +85,8 @@ public class ContentProxies extends StaticCache
     {
         proxyMap.clear();
         proxyList.clear();
+        hostMap.clear();
+        setProxies();
     }
 
     /**
@@ -91,6 +104,8 @@ public class ContentProxies extends StaticCache
     public static void remove(ContentProxy proxy)
     {
         proxyMap.remove(proxy.getId());
+        proxyList.remove(proxy);
+        setProxies();
     }
 
     /**
@@ -102,39 +117,162 @@ public class ContentProxies extends StaticCache
     }
 
     /**
-     * Resets the iterator.
+     * Sets the proxies to select from.
      */
-    private static void setIterator()
+    private static void setProxies()
     {
-        if(size() > 0)
-            iterator = proxyList.iterator();
+        proxies = proxyList.toArray(new ContentProxy[proxyList.size()]);
     }
 
     /**
-     * Resets the iterator if it has reached the end.
+     * Returns the health of the given proxy.
      */
-    private static void checkNext()
+    public static ProxyHealth getHealth(ContentProxy proxy)
     {
-        // Go back to the beginning if none left
-        if(!iterator.hasNext())
-            setIterator();
+        ProxyHealth ret = healthMap.get(proxy.getId());
+        if(ret == null)
+        {
+            healthMap.putIfAbsent(proxy.getId(), new ProxyHealth());
+            ret = healthMap.get(proxy.getId());
+        }
+
+        return ret;
     }
 
     /**
-     * Returns the next proxy from the iterator.
+     * Returns the next available proxy.
+     * <p>
+     * If none of the proxies are available, returns the proxy with the best score.
      */
-    public static synchronized ContentProxy next()
+    public static ContentProxy next()
     {
         ContentProxy ret = null;
-        if(iterator != null)
+        ContentProxy[] array = proxies;
+        if(array.length > 0)
+        {
+            ContentProxy best = null;
+            double bestScore = 0.0d;
+            int start = Math.floorMod(cursor.getAndIncrement(), array.length);
+            for(int i = 0; i < array.length; i++)
+            {
+                ContentProxy proxy = array[(start+i)%array.length];
+                ProxyHealth health = getHealth(proxy);
+                if(health.isAvailable())
+                {
+                    ret = proxy;
+                    break;
+                }
+
+                if(best == null || health.getScore() < bestScore)
+                {
+                    best = proxy;
+                    bestScore = health.getScore();
+                }
+            }
+
+            if(ret == null)
+                ret = best;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the proxy to use for the given host.
+     * <p>
+     * The same proxy is returned for a host while it is available.
+     */
+    public static ContentProxy next(String host)
+    {
+        if(host == null || host.length() == 0)
+            return next();
+
+        ContentProxy ret = hostMap.get(host);
+        if(ret == null || !proxyMap.containsKey(ret.getId()) || !getHealth(ret).isAvailable())
+        {
+            ret = next();
+            if(ret != null)
+                hostMap.put(host, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Records a successful request through the given proxy with the given latency (in milliseconds).
+     */
+    public static void success(ContentProxy proxy, long millis)
+    {
+        if(proxy != null)
+        {
+            getHealth(proxy).success(millis);
+            checkStatus(proxy);
+        }
+    }
+
+    /**
+     * Records a failed request through the given proxy.
+     */
+    public static void failure(ContentProxy proxy)
+    {
+        if(proxy != null)
+        {
+            getHealth(proxy).failure();
+            checkStatus(proxy);
+        }
+    }
+
+    /**
+     * Updates the status of the given proxy from its health.
+     * <p>
+     * The proxy is added to the status changes waiting to be saved if the status has changed.
+     *  A proxy that has been disabled by an administrator is left unchanged.
+     */
+    private static void checkStatus(ContentProxy proxy)
+    {
+        if(!proxy.isActive() && !proxy.isUnhealthy())
+            return;
+
+        ProxyHealth health = getHealth(proxy);
+        boolean healthy = health.isHealthy();
+        if(proxy.isActive() != healthy)
         {
-            checkNext();
-            ret = iterator.next();
+            proxy.setStatus(healthy ? ProxyStatus.ACTIVE : ProxyStatus.UNHEALTHY);
+            proxy.setUpdatedDate(Instant.now());
+            statusMap.put(proxy.getId(), proxy);
+
+            logger.info(String.format("Proxy %s is now %s: latency=%.0f errors=%.2f",
+                proxy, proxy.getStatus(), health.getLatency(), health.getErrorRate()));
+        }
+    }
+
+    /**
+     * Returns the proxies with status changes waiting to be saved, and clears the changes.
+     */
+    public static List<ContentProxy> getStatusChanges()
+    {
+        List<ContentProxy> ret = new ArrayList<ContentProxy>();
+        for(String id : statusMap.keySet())
+        {
+            ContentProxy proxy = statusMap.remove(id);
+            if(proxy != null)
+                ret.add(proxy);
         }
 
         return ret;
     }
 
+    /**
+     * Adds the given proxies to the status changes waiting to be saved, eg. after the changes could not be saved.
+     * <p>
+     * A later change to the same proxy is kept.
+     */
+    public static void addStatusChanges(List<ContentProxy> proxies)
+    {
+        for(ContentProxy proxy : proxies)
+            statusMap.putIfAbsent(proxy.getId(), proxy);
+    }
+
     /**
      * Returns the count of proxies.
      */
@@ -142,4 +280,4 @@ public class ContentProxies extends StaticCache
     {
         return proxyList.size();
     }
-}
\ No newline at end of file
+}
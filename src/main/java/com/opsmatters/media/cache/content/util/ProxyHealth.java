@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.cache.content.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class representing the health of a content proxy.
+ * <p>
+ * Keeps exponentially weighted moving averages of the latency and error rate of the
+ *  requests made through the proxy, which are updated without locking.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class ProxyHealth
+{
+    public static final double ALPHA = 0.2d;
+    public static final int MIN_SAMPLES = 5;
+    public static final double MAX_ERROR_RATE = 0.5d;
+    public static final double MAX_LATENCY = 10000d; // 10 secs, well below the page load timeout
+    public static final long RETRY_INTERVAL = 300000L; // 5 mins
+
+    private AtomicLong latency = new AtomicLong(Double.doubleToLongBits(0.0d));
+    private AtomicLong errorRate = new AtomicLong(Double.doubleToLongBits(0.0d));
+    private AtomicInteger samples = new AtomicInteger();
+    private AtomicLong unhealthyDate = new AtomicLong();
+
+    /**
+     * Records a successful request with the given latency (in milliseconds).
+     */
+    public void success(long millis)
+    {
+        samples.incrementAndGet();
+        update(latency, millis);
+        update(errorRate, 0.0d);
+        checkHealth();
+    }
+
+    /**
+     * Records a failed request.
+     */
+    public void failure()
+    {
+        samples.incrementAndGet();
+        update(errorRate, 1.0d);
+        checkHealth();
+    }
+
+    /**
+     * Records when a request found the proxy unhealthy, or clears it if the proxy is healthy.
+     */
+    private void checkHealth()
+    {
+        unhealthyDate.set(isHealthy() ? 0L : System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the given value to the moving average.
+     */
+    private static void update(AtomicLong average, double value)
+    {
+        long prev, next;
+        do
+        {
+            prev = average.get();
+            double current = Double.longBitsToDouble(prev);
+            next = Double.doubleToLongBits(current+(ALPHA*(value-current)));
+        }
+        while(!average.compareAndSet(prev, next));
+    }
+
+    /**
+     * Returns the moving average of the latency of the proxy (in milliseconds).
+     */
+    public double getLatency()
+    {
+        return Double.longBitsToDouble(latency.get());
+    }
+
+    /**
+     * Returns the moving average of the error rate of the proxy [0..1].
+     */
+    public double getErrorRate()
+    {
+        return Double.longBitsToDouble(errorRate.get());
+    }
+
+    /**
+     * Returns the number of requests recorded for the proxy.
+     */
+    public int getSamples()
+    {
+        return samples.get();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the scores of the proxy are within the limits.
+     * <p>
+     * The scores are only used once there are enough samples.
+     */
+    public boolean isHealthy()
+    {
+        return samples.get() < MIN_SAMPLES
+            || (getErrorRate() < MAX_ERROR_RATE && getLatency() < MAX_LATENCY);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the proxy can be used.
+     * <p>
+     * An unhealthy proxy is used again to retest it once the retry interval has passed
+     *  since a request last found it unhealthy, whether from its error rate or its latency.
+     */
+    public boolean isAvailable()
+    {
+        return isAvailable(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the proxy can be used at the given time (in milliseconds).
+     */
+    boolean isAvailable(long now)
+    {
+        return isHealthy() || now-unhealthyDate.get() > RETRY_INTERVAL;
+    }
+
+    /**
+     * Returns the score of the proxy, where a lower score is better.
+     */
+    public double getScore()
+    {
+        return getErrorRate()*MAX_LATENCY + getLatency();
+    }
+}
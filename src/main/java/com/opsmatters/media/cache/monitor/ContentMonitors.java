@@ -16,10 +16,11 @@
 package com.opsmatters.media.cache.monitor;
 
 import java.util.Map;
-import java.util.HashMap;
-import java.util.TreeMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 import com.opsmatters.media.model.content.ContentType;
 import com.opsmatters.media.model.monitor.ContentMonitor;
@@ -28,6 +29,10 @@ import com.opsmatters.media.cache.StaticCache;
 
 /**
  * Class representing the set of content monitors.
+ * <p>
+ * The monitors are also indexed by content type as they are added.
+ * Changes are made one at a time, while readers never block and iterate over a snapshot
+ *  of the monitors that is not affected by later changes.
  * 
  * @author Gerald Curley (opsmatters)
  */
@@ -35,10 +40,12 @@ public class ContentMonitors extends StaticCache
 {
     private static final Logger logger = Logger.getLogger(ContentMonitors.class.getName());
 
-    private static List<ContentMonitor> monitorList = new ArrayList<ContentMonitor>();
-    private static Map<String,ContentMonitor> monitorMap = new HashMap<String,ContentMonitor>();
-    private static Map<String,ContentMonitor> guidMap = new HashMap<String,ContentMonitor>();
-    private static Map<ContentType,Map<String,ContentMonitor>> monitorTypeMap = new HashMap<ContentType,Map<String,ContentMonitor>>();
+    private static final Object lock = new Object();
+
+    private static volatile List<ContentMonitor> monitorList = new CopyOnWriteArrayList<ContentMonitor>();
+    private static volatile Map<String,ContentMonitor> monitorMap = new ConcurrentHashMap<String,ContentMonitor>();
+    private static volatile Map<String,ContentMonitor> guidMap = new ConcurrentHashMap<String,ContentMonitor>();
+    private static volatile Map<ContentType,Map<String,ContentMonitor>> monitorTypeMap = new ConcurrentHashMap<ContentType,Map<String,ContentMonitor>>();
 
     /**
      * Private constructor.
@@ -49,14 +56,40 @@ public class ContentMonitors extends StaticCache
 
     /**
      * Loads the set of monitors.
+     * <p>
+     * Readers continue to see the previous monitors until all the monitors have been loaded.
      */
     public static void load(List<ContentMonitor> monitors)
     {
         setInitialised(false);
 
-        clear();
-        for(ContentMonitor monitor : monitors)
-            add(monitor);
+        synchronized(lock)
+        {
+            List<ContentMonitor> list = new ArrayList<ContentMonitor>(monitors.size());
+            Map<String,ContentMonitor> map = new ConcurrentHashMap<String,ContentMonitor>();
+            Map<String,ContentMonitor> guids = new ConcurrentHashMap<String,ContentMonitor>();
+            Map<ContentType,Map<String,ContentMonitor>> types = new ConcurrentHashMap<ContentType,Map<String,ContentMonitor>>();
+
+            for(ContentMonitor monitor : monitors)
+            {
+                ContentMonitor existing = map.put(monitor.getId(), monitor);
+                if(existing != null)
+                {
+                    list.remove(existing);
+                    guids.remove(existing.getGuid(), existing);
+                    removeType(types, existing);
+                }
+
+                list.add(monitor);
+                guids.put(monitor.getGuid(), monitor);
+                addType(types, monitor);
+            }
+
+            monitorList = new CopyOnWriteArrayList<ContentMonitor>(list);
+            monitorMap = map;
+            guidMap = guids;
+            monitorTypeMap = types;
+        }
 
         logger.info(String.format("Loaded %d monitors", size()));
 
@@ -64,60 +97,64 @@ public class ContentMonitors extends StaticCache
     }
 
     /**
-     * Organise the monitors by content type.
+     * Logs the number of monitors for each content type.
+     * <p>
+     * The monitors are indexed by content type as they are added, so there is nothing to rebuild.
      */
     public static void populateContentTypes()
     {
-        for(ContentType type : ContentType.values())
+        for(Map.Entry<ContentType,Map<String,ContentMonitor>> entry : monitorTypeMap.entrySet())
         {
-            if(type != ContentType.ORGANISATION)
-                populateContentType(type);
+            ContentType type = entry.getKey();
+            int size = entry.getValue().size();
+            if(type != ContentType.ORGANISATION && size > 0)
+                logger.info(String.format("Loaded %d %s monitors", size, type.value()));
         }
     }
 
     /**
-     * Organise the monitors for the given content type.
+     * Adds the given monitor to the index of monitors by content type.
      */
-    private static void populateContentType(ContentType type)
+    private static void addType(Map<ContentType,Map<String,ContentMonitor>> types, ContentMonitor monitor)
     {
-        Map<String,ContentMonitor> map = monitorTypeMap.get(type);
-        if(map == null)
+        ContentType type = monitor.getContentType();
+        if(type != null)
         {
-            map = new TreeMap<String,ContentMonitor>();
-            monitorTypeMap.put(type, map);
-        }
+            Map<String,ContentMonitor> map = types.get(type);
+            if(map == null)
+            {
+                map = new ConcurrentSkipListMap<String,ContentMonitor>();
+                types.put(type, map);
+            }
 
-        // Get the config files for the given content type
-        for(ContentMonitor monitor : list())
-        {
-            if(monitor.getContentType() == type)
-                map.put(monitor.getId(), monitor);
+            map.put(monitor.getId(), monitor);
         }
-
-        if(map.size() > 0)
-            logger.info(String.format("Loaded %d %s monitors", 
-                map.size(), type != null ? type.value() : "organisation"));
     }
 
     /**
-     * Clears the monitors.
+     * Removes the given monitor from the index of monitors by content type.
+     * <p>
+     * Every type is checked in case the content type of the monitor has been changed.
      */
-    private static void clear()
+    private static void removeType(Map<ContentType,Map<String,ContentMonitor>> types, ContentMonitor monitor)
     {
-        monitorList.clear();
-        monitorMap.clear();
-        guidMap.clear();
-        monitorTypeMap.clear();
+        for(Map<String,ContentMonitor> map : types.values())
+            map.remove(monitor.getId(), monitor);
     }
 
     /**
-     * Adds the given monitor.
+     * Adds the given monitor, replacing any existing monitor with the same id.
      */
     public static void add(ContentMonitor monitor)
     {
-        monitorList.add(monitor);
-        monitorMap.put(monitor.getId(), monitor);
-        guidMap.put(monitor.getGuid(), monitor);
+        synchronized(lock)
+        {
+            remove(get(monitor.getId()));
+            monitorList.add(monitor);
+            monitorMap.put(monitor.getId(), monitor);
+            guidMap.put(monitor.getGuid(), monitor);
+            addType(monitorTypeMap, monitor);
+        }
     }
 
     /**
@@ -142,22 +179,62 @@ public class ContentMonitors extends StaticCache
     public static void set(ContentMonitor monitor)
     {
         if(monitor != null)
-        {
-            ContentMonitor existing = get(monitor.getId());
-            if(existing != null)
-                monitorList.remove(existing);
             add(monitor);
+    }
+
+    /**
+     * Removes the given monitor.
+     */
+    public static void remove(ContentMonitor monitor)
+    {
+        if(monitor != null)
+        {
+            synchronized(lock)
+            {
+                monitorList.remove(monitor);
+                monitorMap.remove(monitor.getId(), monitor);
+                guidMap.remove(monitor.getGuid(), monitor);
+                removeType(monitorTypeMap, monitor);
+            }
         }
     }
 
     /**
      * Returns the list of monitors.
+     * <p>
+     * The list can be iterated while monitors are being changed, as each iteration
+     *  is over the monitors at the time it started.
      */
     public static List<ContentMonitor> list()
     {
         return monitorList;
     }
 
+    /**
+     * Returns the list of monitors for the given content type.
+     */
+    public static List<ContentMonitor> list(ContentType type)
+    {
+        List<ContentMonitor> ret = new ArrayList<ContentMonitor>();
+
+        if(type != null)
+        {
+            Map<String,ContentMonitor> map = monitorTypeMap.get(type);
+            if(map != null)
+                ret.addAll(map.values());
+        }
+        else
+        {
+            for(ContentMonitor monitor : monitorList)
+            {
+                if(monitor.getContentType() == null)
+                    ret.add(monitor);
+            }
+        }
+
+        return ret;
+    }
+
     /**
      * Returns the video monitors with the given channel id.
      */
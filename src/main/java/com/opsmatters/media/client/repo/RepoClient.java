@@ -17,8 +17,14 @@
 package com.opsmatters.media.client.repo;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import com.opsmatters.media.model.provider.RepoProviderId;
 import com.opsmatters.media.model.content.project.ProjectDetails;
+import com.opsmatters.media.util.TaskExecutor;
+import com.opsmatters.media.util.TaskScope;
 
 /**
  * Methods to interact with a repository provider.
@@ -56,4 +62,49 @@ public interface RepoClient
      * Returns the project for the given repository URL.
      */
     public ProjectDetails getProject(String url) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Returns the projects for the given repository URLs, retrieved concurrently.
+     * <p>
+     * The results are returned in the same order as the URLs.
+     */
+    default public List<ProjectDetails> getProjects(List<String> urls, TaskExecutor executor) throws IOException
+    {
+        TaskScope<ProjectDetails> scope = executor.newScope();
+
+        try
+        {
+            for(final String url : urls)
+            {
+                scope.fork(new Callable<ProjectDetails>()
+                {
+                    public ProjectDetails call() throws IOException
+                    {
+                        return getProject(url);
+                    }
+                });
+            }
+
+            return scope.join();
+        }
+        catch(ExecutionException e)
+        {
+            if(e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException("Unable to retrieve projects", e.getCause());
+        }
+        catch(TimeoutException e)
+        {
+            throw new IOException("Timeout retrieving projects", e);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted retrieving projects", e);
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+}
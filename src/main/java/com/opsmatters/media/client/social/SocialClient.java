@@ -18,9 +18,13 @@ package com.opsmatters.media.client.social;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import com.opsmatters.media.model.provider.SocialProviderId;
 import com.opsmatters.media.model.social.SocialChannel;
 import com.opsmatters.media.model.social.ChannelPost;
+import com.opsmatters.media.util.TaskExecutor;
 
 /**
  * Methods to interact with a user's social media channel.
@@ -66,6 +70,38 @@ public interface SocialClient
      */
     public ChannelPost sendPost(String text) throws Exception;
 
+    /**
+     * Sends the given post using the executor, cancelling the send if it exceeds the executor timeout.
+     * <p>
+     * A timeout is reported as a recoverable {@link SocialTimeoutException}.
+     *
+     * @param text The text of the post to be sent.
+     * @param executor The executor used to send the post.
+     */
+    default public ChannelPost sendPost(final String text, TaskExecutor executor) throws Exception
+    {
+        try
+        {
+            return executor.call(new Callable<ChannelPost>()
+            {
+                public ChannelPost call() throws Exception
+                {
+                    return sendPost(text);
+                }
+            });
+        }
+        catch(ExecutionException e)
+        {
+            if(e.getCause() instanceof Exception)
+                throw (Exception)e.getCause();
+            throw e;
+        }
+        catch(TimeoutException e)
+        {
+            throw new SocialTimeoutException("Timeout sending post: "+e.getMessage());
+        }
+    }
+
     /**
      * Deletes the given post.
      *
@@ -18,8 +18,13 @@ package com.opsmatters.media.client.video;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import org.json.JSONObject;
 import com.opsmatters.media.model.provider.VideoProviderId;
+import com.opsmatters.media.util.TaskExecutor;
+import com.opsmatters.media.util.TaskScope;
 
 /**
  * Methods to interact with a user's video channel.
@@ -63,4 +68,52 @@ public interface VideoClient
      * @return The list of summary videos retrieved
      */
     public List<JSONObject> listVideos(String id, int maxResults) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Returns the details of the videos for the given video IDs, retrieved concurrently.
+     * <p>
+     * The results are returned in the same order as the video IDs.
+     *
+     * @param videoIds The IDs of the videos to be retrieved
+     * @param executor The executor used to run the requests
+     */
+    default public List<JSONObject> getVideos(List<String> videoIds, TaskExecutor executor) throws IOException
+    {
+        TaskScope<JSONObject> scope = executor.newScope();
+
+        try
+        {
+            for(final String videoId : videoIds)
+            {
+                scope.fork(new Callable<JSONObject>()
+                {
+                    public JSONObject call() throws IOException
+                    {
+                        return getVideo(videoId);
+                    }
+                });
+            }
+
+            return scope.join();
+        }
+        catch(ExecutionException e)
+        {
+            if(e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException("Unable to retrieve videos", e.getCause());
+        }
+        catch(TimeoutException e)
+        {
+            throw new IOException("Timeout retrieving videos", e);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted retrieving videos", e);
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+}
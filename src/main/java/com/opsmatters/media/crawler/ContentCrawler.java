@@ -45,6 +45,9 @@ import com.opsmatters.media.model.system.logging.Log;
 import com.opsmatters.media.model.system.logging.LogEvent;
 import com.opsmatters.media.model.system.logging.LogEventCategory;
 import com.opsmatters.media.model.system.logging.ErrorCode;
+import com.opsmatters.media.util.TaskExecutor;
+import com.opsmatters.media.util.ImageUtils;
+import com.opsmatters.media.util.ImageInfo;
 
 import static com.opsmatters.media.model.content.FieldName.*;
 import static com.opsmatters.media.model.content.crawler.CrawlerStatus.*;
@@ -65,6 +68,8 @@ public abstract class ContentCrawler<D extends ContentDetails>
     public static final String CURRENT_MONTH_NAME = "current-month-name";
     public static final String CURRENT_YEAR = "current-year";
 
+    public static final int IMAGE_PARALLELISM = 8;
+
     private String name = "";
     private boolean debug = false;
     private int maxResults = 0;
@@ -72,6 +77,10 @@ public abstract class ContentCrawler<D extends ContentDetails>
     private List<D> teasers = new ArrayList<D>();
     private CrawlerStatus status = NEW;
     private ErrorCode error = E_NONE;
+    private TaskExecutor executor;
+    private String lastFingerprint;
+    private String fingerprint = "";
+    private boolean unchanged = false;
 
     protected Log log = new Log(CRAWLER);
     private Map<String, Object> properties = new HashMap<String, Object>();
@@ -161,6 +170,76 @@ public abstract class ContentCrawler<D extends ContentDetails>
         this.debug = debug;
     }
 
+    /**
+     * Returns the executor used to run concurrent tasks for the crawler.
+     */
+    public TaskExecutor getExecutor()
+    {
+        if(executor == null)
+            executor = TaskExecutor.getDefault();
+        return executor;
+    }
+
+    /**
+     * Sets the executor used to run concurrent tasks for the crawler.
+     */
+    public void setExecutor(TaskExecutor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the fingerprint of the content found by the last crawl.
+     */
+    public String getLastFingerprint()
+    {
+        return lastFingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the content found by the last crawl.
+     * <p>
+     * If the content has the same fingerprint when processed, the crawler is marked as unchanged
+     *  and the teasers are not extracted.
+     */
+    public void setLastFingerprint(String lastFingerprint)
+    {
+        this.lastFingerprint = lastFingerprint;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the fingerprint of the last crawl has been set.
+     */
+    public boolean hasLastFingerprint()
+    {
+        return lastFingerprint != null && lastFingerprint.length() > 0;
+    }
+
+    /**
+     * Returns the fingerprint of the content found by this crawl.
+     */
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the content found by this crawl.
+     */
+    protected void setFingerprint(String fingerprint)
+    {
+        this.fingerprint = fingerprint;
+        this.unchanged = hasLastFingerprint() && lastFingerprint.equals(fingerprint);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the content has the same fingerprint as the last crawl.
+     */
+    public boolean isUnchanged()
+    {
+        return unchanged;
+    }
+
     /**
      * Returns the status of the crawler.
      */
@@ -306,6 +385,39 @@ public abstract class ContentCrawler<D extends ContentDetails>
         return teasers;
     }
 
+    /**
+     * Probes the images of the given teasers concurrently and returns their formats and dimensions, keyed by image source.
+     * <p>
+     * Each image is only probed once, and only the image header is read where possible.
+     */
+    public Map<String,ImageInfo> prefetchImages(List<D> teasers) throws InterruptedException
+    {
+        List<String> urls = new ArrayList<String>();
+        for(D teaser : teasers)
+        {
+            if(teaser != null && teaser.hasImageSource())
+                urls.add(teaser.getImageSource());
+        }
+
+        return ImageUtils.prefetchImages(getExecutor(), urls, IMAGE_PARALLELISM);
+    }
+
+    /**
+     * Probes the images of the given details concurrently, so that the dimensions are cached
+     *  before the images are checked or downloaded one at a time.
+     */
+    protected void cacheImages(List<D> details)
+    {
+        try
+        {
+            prefetchImages(details);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Returns number of teasers found by the crawler.
      */
@@ -327,6 +439,22 @@ public abstract class ContentCrawler<D extends ContentDetails>
      */
     public abstract D getDetails(D teaser) throws IOException;
 
+    /**
+     * Returns the processed content details for each of the given teasers.
+     * <p>
+     * The default implementation processes the teasers in turn,
+     * crawlers that can process teasers concurrently should override this.
+     * The images of the details are then probed concurrently.
+     */
+    public List<D> getDetails(List<D> teasers) throws IOException
+    {
+        List<D> ret = new ArrayList<D>(teasers.size());
+        for(D teaser : teasers)
+            ret.add(getDetails(teaser));
+        cacheImages(ret);
+        return ret;
+    }
+
     /**
      * Returns the maximum results of the crawler.
      */
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.crawler;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import com.opsmatters.media.model.content.FieldName;
+import com.opsmatters.media.model.content.crawler.CrawlerWebPage;
+import com.opsmatters.media.model.content.crawler.CrawlerContent;
+import com.opsmatters.media.model.content.crawler.ContentRequest;
+import com.opsmatters.media.model.content.crawler.field.Field;
+import com.opsmatters.media.model.content.crawler.field.Fields;
+import com.opsmatters.media.model.content.crawler.field.FieldSelector;
+
+import static com.opsmatters.media.crawler.WebPageCrawler.ROOT;
+
+/**
+ * Class representing the compiled field selectors for a web page configuration.
+ * <p>
+ * The CSS queries of the teaser and article fields are parsed once into evaluators
+ *  and reused for every teaser and article crawled using the configuration.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ExtractionPlan
+{
+    private static final Logger logger = Logger.getLogger(ExtractionPlan.class.getName());
+
+    // Weak keys so that the plan is discarded when the page config is reloaded
+    private static Map<CrawlerWebPage,ExtractionPlan> plans =
+        Collections.synchronizedMap(new WeakHashMap<CrawlerWebPage,ExtractionPlan>());
+
+    private Map<String,Evaluator> evaluators = new ConcurrentHashMap<String,Evaluator>();
+    private String basePath;
+
+    /**
+     * Constructor that takes a web page configuration.
+     */
+    private ExtractionPlan(CrawlerWebPage page)
+    {
+        compile(page.getTeasers());
+        compile(page.getArticles());
+
+        if(page.getTeasers() != null && page.getTeasers().getRequest() != null)
+            basePath = getBasePath(page.getTeasers().getRequest());
+    }
+
+    /**
+     * Returns the plan for the given web page configuration, compiling it if necessary.
+     */
+    public static ExtractionPlan get(CrawlerWebPage page)
+    {
+        synchronized(plans)
+        {
+            ExtractionPlan ret = plans.get(page);
+            if(ret == null)
+            {
+                ret = new ExtractionPlan(page);
+                plans.put(page, ret);
+            }
+
+            return ret;
+        }
+    }
+
+    /**
+     * Compiles the root and field selectors of the given content configuration.
+     */
+    private void compile(CrawlerContent content)
+    {
+        if(content == null || !content.hasFields())
+            return;
+
+        for(Fields fields : content.getFields())
+        {
+            compile(fields.getRoot());
+            compile(fields.getValidator());
+            for(FieldName name : FieldName.values())
+                compile(fields.getField(name));
+        }
+    }
+
+    /**
+     * Compiles the page selectors of the given field.
+     */
+    private void compile(Field field)
+    {
+        if(field == null || field.getSelectors() == null)
+            return;
+
+        for(FieldSelector selector : field.getSelectors())
+        {
+            if(selector.getSource().isPage())
+                compile(selector.getExpr());
+        }
+    }
+
+    /**
+     * Compiles the given CSS query.
+     * <p>
+     * Invalid queries are left to be reported when they are used.
+     */
+    private void compile(String query)
+    {
+        if(query == null || query.length() == 0 || query.equals(ROOT) || evaluators.containsKey(query))
+            return;
+
+        try
+        {
+            evaluators.put(query, QueryParser.parse(query));
+        }
+        catch(RuntimeException e)
+        {
+            logger.warning(String.format("Unable to compile selector: %s (%s)", query, e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns the evaluator for the given CSS query, parsing it if it was not part of the plan.
+     */
+    public Evaluator getEvaluator(String query)
+    {
+        Evaluator ret = evaluators.get(query);
+        if(ret == null)
+        {
+            ret = QueryParser.parse(query);
+            evaluators.put(query, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the number of compiled evaluators.
+     */
+    public int size()
+    {
+        return evaluators.size();
+    }
+
+    /**
+     * Returns the elements under the given root that match the given CSS query.
+     */
+    public Elements select(Element root, String query)
+    {
+        return root.select(getEvaluator(query));
+    }
+
+    /**
+     * Returns the first element under the given root that matches the given CSS query.
+     */
+    public Element selectFirst(Element root, String query)
+    {
+        return root.selectFirst(getEvaluator(query));
+    }
+
+    /**
+     * Returns the base path for the given field.
+     */
+    public String getBasePath(Field field)
+    {
+        return field != null && field.hasBasePath() ? field.getBasePath() : basePath;
+    }
+
+    /**
+     * Returns the base path of the teasers request.
+     */
+    public String getBasePath()
+    {
+        return basePath;
+    }
+
+    /**
+     * Returns the base path for the given request, defaulting to the host of the first url.
+     */
+    private static String getBasePath(ContentRequest request)
+    {
+        String ret = request.getBasePath();
+        if(ret == null || ret.length() == 0)
+        {
+            ret = request.getUrl(0);
+            int pos = ret.indexOf("//");
+            if(pos != -1)
+            {
+                pos = ret.indexOf("/", pos+2); // find first slash after http
+                if(pos != -1)
+                {
+                    ret = ret.substring(0, pos);
+                }
+            }
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.crawler;
+
+import java.util.List;
+import java.util.logging.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.JavascriptExecutor;
+
+/**
+ * Class that waits for a page to become ready instead of sleeping for a fixed time.
+ * <p>
+ * A page is ready when the document has loaded, the number of elements matching
+ *  the root selector is non-zero and has stopped changing, and no nodes have been
+ *  added or removed from the DOM for a quiet period.
+ * The configured sleep time is used as the maximum wait.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PageReadiness
+{
+    private static final Logger logger = Logger.getLogger(PageReadiness.class.getName());
+
+    public static final long POLL_INTERVAL = 100L;
+    public static final long QUIET_PERIOD = 300L;
+
+    // Installs a mutation observer on the first call and returns the ready state,
+    // the number of elements matching the selector (-1 if none or invalid),
+    // and the millis since the DOM last changed
+    private static final String READY_SCRIPT =
+        "var s = arguments[0];"
+       +"if(!window.__omReady) {"
+       +"  window.__omReady = {last: Date.now()};"
+       +"  try {"
+       +"    new MutationObserver(function() { window.__omReady.last = Date.now(); })"
+       +"      .observe(document, {childList: true, subtree: true, characterData: true});"
+       +"  } catch(e) {}"
+       +"}"
+       +"var count = -1;"
+       +"if(s) { try { count = document.querySelectorAll(s).length; } catch(e) {} }"
+       +"return [document.readyState, count, Date.now() - window.__omReady.last];";
+
+    private static final String SCROLL_SCRIPT = "return window.pageYOffset + ',' + window.pageXOffset;";
+
+    private WebDriver driver;
+    private long elapsed = 0L;
+    private boolean ready = false;
+
+    /**
+     * Constructor that takes a driver.
+     */
+    public PageReadiness(WebDriver driver)
+    {
+        this.driver = driver;
+    }
+
+    /**
+     * Returns the time taken by the last wait (in milliseconds).
+     */
+    public long getElapsed()
+    {
+        return elapsed;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the page was ready before the last wait reached its maximum.
+     */
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    /**
+     * Waits for the page to become ready, up to the given maximum wait (in milliseconds).
+     * @param selector The CSS selector for the content roots, or <CODE>null</CODE> to only wait for the DOM to be quiet
+     * @param max The maximum time to wait
+     * @return <CODE>true</CODE> if the page became ready before the maximum wait
+     */
+    public boolean waitUntilReady(String selector, long max)
+    {
+        long start = System.currentTimeMillis();
+        long lastCount = -2L;
+        ready = false;
+
+        try
+        {
+            JavascriptExecutor js = (JavascriptExecutor)driver;
+            while(!ready && !Thread.currentThread().isInterrupted() && System.currentTimeMillis()-start < max)
+            {
+                List<?> state = (List<?>)js.executeScript(READY_SCRIPT, selector);
+                String readyState = (String)state.get(0);
+                long count = ((Number)state.get(1)).longValue();
+                long quiet = ((Number)state.get(2)).longValue();
+
+                ready = "complete".equals(readyState)
+                    && quiet >= QUIET_PERIOD
+                    && (count < 0L || (count > 0L && count == lastCount));
+                lastCount = count;
+
+                if(!ready)
+                    sleep(Math.min(POLL_INTERVAL, max-(System.currentTimeMillis()-start)));
+            }
+        }
+        catch(WebDriverException | ClassCastException | IndexOutOfBoundsException e)
+        {
+            // Fall back to the maximum wait if the script can't be run
+            logger.warning("Unable to check page ready state: "+e.getMessage());
+            sleep(max-(System.currentTimeMillis()-start));
+        }
+
+        elapsed = System.currentTimeMillis()-start;
+        return ready;
+    }
+
+    /**
+     * Waits for the page to stop scrolling, up to the given maximum wait (in milliseconds).
+     */
+    public boolean waitForScroll(long max)
+    {
+        long start = System.currentTimeMillis();
+        String lastOffset = null;
+        ready = false;
+
+        try
+        {
+            JavascriptExecutor js = (JavascriptExecutor)driver;
+            while(!ready && !Thread.currentThread().isInterrupted() && System.currentTimeMillis()-start < max)
+            {
+                sleep(Math.min(POLL_INTERVAL/2, max-(System.currentTimeMillis()-start)));
+                String offset = (String)js.executeScript(SCROLL_SCRIPT);
+                ready = offset != null && offset.equals(lastOffset);
+                lastOffset = offset;
+            }
+        }
+        catch(WebDriverException | ClassCastException e)
+        {
+            sleep(max-(System.currentTimeMillis()-start));
+        }
+
+        elapsed = System.currentTimeMillis()-start;
+        return ready;
+    }
+
+    /**
+     * Sleeps for the given time (in milliseconds).
+     */
+    private void sleep(long millis)
+    {
+        if(millis <= 0L)
+            return;
+
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -15,7 +15,13 @@
  */
 package com.opsmatters.media.crawler;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
@@ -24,15 +30,21 @@ import org.openqa.selenium.UnhandledAlertException;
 import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 import com.gargoylesoftware.htmlunit.WebClient;
 import com.gargoylesoftware.htmlunit.ProxyConfig;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.StringWebResponse;
+import com.gargoylesoftware.htmlunit.util.WebConnectionWrapper;
 import com.frogking.chromedriver.ChromeDriverBuilder;
 import com.opsmatters.media.cache.content.util.ContentProxies;
 import com.opsmatters.media.model.content.crawler.CrawlerBrowser;
 import com.opsmatters.media.model.content.crawler.ContentRequest;
+import com.opsmatters.media.model.content.crawler.ResourceBudget;
 import com.opsmatters.media.model.content.util.ContentProxy;
 
 import static com.opsmatters.media.model.HttpConstants.*;
@@ -54,6 +66,9 @@ public class WebDriverInstance
     private boolean headless = false;
     private boolean useProxy = false;
     private ContentProxy proxy = null;
+    private String host;
+    private ResourceBudget resources;
+    private AtomicLong pageWeight = new AtomicLong();
     private Instant started;
     private int uses = 0;
     private int maxUses = -1;
@@ -64,6 +79,8 @@ public class WebDriverInstance
         setHeadless(request.isHeadless());
         setProxy(request.useProxy());
         setCached(cached);
+        this.host = getHost(request.getUrl(0));
+        this.resources = request.getResources();
 
         CrawlerBrowser browser = getBrowser();
         if(browser == CHROME || browser == UNDETECTED_CHROME)
@@ -139,9 +156,61 @@ public class WebDriverInstance
         return proxy;
     }
 
+    /**
+     * Returns the resources loaded by the browser.
+     */
+    public ResourceBudget getResources()
+    {
+        return resources;
+    }
+
+    /**
+     * Resets the size of the resources loaded before loading a new page.
+     */
+    public void startPage()
+    {
+        pageWeight.set(0L);
+    }
+
+    /**
+     * Returns the size of the resources loaded by HtmlUnit for the current page (in bytes).
+     */
+    public long getPageWeight()
+    {
+        return pageWeight.get();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the resources loaded for the current page have reached the maximum size.
+     */
+    private boolean isOverweight()
+    {
+        return resources != null && resources.hasMaxPageWeight()
+            && pageWeight.get() >= resources.getMaxPageWeight()*1024L;
+    }
+
+    /**
+     * Returns the host of the given url, used to assign the same proxy to each host.
+     */
+    private static String getHost(String url)
+    {
+        String ret = null;
+
+        try
+        {
+            if(url != null && url.length() > 0)
+                ret = new URI(url).getHost();
+        }
+        catch(URISyntaxException e)
+        {
+        }
+
+        return ret;
+    }
+
     private WebDriver newHtmlUnitDriver()
     {
-        return new HtmlUnitDriver()
+        HtmlUnitDriver ret = new HtmlUnitDriver()
         {
             @Override
             protected WebClient modifyWebClient(WebClient webClient)
@@ -160,7 +229,7 @@ public class WebDriverInstance
 
                 if(useProxy)
                 {
-                    proxy = ContentProxies.next();
+                    proxy = ContentProxies.next(host);
                     if(proxy != null)
                     {
                         ProxyConfig proxyConfig = new ProxyConfig(proxy.getHost(), proxy.getPort(), null);
@@ -172,9 +241,42 @@ public class WebDriverInstance
                     }
                 }
 
+                if(resources != null)
+                {
+                    if(resources.hasTimeout())
+                        client.getOptions().setTimeout(resources.getTimeout());
+                    if(resources.hasBlocked() || resources.hasMaxPageWeight())
+                        setResourceFilter(client);
+                }
+
                 return client;
             }
         };
+
+        if(resources != null && resources.hasJavaScript())
+            ret.setJavascriptEnabled(resources.getJavaScript());
+
+        return ret;
+    }
+
+    /**
+     * Skips the resources that are blocked or would exceed the maximum page size.
+     */
+    private void setResourceFilter(WebClient client)
+    {
+        new WebConnectionWrapper(client)
+        {
+            @Override
+            public WebResponse getResponse(WebRequest request) throws IOException
+            {
+                if(resources.isBlocked(request.getUrl().toString()) || isOverweight())
+                    return new StringWebResponse("", request.getUrl());
+
+                WebResponse ret = super.getResponse(request);
+                pageWeight.addAndGet(Math.max(ret.getContentLength(), 0L));
+                return ret;
+            }
+        };
     }
 
     private WebDriver newChromeDriver()
@@ -198,9 +300,20 @@ public class WebDriverInstance
         if(headless)
             options.addArguments("--headless=new");
 
+        if(resources != null)
+        {
+            Map<String,Object> prefs = new HashMap<String,Object>();
+            if(!resources.isImages())
+                prefs.put("profile.managed_default_content_settings.images", 2);
+            if(resources.hasJavaScript() && !resources.getJavaScript())
+                prefs.put("profile.managed_default_content_settings.javascript", 2);
+            if(prefs.size() > 0)
+                options.setExperimentalOption("prefs", prefs);
+        }
+
         if(useProxy)
         {
-            proxy = ContentProxies.next();
+            proxy = ContentProxies.next(host);
             if(proxy != null)
             {
                 Proxy p = new Proxy();
@@ -221,11 +334,23 @@ public class WebDriverInstance
             options.addArguments("--proxy-bypass-list=*");
         }
 
+        WebDriver ret = null;
         if(browser == UNDETECTED_CHROME)
-            return new ChromeDriverBuilder().build(options,
+            ret = new ChromeDriverBuilder().build(options,
                 System.getProperty("webdriver.chrome.driver"));
         else
-            return new ChromeDriver(options);
+            ret = new ChromeDriver(options);
+
+        // Block the resources using the DevTools protocol
+        if(resources != null && resources.hasBlocked() && ret instanceof HasCdp)
+        {
+            Map<String,Object> params = new HashMap<String,Object>();
+            params.put("urls", resources.getBlocked());
+            ((HasCdp)ret).executeCdpCommand("Network.enable", new HashMap<String,Object>());
+            ((HasCdp)ret).executeCdpCommand("Network.setBlockedURLs", params);
+        }
+
+        return ret;
     }
 
     private WebDriver newFirefoxDriver()
@@ -238,9 +363,17 @@ public class WebDriverInstance
         if(headless)
             options.addArguments("--headless");
 
+        if(resources != null)
+        {
+            if(!resources.isImages())
+                options.addPreference("permissions.default.image", 2);
+            if(resources.hasJavaScript())
+                options.addPreference("javascript.enabled", resources.getJavaScript());
+        }
+
         if(useProxy)
         {
-            proxy = ContentProxies.next();
+            proxy = ContentProxies.next(host);
             if(proxy != null)
             {
                 Proxy p = new Proxy();
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
@@ -44,7 +45,10 @@ import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import com.opsmatters.media.cache.content.Teasers;
+import com.opsmatters.media.cache.content.util.ContentProxies;
 import com.opsmatters.media.cache.content.crawler.ErrorPages;
+import com.opsmatters.media.cache.content.crawler.ReadyTimes;
+import com.opsmatters.media.model.content.util.ContentProxy;
 import com.opsmatters.media.model.admin.TraceObject;
 import com.opsmatters.media.model.content.ContentConfig;
 import com.opsmatters.media.model.content.crawler.ContentRequest;
@@ -91,14 +95,21 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
     public static final String SECTION = "section";
     public static final String ROOT = "<root>";
 
+    private static final Pattern ONCLICK_PATTERN = Pattern.compile("\\w+\\((.+)\\);");
+    private static final Pattern BACKGROUND_IMAGE_PATTERN = Pattern.compile("(?:.*)background-image:(.+?)(?:;|\\z)(?:.*)");
+    private static final Pattern BACKGROUND_URL_PATTERN = Pattern.compile("(?:.*)url\\((.+)\\)(?:.*)");
+
     private CrawlerBrowser browser;
     private WebDriverInstance instance;
     private TraceObject traceObject = TraceObject.NONE;
     private ContentConfig config;
     private CrawlerWebPage page;
+    private ExtractionPlan plan;
     private DocumentFormat format;
     private String imagePrefix = "";
     private String lastUrl;
+    private Element urlRoot;
+    private String teaserUrl;
 
     static
     {
@@ -114,6 +125,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         super(page);
         this.config = config;
         this.page = page;
+        this.plan = ExtractionPlan.get(page);
     }
 
     /**
@@ -121,6 +133,14 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
      */
     private void initWebDriver(ContentRequest request)
     {
+        // Replace the driver if its proxy is no longer available
+        if(instance != null && instance.getProxy() != null
+            && !ContentProxies.getHealth(instance.getProxy()).isAvailable())
+        {
+            logger.info("Replacing driver for unavailable proxy: "+instance.getProxy());
+            close();
+        }
+
         if(instance == null)
             instance = new WebDriverInstance(request, false);
         this.browser = request.getBrowser();
@@ -257,36 +277,35 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
     }
 
     /**
-     * Returns the base path of the crawler.
+     * Returns the compiled field selectors of the crawler.
      */
-    public String getBasePath(Field field)
+    public ExtractionPlan getPlan()
     {
-        String ret = null;
+        return plan;
+    }
 
-        if(field != null && field.hasBasePath())
-        {
-            ret = field.getBasePath();
-        }
-        else
-        {
-            ContentRequest request = page.getTeasers().getRequest();
-            ret = request.getBasePath();
-            if(ret == null || ret.length() == 0)
-            {
-                ret = request.getUrl(0);
-                int pos = ret.indexOf("//");
-                if(pos != -1)
-                {
-                    pos = ret.indexOf("/", pos+2); // find first slash after http
-                    if(pos != -1)
-                    {
-                        ret = ret.substring(0, pos);
-                    }
-                }
-            }
-        }
+    /**
+     * Returns the elements under the given root that match the given CSS query.
+     */
+    protected Elements select(Element root, String query)
+    {
+        return plan.select(root, query);
+    }
 
-        return ret;
+    /**
+     * Returns the first element under the given root that matches the given CSS query.
+     */
+    protected Element selectFirst(Element root, String query)
+    {
+        return plan.selectFirst(root, query);
+    }
+
+    /**
+     * Returns the base path of the crawler.
+     */
+    public String getBasePath(Field field)
+    {
+        return plan.getBasePath(field);
     }
 
     /**
@@ -335,11 +354,25 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         getDriver().manage().timeouts().pageLoadTimeout(Duration.of(30, ChronoUnit.SECONDS));
 
         logger.info("Loading page: "+url);
-        getDriver().get(url);
+        long now = System.currentTimeMillis();
+        ContentProxy proxy = instance != null ? instance.getProxy() : null;
+        if(instance != null)
+            instance.startPage();
+
+        try
+        {
+            getDriver().get(url);
+        }
+        catch(WebDriverException e)
+        {
+            ContentProxies.failure(proxy);
+            throw e;
+        }
 
         String title = getTitle();
         if(isErrorPage(title))
         {
+            ContentProxies.failure(proxy);
             setErrorCode(E_ERROR_PAGE);
 
             String message = "Loaded error page: "+title;
@@ -352,6 +385,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         }
         else
         {
+            ContentProxies.success(proxy, System.currentTimeMillis()-now);
             logger.info("Loaded page: "+title);
         }
     }
@@ -411,7 +445,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         configureMovement(loading, TEASER);
 
         // Wait for the page to load
-        configureSleep(loading);
+        configureSleep(loading, getRootSelector(page.getTeasers().getFields()), TEASER);
 
         // Trace to see the teaser page
         if(trace(getDriver()))
@@ -444,7 +478,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         configureMovement(loading, ARTICLE);
 
         // Wait for the page to load
-        configureSleep(loading);
+        configureSleep(loading, getRootSelector(page.getArticles().getFields()), ARTICLE);
     }
 
     /**
@@ -469,7 +503,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                 {
                     if(debug())
                         logger.info("Set explicit wait before More link click: "+max);
-                    WebDriverWait waiter = new WebDriverWait(getDriver(), Duration.ofSeconds(max), Duration.ofSeconds(interval)); 
+                    WebDriverWait waiter = new WebDriverWait(getDriver(), Duration.ofSeconds(max), getPollInterval(interval)); 
                     WebElement element = waiter.until(ExpectedConditions.elementToBeClickable(By.cssSelector(selector)));
                     if(element != null)
                         element.click();
@@ -515,12 +549,49 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         {
             if(debug())
                 logger.info(String.format("Set explicit wait: max-wait=%d interval=%d selector=%s", max, interval, selector));
-            WebDriverWait waiter = new WebDriverWait(getDriver(), Duration.ofSeconds(max), Duration.ofSeconds(interval)); 
+            WebDriverWait waiter = new WebDriverWait(getDriver(), Duration.ofSeconds(max), getPollInterval(interval)); 
             waiter.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector)));
         }
     }
 
-    protected void configureSleep(ContentLoading loading)
+    /**
+     * Returns the polling interval for an explicit wait.
+     * <p>
+     * Polls more often than the configured interval (in seconds) so that the wait ends soon after the condition is met.
+     */
+    private Duration getPollInterval(long interval)
+    {
+        return Duration.ofMillis(Math.min(interval*1000L, PageReadiness.POLL_INTERVAL));
+    }
+
+    /**
+     * Returns the root selectors of the given fields as a single selector.
+     */
+    private String getRootSelector(List<Fields> list)
+    {
+        StringBuilder str = new StringBuilder();
+        if(list != null)
+        {
+            for(Fields fields : list)
+            {
+                if(fields.hasRoot())
+                {
+                    if(str.length() > 0)
+                        str.append(",");
+                    str.append(fields.getRoot());
+                }
+            }
+        }
+
+        return str.toString();
+    }
+
+    /**
+     * Waits for the page to be ready, using the configured sleep as the maximum wait.
+     * <p>
+     * HtmlUnit pages wait for the full sleep as JS is not used with HtmlUnit.
+     */
+    protected void configureSleep(ContentLoading loading, String selector, LogEventCategory category)
     {
         if(loading == null)
             return;
@@ -529,14 +600,27 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
 
         if(sleep > 0L)
         {
-            if(debug())
-                logger.info("Set sleep: "+sleep);
-            try
+            if(browser == CrawlerBrowser.HTMLUNIT)
             {
-                Thread.sleep(sleep);
+                if(debug())
+                    logger.info("Set sleep: "+sleep);
+                try
+                {
+                    Thread.sleep(sleep);
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
             }
-            catch(InterruptedException e)
+            else
             {
+                PageReadiness readiness = new PageReadiness(getDriver());
+                boolean ready = readiness.waitUntilReady(selector, sleep);
+                ReadyTimes.add(config.getCode(), category.tag(), readiness.getElapsed(), sleep, ready);
+                if(debug())
+                    logger.info(String.format("Page ready: ready=%b elapsed=%d max-sleep=%d selector=%s",
+                        ready, readiness.getElapsed(), sleep, selector));
             }
         }
     }
@@ -568,7 +652,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                 {
                     JavascriptExecutor js = (JavascriptExecutor)getDriver();
                     js.executeScript(String.format("var $div = document.querySelector('%s'); if ($div) { $div.scrollIntoView(true); }", moveTo), "");
-                    Thread.sleep(500);
+                    new PageReadiness(getDriver()).waitForScroll(500L);
                     Actions actions = new Actions(getDriver());
                     actions.moveToElement​(element).perform();
                 }
@@ -582,7 +666,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                         .entity(config, page));
                 }
             }
-            catch(WebDriverException | InterruptedException e)
+            catch(WebDriverException e)
             {
             }
         }
@@ -593,8 +677,58 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
      */
     protected abstract D getTeaser(Element result, Fields fields) throws DateTimeParseException;
 
+    /**
+     * Returns the unique id of the teaser in the given element without a full extraction.
+     * <p>
+     * The unique id is the teaser url, which is only extracted here if there is no validator
+     *  to decide whether the teaser is valid first.
+     * Returns <CODE>null</CODE> if the unique id can only be found by creating the teaser.
+     */
+    protected String getTeaserId(Element root, Fields fields)
+    {
+        String ret = null;
+        if(fields.hasUrl() && !fields.hasValidator())
+        {
+            String url = getTeaserUrl(root, fields);
+            if(url != null)
+                ret = FormatUtils.getFormattedUrl("", url, fields.getUrl().removeParameters());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the url of the teaser in the given element.
+     * <p>
+     * The url of the last element is kept so that it is only extracted once per teaser.
+     */
+    protected String getTeaserUrl(Element root, Fields fields)
+    {
+        if(root != urlRoot)
+        {
+            teaserUrl = fields.hasUrl() ? findTeaserUrl(fields.getUrl(), root) : null;
+            urlRoot = root;
+        }
+
+        return teaserUrl;
+    }
+
+    /**
+     * Extracts the url of the teaser in the given element.
+     */
+    protected String findTeaserUrl(Field field, Element root)
+    {
+        return getAnchor(field, root, TEASER, field.removeParameters());
+    }
+
     /**
      * Process the configured teasers.
+     * <p>
+     * The teaser pages are all loaded before the teasers are extracted, so that if the
+     *  fingerprint of the teaser roots matches the last crawl, the extraction can be skipped.
+     * <p>
+     * The unique id of each teaser is extracted first, so that teasers that have already
+     *  been found are skipped before the full extraction.
      */
     @Override
     public int processTeasers(boolean cache) throws IOException, DateTimeParseException
@@ -607,6 +741,9 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         ContentLoading loading = page.getTeasers().getLoading();
         Map<String,String> map = new HashMap<String,String>();
 
+        // Load each of the teaser pages, or get the teasers from the cache
+        Map<String,Object> sources = new LinkedHashMap<String,Object>();
+        boolean cached = false;
         for(String url : request.getUrls())
         {
             if(url.length() == 0)
@@ -618,8 +755,54 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
             // Try to get the teasers from the cache
             List<ContentDetails> teasers = Teasers.getTeasers(config.getCode(), url);
             if(teasers != null)
+            {
+                sources.put(url, teasers);
+                cached = true;
+            }
+            else
+            {
+                if(lastUrl == null || !lastUrl.equals(url))
+                    loadTeaserPage(url);
+
+                if(getErrorCode() == E_ERROR_PAGE)
+                    break;
+
+                // Parse the page into a document
+                Document doc = null;
+                if(getFormat() == HTML)
+                {
+                    doc = Jsoup.parse(getPageSource("body", TEASER));
+                    doc.outputSettings().prettyPrint(false);
+                }
+                else // XML
+                {
+                    doc = Jsoup.parse(getPageSource(TEASER), Parser.xmlParser());
+                }
+
+                sources.put(url, doc);
+            }
+        }
+
+        // Skip the extraction if the teaser roots have not changed since the last crawl
+        if(!cached && getErrorCode() != E_ERROR_PAGE && sources.size() > 0)
+        {
+            setFingerprint(getFingerprint(sources));
+            if(isUnchanged())
+            {
+                if(debug())
+                    logger.info("Teasers unchanged since last crawl: fingerprint="+getFingerprint());
+                setStatus(COMPLETED);
+                return ret;
+            }
+        }
+
+        for(Map.Entry<String,Object> entry : sources.entrySet())
+        {
+            String url = entry.getKey();
+            if(entry.getValue() instanceof List)
             {
                 int count = 0;
+                List<ContentDetails> teasers = (List<ContentDetails>)entry.getValue();
                 for(ContentDetails teaser : teasers)
                 {
                     if(teaser.isValid() && !map.containsKey(teaser.getUniqueId()))
@@ -648,69 +831,58 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
             }
             else
             {
-                if(lastUrl == null || !lastUrl.equals(url))
-                    loadTeaserPage(url);
+                Document doc = (Document)entry.getValue();
 
-                if(getErrorCode() != E_ERROR_PAGE)
+                // Process the teaser selections
+                int count = 0;
+                for(Fields fields : page.getTeasers().getFields())
                 {
-                    // Parse the page into a document
-                    Document doc = null;
-                    if(getFormat() == HTML)
-                    {
-                        doc = Jsoup.parse(getPageSource("body", TEASER));
-                        doc.outputSettings().prettyPrint(false);
-                    }
-                    else // XML
-                    {
-                        doc = Jsoup.parse(getPageSource(TEASER), Parser.xmlParser());
-                    }
+                    Elements results = select(doc, fields.getRoot());
+                    if(debug())
+                        logger.info("Found "+results.size()+" teasers for selector: "+fields.getRoot());
+                    ret += results.size();
 
-                    // Process the teaser selections
-                    int count = 0;
-                    for(Fields fields : page.getTeasers().getFields())
+                    for(Element result : results)
                     {
-                        Elements results = doc.select(fields.getRoot());
-                        if(debug())
-                            logger.info("Found "+results.size()+" teasers for selector: "+fields.getRoot());
-                        ret += results.size();
+                        // Trace to see the teaser root node
+                        if(trace(result))
+                            logger.info("teaser-node="+result.html());
 
-                        for(Element result : results)
-                        {
-                            // Trace to see the teaser root node
-                            if(trace(result))
-                                logger.info("teaser-node="+result.html());
+                        // Skip the full extraction if the teaser has already been found
+                        String id = getTeaserId(result, fields);
+                        if(id != null && map.containsKey(id))
+                            continue;
 
-                            D teaser = getTeaser(result, fields);
-                            if(teaser.isValid() && !map.containsKey(teaser.getUniqueId()))
+                        D teaser = getTeaser(result, fields);
+                        if(teaser.isValid() && !map.containsKey(teaser.getUniqueId()))
+                        {
+                            // Check that the teaser matches the configured keywords
+                            if(loading != null && loading.hasKeywords() && !teaser.matches(loading.getKeywordMatcher()))
                             {
-                                // Check that the teaser matches the configured keywords
-                                if(loading != null && loading.hasKeywords() && !teaser.matches(loading.getKeywordList()))
-                                {
-                                    logger.info(String.format("Skipping article as it does not match keywords: %s (%s)",
-                                        teaser.getTitle(), loading.getKeywords()));
-                                    continue;
-                                }
-
-                                addTeaser(teaser);
-                                map.put(teaser.getUniqueId(), teaser.getUniqueId());
-                                ++count;
+                                logger.info(String.format("Skipping article as it does not match keywords: %s (%s)",
+                                    teaser.getTitle(), loading.getKeywords()));
+                                continue;
                             }
 
-                            if(count >= getMaxResults())
-                                break;
+                            addTeaser(teaser);
+                            map.put(teaser.getUniqueId(), teaser.getUniqueId());
+                            ++count;
                         }
+
+                        if(count >= getMaxResults())
+                            break;
                     }
+                }
 
-                    if(cache)
-                        Teasers.set(url, getTeasers(), config, log.getEvents());
+                urlRoot = null;
+                teaserUrl = null;
 
-                    if(debug())
-                        logger.info("Found "+numTeasers()+" teasers");
-                }
-            }
+                if(cache)
+                    Teasers.set(url, getTeasers(), config, log.getEvents());
 
-            if(getErrorCode() == E_ERROR_PAGE)
-                break;
+                if(debug())
+                    logger.info("Found "+numTeasers()+" teasers");
+            }
         }
 
         if(getErrorCode() == E_NONE)
@@ -719,6 +891,37 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         return ret;
     }
 
+    /**
+     * Returns the fingerprint of the teaser roots in the given documents.
+     * <p>
+     * Includes the settings that affect which teasers are selected,
+     *  and the digest of the page config so that a changed config forces a full crawl.
+     */
+    private String getFingerprint(Map<String,Object> sources)
+    {
+        StringBuilder str = new StringBuilder();
+        ContentLoading loading = page.getTeasers().getLoading();
+        str.append(page.getDigest()).append('|');
+        str.append(getMaxResults()).append('|');
+        if(loading != null && loading.hasKeywords())
+            str.append(loading.getKeywords());
+        str.append('|');
+
+        for(Map.Entry<String,Object> entry : sources.entrySet())
+        {
+            str.append(entry.getKey()).append('|');
+            Document doc = (Document)entry.getValue();
+            for(Fields fields : page.getTeasers().getFields())
+            {
+                str.append(fields.getRoot()).append('|');
+                for(Element result : select(doc, fields.getRoot()))
+                    str.append(result.outerHtml());
+            }
+        }
+
+        return StringUtils.getDigest(str.toString());
+    }
+
     /**
      * Returns a list of the metatags for the given attribute name and value.
      */
@@ -767,7 +970,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
             try
             {
                 // Try each selector
-                Elements nodes = root.select(selector.getExpr());
+                Elements nodes = select(root, selector.getExpr());
                 if(nodes != null && nodes.size() > 0)
                 {
                     valid = true;
@@ -828,7 +1031,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
             if(selector.getSource().isPage())
             {
                 // Try each selector
-                nodes = root.select(selector.getExpr());
+                nodes = select(root, selector.getExpr());
                 if(nodes != null && nodes.size() > 0)
                 {
                     ret = getValue(field, select(selector, nodes), category);
@@ -964,7 +1167,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                 }
                 else
                 {
-                    Element element = root.select(selector.getExpr()).first();
+                    Element element = selectFirst(root, selector.getExpr());
                     if(element != null)
                     {
                         if(element.tagName().equals(ANCHOR))
@@ -1017,9 +1220,10 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                     if(value != null)
                     {
                         value = value.trim();
-                        if(value.matches("\\w+\\(.+\\);"))  // eg. onclick="postURL('https://something/else');"
+                        Matcher m = ONCLICK_PATTERN.matcher(value);
+                        if(m.matches())  // eg. onclick="postURL('https://something/else');"
                         {
-                            value = value.replaceAll("\\w+\\((.+)\\);", "$1"); // extract the URL
+                            value = m.group(1); // extract the URL
                             value = StringUtils.stripQuotes(value);
                         }
                     }
@@ -1083,7 +1287,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         }
         else
         {
-            elements = root.select(selector);
+            elements = select(root, selector);
         }
 
         if(debug)
@@ -1185,7 +1389,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
         }
         else
         {
-            elements = root.select(selector);
+            elements = select(root, selector);
         }
 
         if(debug)
@@ -1280,7 +1484,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
             boolean found = false;
             if(selector.getSource().isPage())
             {
-                Element element = root.select(selector.getExpr()).first();
+                Element element = selectFirst(root, selector.getExpr());
                 if(element != null)
                 {
                     if(selector.isBackground())
@@ -1293,7 +1497,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                                 category.tag(), field.getName(), style));
                         if(style != null && style.length() > 0)
                         {
-                            Matcher m = Pattern.compile("(?:.*)background-image:(.+?)(?:;|\\z)(?:.*)").matcher(style);
+                            Matcher m = BACKGROUND_IMAGE_PATTERN.matcher(style);
                             if(m.find())
                             {
                                 String image = m.group(1);
@@ -1301,7 +1505,7 @@ public abstract class WebPageCrawler<D extends ContentDetails> extends ContentCr
                                     logger.info(String.format("Background image found for style: %s", image));
                                 if(image != null && image.length() > 0)
                                 {
-                                    Matcher m2 = Pattern.compile("(?:.*)url\\((.+)\\)(?:.*)").matcher(style);
+                                    Matcher m2 = BACKGROUND_URL_PATTERN.matcher(style);
                                     if(m2.find())
                                     {
                                         ret = m2.group(1);
@@ -96,10 +96,9 @@ public class EventCrawler extends WebPageCrawler<EventDetails>
             populateTeaserFields(root, fields, teaser, TEASER);
             if(fields.hasUrl())
             {
-                Field field = fields.getUrl();
-                String url = getAnchor(field, root, TEASER, field.removeParameters());
+                String url = getTeaserUrl(root, fields);
                 if(url != null)
-                    teaser.setUrl(url, field.removeParameters());
+                    teaser.setUrl(url, fields.getUrl().removeParameters());
             }
         }
 
@@ -147,7 +146,7 @@ public class EventCrawler extends WebPageCrawler<EventDetails>
                     throw new IllegalArgumentException("Root empty for event article");
                 }
 
-                Elements elements = doc.select(fields.getRoot());
+                Elements elements = select(doc, fields.getRoot());
                 if(elements.size() > 0)
                 {
                     root = elements.get(0);
@@ -181,24 +180,8 @@ public class EventCrawler extends WebPageCrawler<EventDetails>
                     {
                         try
                         {
-                            // Try each date pattern
-                            DateTimeParseException ex = null;
-                            for(String datePattern : field.getDatePatterns())
-                            {
-                                try
-                                {
-                                    starttm = TimeUtils.toMillisTime(start, datePattern);
-                                    ex = null;
-                                    break;
-                                }
-                                catch(DateTimeParseException e)
-                                {
-                                    ex = e;
-                                }
-                            }
-
-                            if(ex != null)
-                                throw ex;
+                            // Try each date pattern, starting with the last one that matched
+                            starttm = field.getDateParser().toMillisTime(start);
 
                             if(debug())
                                 logger.info("Found start time: "+starttm);
@@ -292,24 +275,8 @@ public class EventCrawler extends WebPageCrawler<EventDetails>
 
                 try
                 {
-                    // Try each date pattern
-                    DateTimeParseException ex = null;
-                    for(String datePattern : field.getDatePatterns())
-                    {
-                        try
-                        {
-                            teaser.setStartDateAsString(startDate, datePattern);
-                            ex = null;
-                            break;
-                        }
-                        catch(DateTimeParseException e)
-                        {
-                            ex = e;
-                        }
-                    }
-
-                    if(ex != null)
-                        throw ex;
+                    // Try each date pattern, starting with the last one that matched
+                    teaser.setStartDate(field.getDateParser().toInstantUTC(startDate));
                 }
                 catch(DateTimeParseException e)
                 {
@@ -17,6 +17,9 @@ package com.opsmatters.media.crawler.parser;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
@@ -46,7 +49,25 @@ public class BodyParser
 {
     private static final Logger logger = Logger.getLogger(BodyParser.class.getName());
 
+    private static final String BR = "br";
+
+    private static final Pattern LINEFEED_PATTERN = Pattern.compile("\n(.+)");
+    private static final Pattern PUNCTUATION_SPACES_PATTERN = Pattern.compile("(\\w+)[ ]+([\\.\\?!])");
+    private static final Pattern MULTIPLE_SPACES_PATTERN = Pattern.compile("(\\S+)[ ]+(\\S+)");
+    private static final Pattern STRONG_PARAGRAPH_PATTERN = Pattern.compile("<p(?:.*?)>(.+)</p>");
+    private static final Pattern BREAKS_PATTERN = Pattern.compile("\n|<br>");
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("\\[.+\\]");
+    private static final Pattern UNDERSCORES_PATTERN = Pattern.compile("_{2,}");
+    private static final Pattern HASHTAG_PATTERN = Pattern.compile(" #\\w+");
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("\n(-|\\*)+\n");
+    private static final Pattern BULLET_PATTERN = Pattern.compile("(\n)+( )*(-|\\*|\\u2022|\\u25cf|\\u25b6|\\u25aa\\ufe0f)+( )*");
+    private static final Pattern NUMBERED_PATTERN = Pattern.compile("(\n)+[ ]*\\d{1,2}\\.[ ]*");
+    private static final Pattern PARAGRAPH_BREAK_PATTERN = Pattern.compile("\n\\s*\n");
+    private static final Pattern EMPTY_ITEM_PATTERN = Pattern.compile("\n<li>\\s*\n");
+    private static final Pattern LIST_PATTERN = Pattern.compile("<p>(.*?)((?:<li>.*?)+)(\n<br>.*)*</p>(.*)", Pattern.DOTALL);
+
     private BodyElement previous = null;
+    private Set<Node> breaks = Collections.newSetFromMap(new IdentityHashMap<Node,Boolean>());
     private List<BodyElement> elements = new ArrayList<BodyElement>();
     private List<FieldExclude> excludes;
     private List<FieldFilter> filters;
@@ -148,7 +169,10 @@ public class BodyParser
 
         Document doc = Jsoup.parse(html);
         doc.outputSettings().prettyPrint(false);
-        parseNode(doc.getElementsByTag("body").get(0));
+        Element body = doc.getElementsByTag("body").get(0);
+        findBreaks(body);
+        parseNode(body);
+        breaks.clear();
 
         if(debug)
         {
@@ -166,6 +190,8 @@ public class BodyParser
      */
     public void parseHtml(Node node)
     {
+        findBreaks(node);
+
         if(isLeafNode(node.nodeName()))
         {
             parseNode(node);
@@ -175,35 +201,50 @@ public class BodyParser
             for(Node child : node.childNodes())
                 parseNode(child);
         }
+
+        breaks.clear();
     }
 
     /**
-     * Parse the given node and add to the list of body elements.
+     * Marks the nodes under the given node that contain a &lt;br&gt; element.
+     * <p>
+     * A &lt;br&gt; is treated as a linefeed, so text either side of it is part of the same text node.
      */
-    private void parseNode(Node node)
+    private void findBreaks(Node node)
     {
-        String tag = node.nodeName();
-
-        // Preprocess the node as wholeText() removes line breaks
-        String oldHtml = null;
-        if(node instanceof Element)
+        for(Node child : node.childNodes())
         {
-            Element element = (Element)node;
-            String html = element.html();
-            if(html.indexOf("<br>") != -1)
+            if(child instanceof Element)
             {
-                element.html(html.replaceAll("<br>","\n"));
-                oldHtml = html;
+                if(child.nodeName().equals(BR))
+                {
+                    // Mark the ancestors, stopping at the first one already marked
+                    Node parent = node;
+                    while(parent != null && breaks.add(parent))
+                        parent = parent.parentNode();
+                }
+                else
+                {
+                    findBreaks(child);
+                }
             }
         }
+    }
+
+    /**
+     * Parse the given node and add to the list of body elements.
+     * <p>
+     * The tree is walked once, with any &lt;br&gt; elements treated as linefeeds in the text.
+     */
+    private void parseNode(Node node)
+    {
+        String tag = node.nodeName();
 
         // Apply the excludes to filter out particular nodes`
         if(FieldExclude.apply(getExcludes(), node))
             return;
 
-        if(node.childNodeSize() == 0
-            || (!tag.equals("body") && node.childNodeSize() == 1 && node.childNode(0) instanceof TextNode)
-            || isLeafNode(tag))
+        if(isTextNode(node, tag) || isLeafNode(tag))
         {
             boolean inline = true;
             String text = getText(node);
@@ -216,8 +257,8 @@ public class BodyParser
                 logger.info("parseNode:1: tag="+tag+" text="+text);
 
             // Add <br> to LF
-            if(tag.equals("p"))
-                text = text.replaceAll("\n(.+)","\n<br>$1");
+            if(tag.equals("p") && text.indexOf('\n') != -1)
+                text = LINEFEED_PATTERN.matcher(text).replaceAll("\n<br>$1");
 
             if(debug)
                 logger.info("parseNode:2: tag="+tag+" text="+text);
@@ -236,23 +277,8 @@ public class BodyParser
 
             for(int i = 0; i < strings.length; i++)
             {
-                String string = strings[i];
-
-                // Convert nbsp to space
-                string = string.replaceAll("\u00A0"," ");
-
-                // Replace "thin" spaces with normal space
-                string = string.replaceAll("\\u2005|\\u2009|\\u202F", " ");
-
-                // Collapse multiple spaces between end of sentence and punctuation
-                string = string.replaceAll("(\\w+)[ ]+([\\.\\?!])","$1$2");
-
-                // Collapse multiple spaces
-                string = string.replaceAll("(\\S+)[ ]+(\\S+)","$1 $2");
-
-                // Remove whitespace
-                string = string.trim();
-
+                // Normalise the whitespace
+                String string = normalizeSpaces(strings[i]);
                 strings[i] = string;
 
                 if(debug)
@@ -317,15 +343,122 @@ public class BodyParser
         }
         else // Recurse through the child nodes
         {
-            // Restore the original html content before recursing
-            if(oldHtml != null)
-                ((Element)node).html(oldHtml);
-
-            for(Node child : node.childNodes())
+            for(Node child : getChildNodes(node))
                 parseNode(child);
         }
     }
 
+    /**
+     * Returns the child nodes of the given node.
+     * <p>
+     * Adjacent text nodes are combined if the node contains a &lt;br&gt; element.
+     */
+    private List<Node> getChildNodes(Node node)
+    {
+        if(!breaks.contains(node))
+            return node.childNodes();
+
+        List<Node> ret = new ArrayList<Node>(node.childNodeSize());
+        TextNode first = null;
+        StringBuilder text = null;
+        for(Node child : node.childNodes())
+        {
+            if(child instanceof TextNode)
+            {
+                if(first == null)
+                {
+                    first = (TextNode)child;
+                }
+                else
+                {
+                    if(text == null)
+                        text = new StringBuilder(first.getWholeText());
+                    text.append(((TextNode)child).getWholeText());
+                }
+            }
+            else
+            {
+                if(first != null)
+                    ret.add(text != null ? new TextNode(text.toString()) : first);
+                first = null;
+                text = null;
+                ret.add(child);
+            }
+        }
+
+        if(first != null)
+            ret.add(text != null ? new TextNode(text.toString()) : first);
+
+        return ret;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given node has no child nodes or only contains text.
+     * <p>
+     * Text nodes either side of a &lt;br&gt; element are counted as a single text node.
+     */
+    private boolean isTextNode(Node node, String tag)
+    {
+        int size = node.childNodeSize();
+        if(size == 0)
+            return true;
+        if(tag.equals("body"))
+            return false;
+
+        if(!breaks.contains(node))
+            return size == 1 && node.childNode(0) instanceof TextNode;
+
+        // Count the child nodes, combining text and <br> elements
+        boolean text = false;
+        int count = 0;
+        for(Node child : node.childNodes())
+        {
+            boolean isText = child instanceof TextNode || child.nodeName().equals(BR);
+            if(!isText || !text)
+            {
+                if(++count > 1 || !isText)
+                    return false;
+            }
+
+            text = isText;
+        }
+
+        return count == 1;
+    }
+
+    /**
+     * Returns the given string with the whitespace normalised.
+     */
+    private String normalizeSpaces(String str)
+    {
+        // Convert nbsp and "thin" spaces to normal spaces
+        char[] chars = null;
+        for(int i = 0; i < str.length(); i++)
+        {
+            char c = str.charAt(i);
+            if(c == '\u00A0' || c == '\u2005' || c == '\u2009' || c == '\u202F')
+            {
+                if(chars == null)
+                    chars = str.toCharArray();
+                chars[i] = ' ';
+            }
+        }
+
+        if(chars != null)
+            str = new String(chars);
+
+        // Collapse multiple spaces between end of sentence and punctuation
+        if(str.indexOf(" .") != -1 || str.indexOf(" ?") != -1 || str.indexOf(" !") != -1)
+            str = PUNCTUATION_SPACES_PATTERN.matcher(str).replaceAll("$1$2");
+
+        // Collapse multiple spaces
+        if(str.indexOf("  ") != -1)
+            str = MULTIPLE_SPACES_PATTERN.matcher(str).replaceAll("$1 $2");
+
+        // Remove whitespace
+        return str.trim();
+    }
+
     /**
      * Returns the number of non-empty strings in the given array.
      */
@@ -359,9 +492,11 @@ public class BodyParser
     private boolean isStrong(Node node)
     {
         String str = node.toString();
+        if(breaks.contains(node)) // <br> inside the node is a linefeed
+            str = str.replace("<br>", "\n");
         if(str.indexOf("<p") != -1 || str.indexOf("<div") != -1)
-            str = str.replaceAll("<p(?:.*?)>(.+)</p>", "$1");
-        str = str.replaceAll("<br>", "");
+            str = STRONG_PARAGRAPH_PATTERN.matcher(str).replaceAll("$1");
+        str = str.replace("<br>", "");
         str = str.trim();
         return str.startsWith("<strong>") || str.startsWith("<b>");
     }
@@ -512,10 +647,10 @@ public class BodyParser
             }
 
             String text = element.getText();
-            text = text.replaceAll("\n|<br>",""); //Remove linefeeds and breaks
-            text = text.replaceAll("\\[.+\\]",""); // Remove references and asides
-            text = text.replaceAll("_{2,}",""); // Remove underscores as separators
-            text = text.replaceAll(" #\\w+",""); // Remove hashtags
+            text = BREAKS_PATTERN.matcher(text).replaceAll(""); //Remove linefeeds and breaks
+            text = REFERENCE_PATTERN.matcher(text).replaceAll(""); // Remove references and asides
+            text = UNDERSCORES_PATTERN.matcher(text).replaceAll(""); // Remove underscores as separators
+            text = HASHTAG_PATTERN.matcher(text).replaceAll(""); // Remove hashtags
 
             // Apply the filters to skip elements or truncate the text
             FilterResult result = FieldFilter.apply(getFilters(), text, SUMMARY);
@@ -644,30 +779,29 @@ public class BodyParser
             ret = String.format("<p>%s</p>", ret);
 
             // Turn rows of dashes or stars into paragraphs
-            ret = ret.replaceAll("\n(-|\\*)+\n", "\n\n");
+            ret = SEPARATOR_PATTERN.matcher(ret).replaceAll("\n\n");
 
             // Turn "<br>-", "<br>--", "<br>*", "<br>**", "<br>•, <br>▶" into <li> tags for <ul> list
-            ret = ret.replaceAll("(\n)+( )*(-|\\*|\\u2022|\\u25cf|\\u25b6|\\u25aa\\ufe0f)+( )*", "<li> ");
+            ret = BULLET_PATTERN.matcher(ret).replaceAll("<li> ");
 
             // Turn "<br>1.", "<br>2.", "<br>3.", etc into <oli> tags to indicate an <ol> list
-            ret = ret.replaceAll("(\n)+[ ]*\\d{1,2}\\.[ ]*", "<oli> ");
+            ret = NUMBERED_PATTERN.matcher(ret).replaceAll("<oli> ");
 
             // Turn multiple line breaks into <p> tags
-            ret = ret.replaceAll("\n\\s*\n", "</p>\n<p>");
+            ret = PARAGRAPH_BREAK_PATTERN.matcher(ret).replaceAll("</p>\n<p>");
 
             // Remove empty <li> tags
-            ret = ret.replaceAll("\n<li>\\s*\n", "\n");
+            ret = EMPTY_ITEM_PATTERN.matcher(ret).replaceAll("\n");
 
             // Process bulleted lists <ul> and <ol>
-            Pattern p = Pattern.compile("<p>(.*?)((?:<li>.*?)+)(\n<br>.*)*</p>(.*)", Pattern.DOTALL);
             if(ret.indexOf("<li>") != -1)  // unordered list
             {
-                ret = formatList(p, "ul", ret);
+                ret = formatList(LIST_PATTERN, "ul", ret);
             }
             else if(ret.indexOf("<oli>") != -1)  // ordered list
             {
                 ret = ret.replace("<oli>", "<li>");
-                ret = formatList(p, "ol", ret);
+                ret = formatList(LIST_PATTERN, "ol", ret);
             }
         }
 
@@ -100,22 +100,29 @@ public class RoundupPostCrawler extends WebPageCrawler<RoundupPostDetails>
             populateTeaserFields(root, fields, teaser, TEASER);
             if(fields.hasUrl())
             {
-                Field field = fields.getUrl();
-
-                String url = null;
-                if(getFormat() == HTML)
-                    url = getAnchor(field, root, TEASER, field.removeParameters());
-                else
-                    url = getElements(field, root, TEASER);
-
+                String url = getTeaserUrl(root, fields);
                 if(url != null)
-                    teaser.setUrl(url, field.removeParameters());
+                    teaser.setUrl(url, fields.getUrl().removeParameters());
             }
         }
 
         return teaser;
     }
 
+    /**
+     * Extracts the url of the roundup teaser in the given element.
+     */
+    @Override
+    protected String findTeaserUrl(Field field, Element root)
+    {
+        String ret = null;
+        if(getFormat() == HTML)
+            ret = getAnchor(field, root, TEASER, field.removeParameters());
+        else
+            ret = getElements(field, root, TEASER);
+        return ret;
+    }
+
     /**
      * Create roundup details from the given url.
      */
@@ -158,7 +165,7 @@ public class RoundupPostCrawler extends WebPageCrawler<RoundupPostDetails>
                     throw new IllegalArgumentException("Root empty for roundup article");
                 }
 
-                Elements elements = doc.select(fields.getRoot());
+                Elements elements = select(doc, fields.getRoot());
                 if(elements.size() > 0)
                 {
                     root = elements.get(0);
@@ -235,24 +242,8 @@ public class RoundupPostCrawler extends WebPageCrawler<RoundupPostDetails>
             {
                 try
                 {
-                    // Try each date pattern
-                    DateTimeParseException ex = null;
-                    for(String datePattern : field.getDatePatterns())
-                    {
-                        try
-                        {
-                            teaser.setPublishedDateAsString(publishedDate, datePattern);
-                            ex = null;
-                            break;
-                        }
-                        catch(DateTimeParseException e)
-                        {
-                            ex = e;
-                        }
-                    }
-
-                    if(ex != null)
-                        throw ex;
+                    // Try each date pattern, starting with the last one that matched
+                    teaser.setPublishedDate(field.getDateParser().toInstantUTC(publishedDate));
                 }
                 catch(DateTimeParseException e)
                 {
@@ -94,10 +94,9 @@ public class PublicationCrawler extends WebPageCrawler<PublicationDetails>
             populateTeaserFields(root, fields, teaser, TEASER);
             if(fields.hasUrl())
             {
-                Field field = fields.getUrl();
-                String url = getAnchor(field, root, TEASER, field.removeParameters());
+                String url = getTeaserUrl(root, fields);
                 if(url != null)
-                    teaser.setUrl(url, field.removeParameters());
+                    teaser.setUrl(url, fields.getUrl().removeParameters());
             }
         }
 
@@ -143,7 +142,7 @@ public class PublicationCrawler extends WebPageCrawler<PublicationDetails>
                     throw new IllegalArgumentException("Root empty for publication article");
                 }
 
-                Elements elements = doc.select(fields.getRoot());
+                Elements elements = select(doc, fields.getRoot());
                 if(elements.size() > 0)
                 {
                     root = elements.get(0);
@@ -216,24 +215,8 @@ public class PublicationCrawler extends WebPageCrawler<PublicationDetails>
             {
                 try
                 {
-                    // Try each date pattern
-                    DateTimeParseException ex = null;
-                    for(String datePattern : field.getDatePatterns())
-                    {
-                        try
-                        {
-                            teaser.setPublishedDateAsString(publishedDate, datePattern);
-                            ex = null;
-                            break;
-                        }
-                        catch(DateTimeParseException e)
-                        {
-                            ex = e;
-                        }
-                    }
-
-                    if(ex != null)
-                        throw ex;
+                    // Try each date pattern, starting with the last one that matched
+                    teaser.setPublishedDate(field.getDateParser().toInstantUTC(publishedDate));
                 }
                 catch(DateTimeParseException e)
                 {
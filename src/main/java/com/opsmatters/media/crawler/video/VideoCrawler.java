@@ -19,6 +19,9 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import org.json.JSONObject;
@@ -39,6 +42,7 @@ import com.opsmatters.media.model.content.crawler.field.FilterResult;
 import com.opsmatters.media.crawler.ContentCrawler;
 import com.opsmatters.media.client.video.VideoClient;
 import com.opsmatters.media.client.video.VideoClientFactory;
+import com.opsmatters.media.util.TaskScope;
 
 import static com.opsmatters.media.model.content.crawler.field.FilterScope.*;
 import static com.opsmatters.media.model.content.crawler.field.FilterResult.*;
@@ -179,7 +183,7 @@ public class VideoCrawler extends ContentCrawler<VideoDetails>
                     if(teaser.isValid() && !map.containsKey(teaser.getUniqueId()))
                     {
                         // Check that the teaser matches the configured keywords
-                        if(loading != null && loading.hasKeywords() && !teaser.matches(loading.getKeywordList()))
+                        if(loading != null && loading.hasKeywords() && !teaser.matches(loading.getKeywordMatcher()))
                         {
                             logger.info(String.format("Skipping article as it does not match keywords: %s (%s)",
                                 teaser.getTitle(), loading.getKeywords()));
@@ -248,6 +252,55 @@ public class VideoCrawler extends ContentCrawler<VideoDetails>
         return content;
     }
 
+    /**
+     * Populate the video details for each of the given teasers concurrently.
+     * <p>
+     * Teasers for which the video could not be found are returned as <CODE>null</CODE>.
+     * The thumbnails of the videos are then probed concurrently.
+     */
+    @Override
+    public List<VideoDetails> getDetails(List<VideoDetails> teasers) throws IOException
+    {
+        TaskScope<VideoDetails> scope = getExecutor().newScope();
+
+        try
+        {
+            for(final VideoDetails teaser : teasers)
+            {
+                scope.fork(new Callable<VideoDetails>()
+                {
+                    public VideoDetails call() throws IOException
+                    {
+                        return getDetails(teaser);
+                    }
+                });
+            }
+
+            List<VideoDetails> ret = scope.join();
+            cacheImages(ret);
+            return ret;
+        }
+        catch(ExecutionException e)
+        {
+            if(e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException("Unable to get video details for channel: "+channel.getChannelId(), e.getCause());
+        }
+        catch(TimeoutException e)
+        {
+            throw new IOException("Timeout getting video details for channel: "+channel.getChannelId(), e);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted getting video details for channel: "+channel.getChannelId(), e);
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
     /**
      * Populate the teaser fields from the given video.
      */
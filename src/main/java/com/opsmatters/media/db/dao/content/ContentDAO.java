@@ -17,6 +17,7 @@ package com.opsmatters.media.db.dao.content;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.sql.PreparedStatement;
@@ -158,6 +159,14 @@ public abstract class ContentDAO<T extends Content> extends BaseDAO
     private static final String DELETE_BY_CODE_SQL =  
       "DELETE FROM %s WHERE SITE_ID=? AND CODE=?";
 
+    /**
+     * The query to use to select the titles and ids of the content items for the index by organisation.
+     */
+    private static final String LIST_INDEX_SQL =
+      "SELECT TITLE, %s FROM %s WHERE SITE_ID=? AND CODE=?";
+
+    private ContentIndex index = new ContentIndex();
+
     /**
      * Constructor that takes a DAO factory and a table name.
      */
@@ -1051,6 +1060,132 @@ public abstract class ContentDAO<T extends Content> extends BaseDAO
         return null;
     }
 
+    /**
+     * Returns the index of the titles and ids of the content items.
+     */
+    public ContentIndex getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * Returns the name of the column holding the id of a content item (url or video id).
+     * <p>
+     * Returns <CODE>null</CODE> if the content items are only looked up by title.
+     */
+    protected String getIdColumn()
+    {
+        return null;
+    }
+
+    /**
+     * Returns the id of the given content item (url or video id).
+     */
+    protected String getIndexId(T content)
+    {
+        return null;
+    }
+
+    /**
+     * Adds the title and id of the given content item to the index.
+     */
+    protected void addToIndex(T content)
+    {
+        index.add(content.getSiteId(), content.getCode(), content.getTitle(), getIndexId(content));
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if a content item with the given title has definitely not been stored.
+     * <p>
+     * The index for the organisation is loaded from the table the first time it is used for
+     *  the given set of verified organisations, so that a miss is never trusted from an index
+     *  that predates the lookup.
+     * @param verified The keys of the organisations already loaded by the lookup
+     */
+    public boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+        throws SQLException
+    {
+        if(index.mightContainTitle(siteId, code, title))
+            return false;
+        verifyIndex(siteId, code, verified);
+        return !index.mightContainTitle(siteId, code, title);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if a content item with the given id (url or video id) has definitely not been stored.
+     * <p>
+     * The index for the organisation is loaded from the table the first time it is used for
+     *  the given set of verified organisations, so that a miss is never trusted from an index
+     *  that predates the lookup.
+     * @param verified The keys of the organisations already loaded by the lookup
+     */
+    public boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+        throws SQLException
+    {
+        if(getIdColumn() == null || index.mightContainId(siteId, code, id))
+            return false;
+        verifyIndex(siteId, code, verified);
+        return !index.mightContainId(siteId, code, id);
+    }
+
+    /**
+     * Loads the index for the given organisation from the table if it hasn't already been loaded
+     *  for the given set of verified organisations.
+     */
+    private void verifyIndex(String siteId, String code, Set<String> verified) throws SQLException
+    {
+        if(verified.add(siteId+":"+code))
+            loadIndex(siteId, code);
+    }
+
+    /**
+     * Loads the index of the titles and ids of the content items for the given organisation from the table.
+     */
+    private synchronized void loadIndex(String siteId, String code) throws SQLException
+    {
+        if(!hasConnection())
+            return;
+
+        List<String[]> items = new ArrayList<String[]>();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        preQuery();
+
+        try
+        {
+            String idColumn = getIdColumn();
+            stmt = prepareStatement(getConnection(), String.format(LIST_INDEX_SQL,
+                idColumn != null ? idColumn : "NULL", getTableName()));
+            stmt.setString(1, siteId);
+            stmt.setString(2, code);
+            stmt.setQueryTimeout(QUERY_TIMEOUT);
+            rs = stmt.executeQuery();
+            while(rs.next())
+                items.add(new String[] {rs.getString(1), rs.getString(2)});
+        }
+        finally
+        {
+            try
+            {
+                if(rs != null)
+                    rs.close();
+            }
+            catch (SQLException ex) 
+            {
+            } 
+
+            closeStatement(stmt);
+        }
+
+        postQuery();
+
+        ContentIndex.Builder builder = index.load(siteId, code, items.size());
+        for(String[] item : items)
+            builder.add(item[0], item[1]);
+        builder.build();
+    }
+
     /**
      * Close any resources associated with this DAO.
      */
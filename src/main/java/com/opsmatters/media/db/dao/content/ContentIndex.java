@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.db.dao.content;
+
+import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.text.Normalizer;
+import java.nio.charset.StandardCharsets;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+/**
+ * Class representing an index of the titles and ids of the stored content items
+ *  for each site and organisation.
+ * <p>
+ * The index is a bloom filter, so a value that is not found has not been added to the index,
+ *  while a value that is found might still not have been stored.
+ * The values are compared ignoring case, accents and punctuation, which covers the common cases
+ *  where the database collation would match different strings, but not collation rules such as
+ *  expansions (eg. "&szlig;" and "ss"), so a value that only matches under such a rule can be missed.
+ * <p>
+ * The content tables are also changed by other processes, and have no column that records when
+ *  an item was changed. So the filter for a site and organisation is only loaded from the table
+ *  when the owner of the index is about to trust a miss, and a value is reported as found
+ *  for a site and organisation that hasn't been loaded.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ContentIndex
+{
+    private static final int MIN_INSERTIONS = 1000;
+    private static final double FALSE_POSITIVE_RATE = 0.01d;
+    private static final Pattern IGNORED = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String TITLE = "t:";
+    private static final String ID = "i:";
+
+    private Map<String,BloomFilter<CharSequence>> filters = new ConcurrentHashMap<String,BloomFilter<CharSequence>>();
+
+    /**
+     * Default constructor.
+     */
+    public ContentIndex()
+    {
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the filter for the given site and organisation has been loaded.
+     */
+    public boolean isLoaded(String siteId, String code)
+    {
+        return filters.containsKey(getKey(siteId, code));
+    }
+
+    /**
+     * Clears the index so that every value is reported as found.
+     */
+    public void clear()
+    {
+        filters.clear();
+    }
+
+    /**
+     * Returns the key of the filter for the given site and organisation.
+     */
+    private static String getKey(String siteId, String code)
+    {
+        return siteId+":"+code;
+    }
+
+    /**
+     * Returns the given value converted to the form stored in the index.
+     * <p>
+     * Only the letters and digits are kept, without accents or case.
+     */
+    static String normalize(String value)
+    {
+        String ret = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return IGNORED.matcher(ret).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the given title and id of a stored item to the index.
+     * <p>
+     * The item is only added if the filter for its site and organisation has been loaded.
+     */
+    public void add(String siteId, String code, String title, String id)
+    {
+        BloomFilter<CharSequence> filter = filters.get(getKey(siteId, code));
+        if(filter != null)
+            put(filter, title, id);
+    }
+
+    /**
+     * Adds the given title and id to the given filter.
+     */
+    private static void put(BloomFilter<CharSequence> filter, String title, String id)
+    {
+        if(title != null && title.length() > 0)
+            filter.put(TITLE+normalize(title));
+        if(id != null && id.length() > 0)
+            filter.put(ID+normalize(id));
+    }
+
+    /**
+     * Returns <CODE>false</CODE> if an item with the given title has definitely not been stored.
+     */
+    public boolean mightContainTitle(String siteId, String code, String title)
+    {
+        return mightContain(siteId, code, TITLE, title);
+    }
+
+    /**
+     * Returns <CODE>false</CODE> if an item with the given id has definitely not been stored.
+     */
+    public boolean mightContainId(String siteId, String code, String id)
+    {
+        return mightContain(siteId, code, ID, id);
+    }
+
+    /**
+     * Returns <CODE>false</CODE> if the given value has definitely not been stored.
+     */
+    private boolean mightContain(String siteId, String code, String prefix, String value)
+    {
+        if(value == null)
+            return true;
+
+        BloomFilter<CharSequence> filter = filters.get(getKey(siteId, code));
+        return filter == null || filter.mightContain(prefix+normalize(value));
+    }
+
+    /**
+     * Class that adds the stored items for a site and organisation to the index while it is being loaded.
+     */
+    public class Builder
+    {
+        private String key;
+        private BloomFilter<CharSequence> filter;
+
+        /**
+         * Constructor that takes the key and the number of stored items for the site and organisation.
+         */
+        private Builder(String key, int size)
+        {
+            this.key = key;
+            this.filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(size*2, MIN_INSERTIONS), FALSE_POSITIVE_RATE);
+        }
+
+        /**
+         * Adds the given title and id of a stored item to the index.
+         */
+        public void add(String title, String id)
+        {
+            put(filter, title, id);
+        }
+
+        /**
+         * Replaces the filter for the site and organisation with the stored items that were added.
+         */
+        public void build()
+        {
+            filters.put(key, filter);
+        }
+    }
+
+    /**
+     * Returns a builder to load the stored items for the given site and organisation.
+     * <p>
+     * The existing filter is used until the builder is built.
+     * @param size The number of stored items for the site and organisation
+     */
+    public Builder load(String siteId, String code, int size)
+    {
+        return new Builder(getKey(siteId, code), size);
+    }
+}
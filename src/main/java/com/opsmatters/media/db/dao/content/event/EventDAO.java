@@ -221,6 +221,7 @@ public class EventDAO extends ContentDAO<Event>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -283,6 +284,7 @@ public class EventDAO extends ContentDAO<Event>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
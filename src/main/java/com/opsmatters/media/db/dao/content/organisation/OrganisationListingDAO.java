@@ -292,6 +292,7 @@ public class OrganisationListingDAO extends ContentDAO<OrganisationListing>
             logger.info(String.format("Created %s '%s' in %s (GUID=%s, code=%s)", 
                 listing.getType().value(), listing.getTitle(), getTableName(), 
                 listing.getGuid(), listing.getCode()));
+            addToIndex(listing);
         }
         catch(SQLException ex)
         {
@@ -349,6 +350,7 @@ public class OrganisationListingDAO extends ContentDAO<OrganisationListing>
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s, code=%s)", 
                 listing.getType().value(), listing.getTitle(), getTableName(), 
                 listing.getGuid(), listing.getCode()));
+            addToIndex(listing);
         }
         finally
         {
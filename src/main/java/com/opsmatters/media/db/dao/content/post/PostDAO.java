@@ -250,6 +250,7 @@ public class PostDAO extends ContentDAO<Post>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -313,6 +314,7 @@ public class PostDAO extends ContentDAO<Post>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
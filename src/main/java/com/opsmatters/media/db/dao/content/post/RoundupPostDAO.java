@@ -16,6 +16,7 @@
 package com.opsmatters.media.db.dao.content.post;
 
 import java.util.List;
+import java.util.Set;
 import java.util.ArrayList;
 import java.io.StringReader;
 import java.sql.Types;
@@ -236,6 +237,7 @@ public class RoundupPostDAO extends ContentDAO<RoundupPost>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -298,6 +300,7 @@ public class RoundupPostDAO extends ContentDAO<RoundupPost>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
@@ -306,6 +309,24 @@ public class RoundupPostDAO extends ContentDAO<RoundupPost>
         }
     }
 
+    /**
+     * Returns the name of the column holding the url of a roundup.
+     */
+    @Override
+    protected String getIdColumn()
+    {
+        return "URL";
+    }
+
+    /**
+     * Returns the url of the given roundup.
+     */
+    @Override
+    protected String getIndexId(RoundupPost content)
+    {
+        return content.getUrl();
+    }
+
     /**
      * Returns a class to look up an organisation's content by title or id.
      */
@@ -326,6 +347,20 @@ public class RoundupPostDAO extends ContentDAO<RoundupPost>
             {
                 return RoundupPostDAO.this.getByUrl(siteId, code, id);
             }
+
+            @Override
+            protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+                throws SQLException
+            {
+                return RoundupPostDAO.this.isMissingTitle(siteId, code, title, verified);
+            }
+
+            @Override
+            protected boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+                throws SQLException
+            {
+                return RoundupPostDAO.this.isMissingId(siteId, code, id, verified);
+            }
         };
     }
 
@@ -209,6 +209,7 @@ public class ProjectDAO extends ContentDAO<Project>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -268,6 +269,7 @@ public class ProjectDAO extends ContentDAO<Project>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
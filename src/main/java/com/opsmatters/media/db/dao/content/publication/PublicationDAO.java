@@ -16,6 +16,7 @@
 package com.opsmatters.media.db.dao.content.publication;
 
 import java.util.List;
+import java.util.Set;
 import java.util.ArrayList;
 import java.io.StringReader;
 import java.sql.Types;
@@ -276,6 +277,7 @@ public class PublicationDAO extends ContentDAO<Publication>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -335,6 +337,7 @@ public class PublicationDAO extends ContentDAO<Publication>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
@@ -343,6 +346,24 @@ public class PublicationDAO extends ContentDAO<Publication>
         }
     }
 
+    /**
+     * Returns the name of the column holding the url of a publication.
+     */
+    @Override
+    protected String getIdColumn()
+    {
+        return "URL";
+    }
+
+    /**
+     * Returns the url of the given publication.
+     */
+    @Override
+    protected String getIndexId(Publication content)
+    {
+        return content.getUrl();
+    }
+
     /**
      * Returns a class to look up an organisation's content by title or id.
      */
@@ -363,6 +384,20 @@ public class PublicationDAO extends ContentDAO<Publication>
             {
                 return PublicationDAO.this.getByUrl(siteId, code, id);
             }
+
+            @Override
+            protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+                throws SQLException
+            {
+                return PublicationDAO.this.isMissingTitle(siteId, code, title, verified);
+            }
+
+            @Override
+            protected boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+                throws SQLException
+            {
+                return PublicationDAO.this.isMissingId(siteId, code, id, verified);
+            }
         };
     }
 
@@ -58,6 +58,13 @@ public class ContentProxyDAO extends BaseDAO
       "UPDATE CONTENT_PROXIES SET UPDATED_DATE=?, HOST=?, PORT=?, USERNAME=?, PASSWORD=?, COUNTRY_CODE=?, CITY_NAME=?, STATUS=? "
       + "WHERE ID=?";
 
+    /**
+     * The query to use to update the status of a proxy in the CONTENT_PROXIES table.
+     */
+    private static final String UPDATE_STATUS_SQL =  
+      "UPDATE CONTENT_PROXIES SET UPDATED_DATE=?, STATUS=? "
+      + "WHERE ID=?";
+
     /**
      * The query to use to select the proxies from the CONTENT_PROXIES table.
      */
@@ -229,6 +236,31 @@ public class ContentProxyDAO extends BaseDAO
         logger.info(String.format("Updated proxy %s in CONTENT_PROXIES", proxy.getId()));
     }
 
+    /**
+     * Updates the status of the given proxies in the CONTENT_PROXIES table in a single batch.
+     */
+    public synchronized void updateStatus(List<ContentProxy> proxies) throws SQLException
+    {
+        if(!hasConnection() || proxies == null || proxies.size() == 0)
+            return;
+
+        if(updateStatusStmt == null)
+            updateStatusStmt = prepareStatement(getConnection(), UPDATE_STATUS_SQL);
+        clearParameters(updateStatusStmt);
+
+        for(ContentProxy proxy : proxies)
+        {
+            updateStatusStmt.setTimestamp(1, new Timestamp(proxy.getUpdatedDateMillis()), UTC);
+            updateStatusStmt.setString(2, proxy.getStatus().name());
+            updateStatusStmt.setString(3, proxy.getId());
+            updateStatusStmt.addBatch();
+        }
+
+        updateStatusStmt.executeBatch();
+
+        logger.info(String.format("Updated status of %d proxies in CONTENT_PROXIES", proxies.size()));
+    }
+
     /**
      * Adds or Updates the given proxy in the CONTENT_PROXIES table.
      */
@@ -353,6 +385,8 @@ public class ContentProxyDAO extends BaseDAO
         insertStmt = null;
         closeStatement(updateStmt);
         updateStmt = null;
+        closeStatement(updateStatusStmt);
+        updateStatusStmt = null;
         closeStatement(listStmt);
         listStmt = null;
         closeStatement(countStmt);
@@ -364,6 +398,7 @@ public class ContentProxyDAO extends BaseDAO
     private PreparedStatement getByIdStmt;
     private PreparedStatement insertStmt;
     private PreparedStatement updateStmt;
+    private PreparedStatement updateStatusStmt;
     private PreparedStatement listStmt;
     private PreparedStatement countStmt;
     private PreparedStatement deleteStmt;
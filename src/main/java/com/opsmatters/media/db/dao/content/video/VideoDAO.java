@@ -16,6 +16,7 @@
 package com.opsmatters.media.db.dao.content.video;
 
 import java.util.List;
+import java.util.Set;
 import java.util.ArrayList;
 import java.io.StringReader;
 import java.sql.Types;
@@ -291,6 +292,7 @@ public class VideoDAO extends ContentDAO<Video>
 
             logger.info(String.format("Created %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         catch(SQLException ex)
         {
@@ -353,6 +355,7 @@ public class VideoDAO extends ContentDAO<Video>
 
             logger.info(String.format("Updated %s '%s' in %s (GUID=%s)", 
                 content.getType().value(), content.getTitle(), getTableName(), content.getGuid()));
+            addToIndex(content);
         }
         finally
         {
@@ -361,6 +364,24 @@ public class VideoDAO extends ContentDAO<Video>
         }
     }
 
+    /**
+     * Returns the name of the column holding the video id of a video.
+     */
+    @Override
+    protected String getIdColumn()
+    {
+        return "VIDEO_ID";
+    }
+
+    /**
+     * Returns the video id of the given video.
+     */
+    @Override
+    protected String getIndexId(Video content)
+    {
+        return content.getVideoId();
+    }
+
     /**
      * Returns a class to look up an organisation's content by title or id.
      */
@@ -381,6 +402,20 @@ public class VideoDAO extends ContentDAO<Video>
             {
                 return VideoDAO.this.getByVideoId(siteId, code, id);
             }
+
+            @Override
+            protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+                throws SQLException
+            {
+                return VideoDAO.this.isMissingTitle(siteId, code, title, verified);
+            }
+
+            @Override
+            protected boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+                throws SQLException
+            {
+                return VideoDAO.this.isMissingId(siteId, code, id, verified);
+            }
         };
     }
 
@@ -18,6 +18,7 @@ package com.opsmatters.media.db.dao.monitor;
 import java.io.StringReader;
 import java.util.List;
 import java.util.ArrayList;
+import java.time.Instant;
 import java.sql.Types;
 import java.sql.PreparedStatement;
 import java.sql.Timestamp;
@@ -29,6 +30,7 @@ import com.opsmatters.media.model.system.SessionId;
 import com.opsmatters.media.model.monitor.ContentChange;
 import com.opsmatters.media.model.monitor.ContentChangeItem;
 import com.opsmatters.media.model.monitor.ChangeStatus;
+import com.opsmatters.media.model.monitor.SnapshotCodec;
 import com.opsmatters.media.db.dao.BaseDAO;
 
 /**
@@ -40,6 +42,8 @@ public class ContentChangeDAO extends BaseDAO
 {
     private static final Logger logger = Logger.getLogger(ContentChangeDAO.class.getName());
 
+    private static final int MIGRATE_BATCH_SIZE = 100;
+
     /**
      * The query to use to select a change from the CONTENT_CHANGES table by id.
      */
@@ -103,6 +107,14 @@ public class ContentChangeDAO extends BaseDAO
       + "FROM CONTENT_CHANGES "
       + "WHERE STATUS=? AND (CREATED_DATE >= (NOW() + INTERVAL -7 DAY) OR STATUS='NEW') ORDER BY CREATED_DATE";
 
+    /**
+     * The query to use to select the change items from the CONTENT_CHANGES table by monitor.
+     */
+    private static final String LIST_ITEMS_BY_MONITOR_SQL =  
+      "SELECT ID, CREATED_DATE, UPDATED_DATE, CODE, STATUS, MONITOR_ID, SITES "
+      + "FROM CONTENT_CHANGES "
+      + "WHERE MONITOR_ID=? AND CREATED_DATE>? ORDER BY CREATED_DATE";
+
     /**
      * The query to use to select the changes from the CONTENT_CHANGES table by session.
      */
@@ -111,6 +123,19 @@ public class ContentChangeDAO extends BaseDAO
       + "FROM CONTENT_CHANGES "
       + "WHERE SESSION_ID=? ORDER BY CREATED_DATE";
 
+    /**
+     * The query to use to select the snapshots from the CONTENT_CHANGES table.
+     */
+    private static final String LIST_SNAPSHOTS_SQL =  
+      "SELECT ID, SNAPSHOT_BEFORE, SNAPSHOT_AFTER, SNAPSHOT_DIFF FROM CONTENT_CHANGES";
+
+    /**
+     * The query to use to update the snapshots of a change in the CONTENT_CHANGES table.
+     */
+    private static final String UPDATE_SNAPSHOTS_SQL =  
+      "UPDATE CONTENT_CHANGES SET SNAPSHOT_BEFORE=?, SNAPSHOT_AFTER=?, SNAPSHOT_DIFF=? "
+      + "WHERE ID=?";
+
     /**
      * The query to use to get the count of changes from the CONTENT_CHANGES table.
      */
@@ -154,6 +179,7 @@ public class ContentChangeDAO extends BaseDAO
         table.setPrimaryKey("CONTENT_CHANGES_PK", new String[] {"ID"});
         table.addIndex("CONTENT_CHANGES_STATUS_IDX", new String[] {"STATUS"});
         table.addIndex("CONTENT_CHANGES_SESSION_IDX", new String[] {"SESSION_ID"});
+        table.addIndex("CONTENT_CHANGES_MONITOR_IDX", new String[] {"MONITOR_ID","CREATED_DATE"});
         table.setInitialised(true);
     }
 
@@ -186,9 +212,11 @@ public class ContentChangeDAO extends BaseDAO
                 change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
                 change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
                 change.setCode(rs.getString(4));
-                change.setSnapshotBefore(getClob(rs, 5));
-                change.setSnapshotAfter(getClob(rs, 6));
-                change.setSnapshotDiff(getClob(rs, 7));
+                String snapshotBefore = SnapshotCodec.decode(getClob(rs, 5));
+                String snapshotAfter = SnapshotCodec.decode(getClob(rs, 6), snapshotBefore);
+                change.setSnapshotBefore(snapshotBefore);
+                change.setSnapshotAfter(snapshotAfter);
+                change.setSnapshotDiff(SnapshotCodec.decode(getClob(rs, 7), snapshotAfter));
                 change.setStatus(rs.getString(8));
                 change.setMonitorId(rs.getString(9));
                 change.setExecutionTime(rs.getLong(10));
@@ -235,13 +263,13 @@ public class ContentChangeDAO extends BaseDAO
             insertStmt.setTimestamp(2, new Timestamp(change.getCreatedDateMillis()), UTC);
             insertStmt.setTimestamp(3, new Timestamp(change.getUpdatedDateMillis()), UTC);
             insertStmt.setString(4, change.getCode());
-            String snapshotBefore = change.getSnapshotBefore();
+            String snapshotBefore = SnapshotCodec.encode(change.getSnapshotBefore());
             reader = new StringReader(snapshotBefore);
             insertStmt.setCharacterStream(5, reader, snapshotBefore.length());
-            String snapshotAfter = change.getSnapshotAfter();
+            String snapshotAfter = SnapshotCodec.encode(change.getSnapshotAfter(), change.getSnapshotBefore());
             reader2 = new StringReader(snapshotAfter);
             insertStmt.setCharacterStream(6, reader2, snapshotAfter.length());
-            String snapshotDiff = change.getSnapshotDiff();
+            String snapshotDiff = SnapshotCodec.encode(change.getSnapshotDiff(), change.getSnapshotAfter());
             reader3 = new StringReader(snapshotDiff);
             insertStmt.setCharacterStream(7, reader3, snapshotDiff.length());
 
@@ -297,10 +325,10 @@ public class ContentChangeDAO extends BaseDAO
         try
         {
             updateStmt.setTimestamp(1, new Timestamp(change.getUpdatedDateMillis()), UTC);
-            String snapshotAfter = change.getSnapshotAfter();
+            String snapshotAfter = SnapshotCodec.encode(change.getSnapshotAfter(), change.getSnapshotBefore());
             reader = new StringReader(snapshotAfter);
             updateStmt.setCharacterStream(2, reader, snapshotAfter.length());
-            String snapshotDiff = change.getSnapshotDiff();
+            String snapshotDiff = SnapshotCodec.encode(change.getSnapshotDiff(), change.getSnapshotAfter());
             reader2 = new StringReader(snapshotDiff);
             updateStmt.setCharacterStream(3, reader2, snapshotDiff.length());
             updateStmt.setString(4, change.getStatus().name());
@@ -352,9 +380,11 @@ public class ContentChangeDAO extends BaseDAO
                 change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
                 change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
                 change.setCode(rs.getString(4));
-                change.setSnapshotBefore(getClob(rs, 5));
-                change.setSnapshotAfter(getClob(rs, 6));
-                change.setSnapshotDiff(getClob(rs, 7));
+                String snapshotBefore = SnapshotCodec.decode(getClob(rs, 5));
+                String snapshotAfter = SnapshotCodec.decode(getClob(rs, 6), snapshotBefore);
+                change.setSnapshotBefore(snapshotBefore);
+                change.setSnapshotAfter(snapshotAfter);
+                change.setSnapshotDiff(SnapshotCodec.decode(getClob(rs, 7), snapshotAfter));
                 change.setStatus(rs.getString(8));
                 change.setMonitorId(rs.getString(9));
                 change.setExecutionTime(rs.getLong(10));
@@ -463,9 +493,11 @@ public class ContentChangeDAO extends BaseDAO
                 change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
                 change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
                 change.setCode(rs.getString(4));
-                change.setSnapshotBefore(getClob(rs, 5));
-                change.setSnapshotAfter(getClob(rs, 6));
-                change.setSnapshotDiff(getClob(rs, 7));
+                String snapshotBefore = SnapshotCodec.decode(getClob(rs, 5));
+                String snapshotAfter = SnapshotCodec.decode(getClob(rs, 6), snapshotBefore);
+                change.setSnapshotBefore(snapshotBefore);
+                change.setSnapshotAfter(snapshotAfter);
+                change.setSnapshotDiff(SnapshotCodec.decode(getClob(rs, 7), snapshotAfter));
                 change.setStatus(rs.getString(8));
                 change.setMonitorId(rs.getString(9));
                 change.setExecutionTime(rs.getLong(10));
@@ -522,9 +554,11 @@ public class ContentChangeDAO extends BaseDAO
                 change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
                 change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
                 change.setCode(rs.getString(4));
-                change.setSnapshotBefore(getClob(rs, 5));
-                change.setSnapshotAfter(getClob(rs, 6));
-                change.setSnapshotDiff(getClob(rs, 7));
+                String snapshotBefore = SnapshotCodec.decode(getClob(rs, 5));
+                String snapshotAfter = SnapshotCodec.decode(getClob(rs, 6), snapshotBefore);
+                change.setSnapshotBefore(snapshotBefore);
+                change.setSnapshotAfter(snapshotAfter);
+                change.setSnapshotDiff(SnapshotCodec.decode(getClob(rs, 7), snapshotAfter));
                 change.setStatus(rs.getString(8));
                 change.setMonitorId(rs.getString(9));
                 change.setExecutionTime(rs.getLong(10));
@@ -604,6 +638,60 @@ public class ContentChangeDAO extends BaseDAO
         return ret;
     }
 
+    /**
+     * Returns the change items from the CONTENT_CHANGES table for the given monitor created after the given date.
+     */
+    public synchronized List<ContentChangeItem> listItems(String monitorId, Instant date) throws SQLException
+    {
+        List<ContentChangeItem> ret = null;
+
+        if(!hasConnection())
+            return ret;
+
+        preQuery();
+        if(listItemsByMonitorStmt == null)
+            listItemsByMonitorStmt = prepareStatement(getConnection(), LIST_ITEMS_BY_MONITOR_SQL);
+        clearParameters(listItemsByMonitorStmt);
+
+        ResultSet rs = null;
+
+        try
+        {
+            listItemsByMonitorStmt.setString(1, monitorId);
+            listItemsByMonitorStmt.setTimestamp(2, new Timestamp(date.toEpochMilli()), UTC);
+            listItemsByMonitorStmt.setQueryTimeout(QUERY_TIMEOUT);
+            rs = listItemsByMonitorStmt.executeQuery();
+            ret = new ArrayList<ContentChangeItem>();
+            while(rs.next())
+            {
+                ContentChangeItem change = new ContentChangeItem();
+                change.setId(rs.getString(1));
+                change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
+                change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
+                change.setCode(rs.getString(4));
+                change.setStatus(rs.getString(5));
+                change.setMonitorId(rs.getString(6));
+                change.setSites(rs.getString(7));
+                ret.add(change);
+            }
+        }
+        finally
+        {
+            try
+            {
+                if(rs != null)
+                    rs.close();
+            }
+            catch (SQLException ex) 
+            {
+            } 
+        }
+
+        postQuery();
+
+        return ret;
+    }
+
     /**
      * Returns the changes from the CONTENT_CHANGES table by session.
      */
@@ -634,9 +722,11 @@ public class ContentChangeDAO extends BaseDAO
                 change.setCreatedDateMillis(rs.getTimestamp(2, UTC).getTime());
                 change.setUpdatedDateMillis(rs.getTimestamp(3, UTC) != null ? rs.getTimestamp(3, UTC).getTime() : 0L);
                 change.setCode(rs.getString(4));
-                change.setSnapshotBefore(getClob(rs, 5));
-                change.setSnapshotAfter(getClob(rs, 6));
-                change.setSnapshotDiff(getClob(rs, 7));
+                String snapshotBefore = SnapshotCodec.decode(getClob(rs, 5));
+                String snapshotAfter = SnapshotCodec.decode(getClob(rs, 6), snapshotBefore);
+                change.setSnapshotBefore(snapshotBefore);
+                change.setSnapshotAfter(snapshotAfter);
+                change.setSnapshotDiff(SnapshotCodec.decode(getClob(rs, 7), snapshotAfter));
                 change.setStatus(rs.getString(8));
                 change.setMonitorId(rs.getString(9));
                 change.setExecutionTime(rs.getLong(10));
@@ -671,6 +761,88 @@ public class ContentChangeDAO extends BaseDAO
         return listBySession(SessionId.get());
     }
 
+    /**
+     * Encodes the snapshots of the changes in the CONTENT_CHANGES table that were stored as plain JSON.
+     * @return The number of changes that were updated
+     */
+    public synchronized int migrateSnapshots() throws SQLException
+    {
+        int ret = 0;
+
+        if(!hasConnection())
+            return ret;
+
+        preQuery();
+        if(listSnapshotsStmt == null)
+            listSnapshotsStmt = prepareStatement(getConnection(), LIST_SNAPSHOTS_SQL);
+        clearParameters(listSnapshotsStmt);
+        if(updateSnapshotsStmt == null)
+            updateSnapshotsStmt = prepareStatement(getConnection(), UPDATE_SNAPSHOTS_SQL);
+        clearParameters(updateSnapshotsStmt);
+
+        ResultSet rs = null;
+
+        try
+        {
+            listSnapshotsStmt.setQueryTimeout(QUERY_TIMEOUT);
+            rs = listSnapshotsStmt.executeQuery();
+            int batch = 0;
+            while(rs.next())
+            {
+                String snapshotBefore = getClob(rs, 2);
+                String snapshotAfter = getClob(rs, 3);
+                String snapshotDiff = getClob(rs, 4);
+                if(SnapshotCodec.isEncoded(snapshotBefore) || SnapshotCodec.isEncoded(snapshotAfter)
+                    || SnapshotCodec.isEncoded(snapshotDiff))
+                {
+                    continue;
+                }
+
+                String encodedBefore = SnapshotCodec.encode(snapshotBefore);
+                String encodedAfter = SnapshotCodec.encode(snapshotAfter, snapshotBefore);
+                String encodedDiff = SnapshotCodec.encode(snapshotDiff, snapshotAfter);
+                if(encodedBefore.equals(snapshotBefore) && encodedAfter.equals(snapshotAfter)
+                    && encodedDiff.equals(snapshotDiff))
+                {
+                    continue;
+                }
+
+                updateSnapshotsStmt.setString(1, encodedBefore);
+                updateSnapshotsStmt.setString(2, encodedAfter);
+                updateSnapshotsStmt.setString(3, encodedDiff);
+                updateSnapshotsStmt.setString(4, rs.getString(1));
+                updateSnapshotsStmt.addBatch();
+                ++ret;
+
+                if(++batch == MIGRATE_BATCH_SIZE)
+                {
+                    updateSnapshotsStmt.executeBatch();
+                    batch = 0;
+                }
+            }
+
+            if(batch > 0)
+                updateSnapshotsStmt.executeBatch();
+        }
+        finally
+        {
+            try
+            {
+                if(rs != null)
+                    rs.close();
+            }
+            catch (SQLException ex) 
+            {
+            } 
+        }
+
+        postQuery();
+
+        logger.info(String.format("Encoded snapshots of %d changes in CONTENT_CHANGES", ret));
+
+        return ret;
+    }
+
     /**
      * Returns the count of changes from the table.
      */
@@ -729,8 +901,14 @@ public class ContentChangeDAO extends BaseDAO
         listByStatusStmt = null;
         closeStatement(listItemsByStatusStmt);
         listItemsByStatusStmt = null;
+        closeStatement(listItemsByMonitorStmt);
+        listItemsByMonitorStmt = null;
         closeStatement(listBySessionStmt);
         listBySessionStmt = null;
+        closeStatement(listSnapshotsStmt);
+        listSnapshotsStmt = null;
+        closeStatement(updateSnapshotsStmt);
+        updateSnapshotsStmt = null;
         closeStatement(countStmt);
         countStmt = null;
         closeStatement(deleteStmt);
@@ -745,7 +923,10 @@ public class ContentChangeDAO extends BaseDAO
     private PreparedStatement listByCodeStmt;
     private PreparedStatement listByStatusStmt;
     private PreparedStatement listItemsByStatusStmt;
+    private PreparedStatement listItemsByMonitorStmt;
     private PreparedStatement listBySessionStmt;
+    private PreparedStatement listSnapshotsStmt;
+    private PreparedStatement updateSnapshotsStmt;
     private PreparedStatement countStmt;
     private PreparedStatement deleteStmt;
 }
@@ -30,6 +30,7 @@ import com.opsmatters.media.model.monitor.ContentMonitor;
 import com.opsmatters.media.model.monitor.ContentMonitorItem;
 import com.opsmatters.media.model.monitor.MonitorStatus;
 import com.opsmatters.media.model.monitor.ContentMonitorFactory;
+import com.opsmatters.media.model.monitor.SnapshotCodec;
 import com.opsmatters.media.db.dao.BaseDAO;
 
 /**
@@ -41,6 +42,8 @@ public class ContentMonitorDAO extends BaseDAO
 {
     private static final Logger logger = Logger.getLogger(ContentMonitorDAO.class.getName());
 
+    private static final int MIGRATE_BATCH_SIZE = 100;
+
     /**
      * The query to use to select a monitor from the CONTENT_MONITORS table by id.
      */
@@ -92,6 +95,19 @@ public class ContentMonitorDAO extends BaseDAO
       "SELECT ID, CREATED_DATE, UPDATED_DATE, EXECUTED_DATE, CODE, NAME, CONTENT_TYPE, ALERTS, STATUS "
       + "FROM CONTENT_MONITORS WHERE CODE=? ORDER BY CREATED_DATE";
 
+    /**
+     * The query to use to select the snapshots from the CONTENT_MONITORS table.
+     */
+    private static final String LIST_SNAPSHOTS_SQL =  
+      "SELECT ID, SNAPSHOT FROM CONTENT_MONITORS";
+
+    /**
+     * The query to use to update the snapshot of a monitor in the CONTENT_MONITORS table.
+     */
+    private static final String UPDATE_SNAPSHOT_SQL =  
+      "UPDATE CONTENT_MONITORS SET SNAPSHOT=? "
+      + "WHERE ID=?";
+
     /**
      * The query to use to get the count of monitors from the CONTENT_MONITORS table.
      */
@@ -170,7 +186,7 @@ public class ContentMonitorDAO extends BaseDAO
                 monitor.setCode(rs.getString(5));
                 monitor.setName(rs.getString(6));
                 monitor.setContentType(rs.getString(7));
-                monitor.setSnapshot(getClob(rs, 8));
+                monitor.setSnapshot(SnapshotCodec.decode(getClob(rs, 8)));
                 monitor.setAlerts(rs.getBoolean(9));
                 monitor.setAttributes(new JSONObject(getClob(rs, 10)));
                 monitor.setStatus(rs.getString(11));
@@ -219,7 +235,7 @@ public class ContentMonitorDAO extends BaseDAO
             insertStmt.setString(5, monitor.getCode());
             insertStmt.setString(6, monitor.getName());
             insertStmt.setString(7, monitor.getContentType().name());
-            String snapshot = monitor.getSnapshot();
+            String snapshot = SnapshotCodec.encode(monitor.getSnapshot());
             reader = new StringReader(snapshot);
             insertStmt.setCharacterStream(8, reader, snapshot.length());
             insertStmt.setBoolean(9, monitor.hasAlerts());
@@ -275,7 +291,7 @@ public class ContentMonitorDAO extends BaseDAO
             updateStmt.setTimestamp(1, new Timestamp(monitor.getUpdatedDateMillis()), UTC);
             updateStmt.setTimestamp(2, new Timestamp(monitor.getExecutedDateMillis()), UTC);
             updateStmt.setString(3, monitor.getName());
-            String snapshot = monitor.getSnapshot();
+            String snapshot = SnapshotCodec.encode(monitor.getSnapshot());
             reader = new StringReader(snapshot);
             updateStmt.setCharacterStream(4, reader, snapshot.length());
             updateStmt.setBoolean(5, monitor.hasAlerts());
@@ -363,7 +379,7 @@ public class ContentMonitorDAO extends BaseDAO
                 monitor.setCode(rs.getString(5));
                 monitor.setName(rs.getString(6));
                 monitor.setContentType(rs.getString(7));
-                monitor.setSnapshot(getClob(rs, 8));
+                monitor.setSnapshot(SnapshotCodec.decode(getClob(rs, 8)));
                 monitor.setAlerts(rs.getBoolean(9));
                 monitor.setAttributes(new JSONObject(getClob(rs, 10)));
                 monitor.setStatus(rs.getString(11));
@@ -478,7 +494,7 @@ public class ContentMonitorDAO extends BaseDAO
                 monitor.setCode(rs.getString(5));
                 monitor.setName(rs.getString(6));
                 monitor.setContentType(rs.getString(7));
-                monitor.setSnapshot(getClob(rs, 8));
+                monitor.setSnapshot(SnapshotCodec.decode(getClob(rs, 8)));
                 monitor.setAlerts(rs.getBoolean(9));
                 monitor.setAttributes(new JSONObject(getClob(rs, 10)));
                 monitor.setStatus(rs.getString(11));
@@ -623,6 +639,73 @@ public class ContentMonitorDAO extends BaseDAO
         return ret;
     }
 
+    /**
+     * Encodes the snapshots of the monitors in the CONTENT_MONITORS table that were stored as plain JSON.
+     * @return The number of monitors that were updated
+     */
+    public synchronized int migrateSnapshots() throws SQLException
+    {
+        int ret = 0;
+
+        if(!hasConnection())
+            return ret;
+
+        preQuery();
+        if(listSnapshotsStmt == null)
+            listSnapshotsStmt = prepareStatement(getConnection(), LIST_SNAPSHOTS_SQL);
+        clearParameters(listSnapshotsStmt);
+        if(updateSnapshotStmt == null)
+            updateSnapshotStmt = prepareStatement(getConnection(), UPDATE_SNAPSHOT_SQL);
+        clearParameters(updateSnapshotStmt);
+
+        ResultSet rs = null;
+
+        try
+        {
+            listSnapshotsStmt.setQueryTimeout(QUERY_TIMEOUT);
+            rs = listSnapshotsStmt.executeQuery();
+            int batch = 0;
+            while(rs.next())
+            {
+                String snapshot = getClob(rs, 2);
+                String encoded = SnapshotCodec.encode(snapshot);
+                if(encoded == null || encoded.equals(snapshot))
+                    continue;
+
+                updateSnapshotStmt.setString(1, encoded);
+                updateSnapshotStmt.setString(2, rs.getString(1));
+                updateSnapshotStmt.addBatch();
+                ++ret;
+
+                if(++batch == MIGRATE_BATCH_SIZE)
+                {
+                    updateSnapshotStmt.executeBatch();
+                    batch = 0;
+                }
+            }
+
+            if(batch > 0)
+                updateSnapshotStmt.executeBatch();
+        }
+        finally
+        {
+            try
+            {
+                if(rs != null)
+                    rs.close();
+            }
+            catch (SQLException ex) 
+            {
+            } 
+        }
+
+        postQuery();
+
+        logger.info(String.format("Encoded snapshots of %d monitors in CONTENT_MONITORS", ret));
+
+        return ret;
+    }
+
     /**
      * Returns the count of monitors from the CONTENT_MONITORS table.
      */
@@ -680,6 +763,10 @@ public class ContentMonitorDAO extends BaseDAO
         listByCodeStmt = null;
         closeStatement(listItemsByCodeStmt);
         listItemsByCodeStmt = null;
+        closeStatement(listSnapshotsStmt);
+        listSnapshotsStmt = null;
+        closeStatement(updateSnapshotStmt);
+        updateSnapshotStmt = null;
         closeStatement(countStmt);
         countStmt = null;
         closeStatement(deleteStmt);
@@ -693,6 +780,8 @@ public class ContentMonitorDAO extends BaseDAO
     private PreparedStatement listItemsStmt;
     private PreparedStatement listByCodeStmt;
     private PreparedStatement listItemsByCodeStmt;
+    private PreparedStatement listSnapshotsStmt;
+    private PreparedStatement updateSnapshotStmt;
     private PreparedStatement countStmt;
     private PreparedStatement deleteStmt;
 }
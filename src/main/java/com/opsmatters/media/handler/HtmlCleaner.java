@@ -32,6 +32,7 @@ public class HtmlCleaner
     public static final String CONTENT_WRAPPER_CLASS = HtmlDocument.POST_FULL_CONTENT_CLASS;
 
     private static final List<SuspectWord> suspectWords = new ArrayList<SuspectWord>();
+    private static volatile SuspectWordMatcher suspectWordMatcher = new SuspectWordMatcher(suspectWords);
 
     /**
      * Private constructor as this class shouldn't be instantiated.
@@ -50,12 +51,15 @@ public class HtmlCleaner
 
     /**
      * Sets the list of suspect words to be checked.
+     * <p>
+     * The words are compiled into a single matcher so that each anchor is only scanned once.
      */
     public static void setSuspectWords(List<String> suspectWords)
     {
         HtmlCleaner.suspectWords.clear();
         for(String suspectWord : suspectWords)
             HtmlCleaner.suspectWords.add(new SuspectWord(suspectWord));
+        suspectWordMatcher = new SuspectWordMatcher(HtmlCleaner.suspectWords);
     }
 
     /**
@@ -675,7 +679,7 @@ public class HtmlCleaner
      */
     public static List<String> getSuspectWords(String str)
     {
-        List<String> messages = HtmlDocument.getSuspectWordMessages(str, suspectWords);
+        List<String> messages = HtmlDocument.getSuspectWordMessages(str, suspectWordMatcher);
 
         for(String message : messages)
             logger.warning("Found "+message);
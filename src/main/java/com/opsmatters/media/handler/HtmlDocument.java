@@ -20,10 +20,12 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import com.opsmatters.media.cache.provider.ImageProviders;
 import com.opsmatters.media.util.StringUtils;
+import com.opsmatters.media.util.PatternCache;
 
 /**
  * Methods to perform checks on a HTML document and fix problems.
@@ -113,6 +115,18 @@ class HtmlDocument
         this.tags = tags;
     }
 
+    /**
+     * Returns <CODE>true</CODE> if the HTML document contains the given tag.
+     * <p>
+     * Used to skip scanning the whole document for a tag that it doesn't contain.
+     * @param tag The tag to look for in the document
+     * @return <CODE>true</CODE> if the HTML document contains the given tag.
+     */
+    private boolean hasTag(String tag)
+    {
+        return doc.indexOf("<"+tag) != -1;
+    }
+
     /**
      * Returns <CODE>true</CODE> if the HTML document contains an unnecessary attribute.
      * @return <CODE>true</CODE> if the HTML document contains an unnecessary attribute.
@@ -140,9 +154,12 @@ class HtmlDocument
      */
     private boolean hasUnnecessaryAttribute(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>",
             tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -176,7 +193,10 @@ class HtmlDocument
      */
     private void removeUnnecessaryAttributes(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>",
             tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -236,9 +256,12 @@ class HtmlDocument
      */
     private boolean hasUnnecessarySpacing(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -275,7 +298,10 @@ class HtmlDocument
      */
     private void removeUnnecessarySpacing(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -376,9 +402,12 @@ class HtmlDocument
      */
     private boolean hasBadExternalSpacingLink(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s.*?>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s.*?>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -445,7 +474,10 @@ class HtmlDocument
      */
     private void fixBadExternalSpacingLinks(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -944,9 +976,12 @@ class HtmlDocument
      */
     private boolean hasExtraLineBreaks(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -978,7 +1013,10 @@ class HtmlDocument
      */
     private void replaceExtraLineBreaks(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1016,7 +1054,10 @@ class HtmlDocument
      */
     private void removeExtraLineBreaks(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1063,9 +1104,12 @@ class HtmlDocument
      */
     private boolean hasEmptyParagraph(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.*?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.*?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1100,7 +1144,10 @@ class HtmlDocument
      */
     private void removeEmptyParagraphs(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.*?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.*?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1144,9 +1191,12 @@ class HtmlDocument
      */
     private boolean needsImageWrapperClass(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1188,7 +1238,10 @@ class HtmlDocument
      */
     private void addImageWrapperClass(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1242,9 +1295,12 @@ class HtmlDocument
      */
     private boolean needsImageLegendClass(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1285,7 +1341,10 @@ class HtmlDocument
      */
     private void addImageLegendClass(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1366,15 +1425,18 @@ class HtmlDocument
      */
     private boolean hasTitlePrefix(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
-        Pattern upperPattern = Pattern.compile(String.format("%s[\\: ](.+?)",
+        Pattern upperPattern = PatternCache.get(String.format("%s[\\: ](.+?)",
             tag.toUpperCase()), Pattern.DOTALL);
-        Pattern lowerPattern = Pattern.compile(String.format("%s[\\: ](.+?)",
+        Pattern lowerPattern = PatternCache.get(String.format("%s[\\: ](.+?)",
             tag), Pattern.DOTALL);
 
         while(m.find() && !ret)
@@ -1411,13 +1473,16 @@ class HtmlDocument
      */
     private void removeTitlePrefixes(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s(.*?)>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s(.*?)>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
-        Pattern upperPattern = Pattern.compile(String.format("%s[\\: ](.+?)",
+        Pattern upperPattern = PatternCache.get(String.format("%s[\\: ](.+?)",
             tag.toUpperCase()), Pattern.DOTALL);
-        Pattern lowerPattern = Pattern.compile(String.format("%s[\\: ](.+?)",
+        Pattern lowerPattern = PatternCache.get(String.format("%s[\\: ](.+?)",
             tag), Pattern.DOTALL);
 
         while(m.find())
@@ -1579,7 +1644,10 @@ class HtmlDocument
      */
     private void addBadExternalSpacingLinkMessages(String tag, List<String> messages)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s.*?>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s.*?>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1643,7 +1711,10 @@ class HtmlDocument
      */
     private void addSplitLinkMessages(String tag, List<String> messages)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s.*?>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s.*?>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1710,7 +1781,10 @@ class HtmlDocument
      */
     private void addImageSourceMessages(String tag, List<String> messages)
     {
-        Pattern pattern = Pattern.compile(String.format("<%s>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("<%s>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1773,9 +1847,12 @@ class HtmlDocument
      */
     private boolean hasImageSource(String tag)
     {
+        if(!hasTag(tag))
+            return false;
+
         boolean ret = false;
 
-        Pattern pattern = Pattern.compile(String.format("<%s>(.+?)</%s>",
+        Pattern pattern = PatternCache.get(String.format("<%s>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1835,7 +1912,10 @@ class HtmlDocument
      */
     private void removeImageSources(String tag)
     {
-        Pattern pattern = Pattern.compile(String.format("\\s*<%s>(.+?)</%s>",
+        if(!hasTag(tag))
+            return;
+
+        Pattern pattern = PatternCache.get(String.format("\\s*<%s>(.+?)</%s>",
             tag, tag), Pattern.DOTALL);
         Matcher m = pattern.matcher(doc);
 
@@ -1882,31 +1962,33 @@ class HtmlDocument
 
     /**
      * Returns the list of suspect word messages for the HTML document.
+     * <p>
+     * The attributes and text of each anchor are scanned once for all the suspect words.
      * @return The list of suspect word messages for the HTML document
      */
-    public static List<String> getSuspectWordMessages(String doc, List<SuspectWord> suspectWords)
+    public static List<String> getSuspectWordMessages(String doc, SuspectWordMatcher matcher)
     {
         List<String> ret = new ArrayList<String>();
+        if(matcher.size() == 0)
+            return ret;
+
         Map<String,SuspectWord> map = new HashMap<String,SuspectWord>();
 
         Matcher m = ANCHOR_ATTR_CONTENT_PATTERN.matcher(doc.toLowerCase());
 
         while(m.find())
         {
-            String whole = m.group(0);
             String attr = m.group(1);
             String anchor = m.group(2);
 
-            for(SuspectWord suspectWord : suspectWords)
+            BitSet found = matcher.find(attr, anchor);
+            for(int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i+1))
             {
+                SuspectWord suspectWord = matcher.getWord(i);
                 if(!map.containsKey(suspectWord.getText()))
                 {
-                    if(suspectWord.getPattern().matcher(attr).find()
-                        || suspectWord.getPattern().matcher(anchor).find())
-                    {
-                        ret.add(String.format("suspect word: %s", suspectWord));
-                        map.put(suspectWord.getText(), suspectWord);
-                    }
+                    ret.add(String.format("suspect word: %s", suspectWord));
+                    map.put(suspectWord.getText(), suspectWord);
                 }
             }
         }
@@ -20,6 +20,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.regex.Pattern;
 import org.apache.commons.text.StringSubstitutor;
 import com.vdurmont.emoji.EmojiParser;
 import com.twitter.twittertext.TwitterTextParser;
@@ -39,6 +40,10 @@ import static com.opsmatters.media.model.social.SocialPostProperty.*;
  */
 public class SocialPostHandler
 {
+    private static final Pattern QUOTES_PATTERN = Pattern.compile("\"|'|‘|’|‛|“|”|′|″");
+    private static final Pattern LOW_QUOTES_PATTERN = Pattern.compile("‚|„");
+    private static final Pattern SYMBOLS_PATTERN = Pattern.compile("®|©|™|«|»|\\*");
+
     private List<Token> tokens = new ArrayList<Token>();
     private String hashtag = null;
     private String hashtags = null;
@@ -115,9 +120,9 @@ public class SocialPostHandler
 
         if(value != null)
         {
-            value = value.replaceAll("\"|'|‘|’|‛|“|”|′|″", "'");
-            value = value.replaceAll("‚|„", ",");
-            value = value.replaceAll("®|©|™|«|»|\\*", ""); // Remove registered, copyright, trademark, etc
+            value = QUOTES_PATTERN.matcher(value).replaceAll("'");
+            value = LOW_QUOTES_PATTERN.matcher(value).replaceAll(",");
+            value = SYMBOLS_PATTERN.matcher(value).replaceAll(""); // Remove registered, copyright, trademark, etc
 
             getProperties().put(property, value);
         }
@@ -841,9 +846,9 @@ public class SocialPostHandler
             if(channel.getProviderId() == SocialProviderId.LINKEDIN)
             {
                 // Fix the message text for "input string format is invalid" errors
-                ret = ret.replaceAll("\\[", "(").replaceAll("\\]", ")"); // replace square brackets
-                ret = ret.replaceAll("C#", "C Sharp"); // replace C#
-                ret = ret.replaceAll("_", " "); // replace underscores
+                ret = ret.replace("[", "(").replace("]", ")"); // replace square brackets
+                ret = ret.replace("C#", "C Sharp"); // replace C#
+                ret = ret.replace('_', ' '); // replace underscores
             }
         }
 
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.media.handler;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+import java.util.regex.Matcher;
+
+/**
+ * Matches a list of suspect words against a text in a single scan.
+ * <p>
+ * Words that are plain text are compiled into an Aho-Corasick automaton,
+ *  with the word boundaries checked for each match.
+ * Words that contain regular expression characters are combined into a single
+ *  alternation which is used to find the positions where any of them match.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+class SuspectWordMatcher
+{
+    private static final String REGEX_CHARS = "\\.[]{}()*+?^$|";
+
+    private List<SuspectWord> words;
+    private State root = new State();
+    private int[] lengths;
+    private List<Integer> expressions = new ArrayList<Integer>();
+    private Pattern combined;
+
+    /**
+     * Constructor that takes a list of suspect words.
+     */
+    SuspectWordMatcher(List<SuspectWord> words)
+    {
+        this.words = new ArrayList<SuspectWord>(words);
+        this.lengths = new int[words.size()];
+
+        StringBuilder alternation = new StringBuilder();
+        for(int i = 0; i < this.words.size(); i++)
+        {
+            String text = this.words.get(i).getText().toLowerCase();
+            lengths[i] = text.length();
+
+            if(text.length() == 0)
+                continue;
+
+            if(isLiteral(text))
+            {
+                add(text, i);
+            }
+            else
+            {
+                expressions.add(i);
+                if(alternation.length() > 0)
+                    alternation.append("|");
+                alternation.append("(?:").append(this.words.get(i).getExpr()).append(")");
+            }
+        }
+
+        build();
+
+        if(alternation.length() > 0)
+            combined = Pattern.compile(alternation.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Returns the suspect word with the given index.
+     */
+    SuspectWord getWord(int index)
+    {
+        return words.get(index);
+    }
+
+    /**
+     * Returns the number of suspect words.
+     */
+    int size()
+    {
+        return words.size();
+    }
+
+    /**
+     * Returns the indexes of the suspect words found in any of the given lower case texts.
+     */
+    BitSet find(String... texts)
+    {
+        BitSet ret = new BitSet(words.size());
+
+        if(words.size() > 0)
+        {
+            for(String text : texts)
+            {
+                findLiterals(text, ret);
+                if(combined != null)
+                    findExpressions(text, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given word doesn't contain any regular expression characters.
+     */
+    private static boolean isLiteral(String text)
+    {
+        for(int i = 0; i < text.length(); i++)
+        {
+            if(REGEX_CHARS.indexOf(text.charAt(i)) != -1)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Class representing a state of the automaton.
+     */
+    private static class State
+    {
+        Map<Character,State> next = new HashMap<Character,State>();
+        State fail;
+        List<Integer> words = new ArrayList<Integer>();
+    }
+
+    /**
+     * Adds the given word to the trie.
+     */
+    private void add(String text, int index)
+    {
+        State state = root;
+        for(int i = 0; i < text.length(); i++)
+        {
+            Character c = text.charAt(i);
+            State next = state.next.get(c);
+            if(next == null)
+            {
+                next = new State();
+                state.next.put(c, next);
+            }
+
+            state = next;
+        }
+
+        state.words.add(index);
+    }
+
+    /**
+     * Adds the failure links to the trie to complete the automaton.
+     */
+    private void build()
+    {
+        LinkedList<State> queue = new LinkedList<State>();
+        root.fail = root;
+        for(State state : root.next.values())
+        {
+            state.fail = root;
+            queue.add(state);
+        }
+
+        while(!queue.isEmpty())
+        {
+            State state = queue.removeFirst();
+            for(Map.Entry<Character,State> entry : state.next.entrySet())
+            {
+                Character c = entry.getKey();
+                State next = entry.getValue();
+
+                State fail = state.fail;
+                while(fail != root && !fail.next.containsKey(c))
+                    fail = fail.fail;
+                State target = fail.next.get(c);
+                next.fail = target != null && target != next ? target : root;
+
+                // The fail state has already been visited so its words are complete
+                next.words.addAll(next.fail.words);
+                queue.add(next);
+            }
+        }
+    }
+
+    /**
+     * Adds the plain text words found in the given text.
+     */
+    private void findLiterals(String text, BitSet found)
+    {
+        State state = root;
+        for(int i = 0; i < text.length(); i++)
+        {
+            Character c = text.charAt(i);
+            while(state != root && !state.next.containsKey(c))
+                state = state.fail;
+            State next = state.next.get(c);
+            state = next != null ? next : root;
+
+            for(int index : state.words)
+            {
+                if(!found.get(index)
+                    && isBoundary(text, i-lengths[index]+1)
+                    && isBoundary(text, i+1))
+                {
+                    found.set(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the regular expression words found in the given text.
+     * <p>
+     * The combined pattern finds each position where at least one of the
+     *  expressions matches, and only those positions are checked for each expression.
+     */
+    private void findExpressions(String text, BitSet found)
+    {
+        Matcher m = combined.matcher(text);
+        int from = 0;
+        while(from < text.length() && m.find(from))
+        {
+            int start = m.start();
+            for(int index : expressions)
+            {
+                if(!found.get(index))
+                {
+                    Matcher wm = words.get(index).getPattern().matcher(text);
+                    wm.useTransparentBounds(true);
+                    wm.region(start, text.length());
+                    if(wm.lookingAt())
+                        found.set(index);
+                }
+            }
+
+            from = start+1;
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given position is a word boundary, as for "\b" in a pattern.
+     */
+    private static boolean isBoundary(String text, int pos)
+    {
+        boolean before = pos > 0 && isWordChar(text.charAt(pos-1));
+        boolean after = pos < text.length() && isWordChar(text.charAt(pos));
+        return before != after;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given character is a word character.
+     */
+    private static boolean isWordChar(char c)
+    {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
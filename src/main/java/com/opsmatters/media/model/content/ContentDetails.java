@@ -19,6 +19,7 @@ import java.time.Instant;
 import java.util.List;
 import java.time.format.DateTimeParseException;
 import com.opsmatters.media.model.Formats;
+import com.opsmatters.media.model.content.crawler.KeywordMatcher;
 import com.opsmatters.media.util.TimeUtils;
 import com.opsmatters.media.util.FormatUtils;
 
@@ -145,6 +146,14 @@ public abstract class ContentDetails implements java.io.Serializable
         return ret;
     }
 
+    /**
+     * Returns <CODE>true</CODE> if the content item matches the keywords of the given matcher.
+     */
+    public boolean matches(KeywordMatcher matcher)
+    {
+        return matcher.matches(getTitle());
+    }
+
     /**
      * Returns the content title.
      */
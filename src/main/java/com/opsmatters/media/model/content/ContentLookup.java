@@ -16,6 +16,8 @@
 package com.opsmatters.media.model.content;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.sql.SQLException;
 import com.opsmatters.media.model.content.Content;
@@ -23,6 +25,10 @@ import com.opsmatters.media.model.organisation.OrganisationSite;
 
 /**
  * Class representing a lookup for content items.
+ * <p>
+ * An organisation is skipped for a title or id that has definitely not been stored.
+ *  The stored items of each organisation are checked against the table the first time they are needed
+ *  after the organisations are set, so a lookup should only be used for a single comparison.
  * 
  * @author Gerald Curley (opsmatters)
  */
@@ -31,6 +37,7 @@ public abstract class ContentLookup<T extends Content>
     private static final Logger logger = Logger.getLogger(ContentLookup.class.getName());
 
     private List<OrganisationSite> organisations;
+    private Set<String> verified = ConcurrentHashMap.newKeySet();
 
     /**
      * Default constructor.
@@ -53,6 +60,48 @@ public abstract class ContentLookup<T extends Content>
     public void setOrganisations(List<OrganisationSite> organisations)
     {
         this.organisations = organisations;
+        verified.clear();
+    }
+
+    /**
+     * Returns a lookup for the given organisations that uses the queries of this lookup.
+     * <p>
+     * Allows a lookup to be shared by threads that need different organisations without locking it.
+     */
+    public ContentLookup<T> withOrganisations(List<OrganisationSite> organisations)
+    {
+        final ContentLookup<T> lookup = this;
+        ContentLookup<T> ret = new ContentLookup<T>()
+        {
+            @Override
+            protected T getByTitle(String siteId, String code, String title) throws SQLException
+            {
+                return lookup.getByTitle(siteId, code, title);
+            }
+
+            @Override
+            protected T getById(String siteId, String code, String id) throws SQLException
+            {
+                return lookup.getById(siteId, code, id);
+            }
+
+            @Override
+            protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+                throws SQLException
+            {
+                return lookup.isMissingTitle(siteId, code, title, verified);
+            }
+
+            @Override
+            protected boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+                throws SQLException
+            {
+                return lookup.isMissingId(siteId, code, id, verified);
+            }
+        };
+
+        ret.setOrganisations(organisations);
+        return ret;
     }
 
     /**
@@ -63,6 +112,8 @@ public abstract class ContentLookup<T extends Content>
         T ret = null;
         for(OrganisationSite organisation : organisations)
         {
+            if(isMissingTitle(organisation.getSiteId(), organisation.getCode(), title, verified))
+                continue;
             ret = getByTitle(organisation.getSiteId(), organisation.getCode(), title);
             if(ret != null)
                 break;
@@ -76,6 +127,16 @@ public abstract class ContentLookup<T extends Content>
      */
     protected abstract T getByTitle(String siteId, String code, String title) throws SQLException;
 
+    /**
+     * Returns <CODE>true</CODE> if the content item with the given organisation, code and title has definitely not been stored.
+     * @param verified The keys of the organisations already checked against the table by this lookup
+     */
+    protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+        throws SQLException
+    {
+        return false;
+    }
+
     /**
      * Returns the content item with the given id (url or video id).
      */
@@ -84,6 +145,8 @@ public abstract class ContentLookup<T extends Content>
         T ret = null;
         for(OrganisationSite organisation : organisations)
         {
+            if(isMissingId(organisation.getSiteId(), organisation.getCode(), id, verified))
+                continue;
             ret = getById(organisation.getSiteId(), organisation.getCode(), id);
             if(ret != null)
                 break;
@@ -96,4 +159,14 @@ public abstract class ContentLookup<T extends Content>
      * Returns the content item with the given organisation, code and id (url or video id).
      */
     protected abstract T getById(String siteId, String code, String id) throws SQLException;
+
+    /**
+     * Returns <CODE>true</CODE> if the content item with the given organisation, code and id has definitely not been stored.
+     * @param verified The keys of the organisations already checked against the table by this lookup
+     */
+    protected boolean isMissingId(String siteId, String code, String id, Set<String> verified)
+        throws SQLException
+    {
+        return false;
+    }
 }
\ No newline at end of file
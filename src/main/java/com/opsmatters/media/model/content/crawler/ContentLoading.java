@@ -35,6 +35,8 @@ public class ContentLoading implements ConfigElement
     private long maxWait = 0L;
     private String keywords = "";
     private List<String> keywordList;
+    private KeywordMatch keywordMatch = KeywordMatch.CONTAINS;
+    private KeywordMatcher keywordMatcher;
     private int scrollX = 0;
     private int scrollY = 0;
     private String moveTo = "";
@@ -67,6 +69,7 @@ public class ContentLoading implements ConfigElement
             setSleep(obj.getSleep());
             setWait(obj.getWait());
             setMaxWait(obj.getMaxWait());
+            setKeywordMatch(obj.getKeywordMatch());
             setKeywords(obj.getKeywords());
             setScrollX(obj.getScrollX());
             setScrollY(obj.getScrollY());
@@ -185,14 +188,45 @@ public class ContentLoading implements ConfigElement
             if(keywordList == null)
                 keywordList = new ArrayList<String>();
             keywordList.clear();
-            String[] array = keywords.split(",");
-            for(String keyword : array)
-            {
-                String str = keyword.toLowerCase().trim();
-                if(str.length() > 0)
-                    keywordList.add(str);
-            }
+            keywordList.addAll(KeywordMatcher.parse(keywords));
         }
+
+        keywordMatcher = null;
+    }
+
+    /**
+     * Returns how the keywords are matched when page loading.
+     */
+    public KeywordMatch getKeywordMatch()
+    {
+        return keywordMatch;
+    }
+
+    /**
+     * Sets how the keywords are matched when page loading.
+     */
+    public void setKeywordMatch(String keywordMatch)
+    {
+        setKeywordMatch(KeywordMatch.fromValue(keywordMatch));
+    }
+
+    /**
+     * Sets how the keywords are matched when page loading.
+     */
+    public void setKeywordMatch(KeywordMatch keywordMatch)
+    {
+        this.keywordMatch = keywordMatch != null ? keywordMatch : KeywordMatch.CONTAINS;
+        keywordMatcher = null;
+    }
+
+    /**
+     * Returns the compiled matcher for the keywords to filter on when page loading.
+     */
+    public KeywordMatcher getKeywordMatcher()
+    {
+        if(keywordMatcher == null && hasKeywords())
+            keywordMatcher = KeywordMatcher.get(keywordList, keywordMatch);
+        return keywordMatcher;
     }
 
     /**
@@ -296,6 +330,7 @@ public class ContentLoading implements ConfigElement
         private static final String INTERVAL = "interval";
         private static final String MAX_WAIT = "max-wait";
         private static final String KEYWORDS = "keywords";
+        private static final String KEYWORD_MATCH = "keyword-match";
         private static final String SCROLL_X = "scroll-x";
         private static final String SCROLL_Y = "scroll-y";
         private static final String MOVE_TO = "move-to";
@@ -323,6 +358,8 @@ public class ContentLoading implements ConfigElement
                 ret.setMaxWait((Integer)map.get(MAX_WAIT));
             if(map.containsKey(KEYWORDS))
                 ret.setKeywords((String)map.get(KEYWORDS));
+            if(map.containsKey(KEYWORD_MATCH))
+                ret.setKeywordMatch((String)map.get(KEYWORD_MATCH));
             if(map.containsKey(SCROLL_X))
                 ret.setScrollX((Integer)map.get(SCROLL_X));
             if(map.containsKey(SCROLL_Y))
@@ -41,6 +41,7 @@ public class ContentRequest implements ConfigElement
     private boolean headless = true;
     private boolean proxy = false;
     private boolean antiCache = false;
+    private ResourceBudget resources;
 
     /**
      * Default constructor.
@@ -75,6 +76,8 @@ public class ContentRequest implements ConfigElement
             setHeadless(obj.isHeadless());
             setProxy(obj.useProxy());
             setAntiCache(obj.isAntiCache());
+            if(obj.getResources() != null)
+                setResources(new ResourceBudget(obj.getResources()));
         }
     }
 
@@ -289,6 +292,30 @@ public class ContentRequest implements ConfigElement
         this.antiCache = antiCache;
     }
 
+    /**
+     * Returns the resources loaded by the browser for this configuration.
+     */
+    public ResourceBudget getResources()
+    {
+        return resources;
+    }
+
+    /**
+     * Sets the resources loaded by the browser for this configuration.
+     */
+    public void setResources(ResourceBudget resources)
+    {
+        this.resources = resources;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the resources loaded by the browser have been set.
+     */
+    public boolean hasResources()
+    {
+        return resources != null;
+    }
+
     /**
      * Returns <CODE>true</CODE> if instances created from this request can be cached.
      */
@@ -323,6 +350,7 @@ public class ContentRequest implements ConfigElement
         private static final String HEADLESS = "headless";
         private static final String PROXY = "proxy";
         private static final String ANTI_CACHE = "anti-cache";
+        private static final String RESOURCES = "resources";
 
         private ContentRequest ret = new ContentRequest();
 
@@ -356,6 +384,9 @@ public class ContentRequest implements ConfigElement
                 ret.setProxy((Boolean)map.get(PROXY));
             if(map.containsKey(ANTI_CACHE))
                 ret.setAntiCache((Boolean)map.get(ANTI_CACHE));
+            if(map.containsKey(RESOURCES))
+                ret.setResources(ResourceBudget.builder()
+                    .parse((Map<String,Object>)map.get(RESOURCES)).build());
 
             return this;
         }
@@ -24,6 +24,7 @@ import com.opsmatters.media.model.content.FieldMap;
 import com.opsmatters.media.model.content.FieldName;
 import com.opsmatters.media.model.content.crawler.field.Field;
 import com.opsmatters.media.model.content.crawler.field.Fields;
+import com.opsmatters.media.util.StringUtils;
 
 /**
  * Class that represents a YAML configuration for a crawler.
@@ -38,6 +39,7 @@ public abstract class CrawlerTarget implements ConfigElement
     private FieldMap fields = new FieldMap();
     private String sites = "";
     private String provider = "";
+    private String digest = "";
 
     /**
      * Constructor that takes a name.
@@ -67,6 +69,7 @@ public abstract class CrawlerTarget implements ConfigElement
             setFields(new FieldMap(obj.getFields()));
             setSites(obj.getSites());
             setProvider(obj.getProvider());
+            setDigest(obj.getDigest());
         }
     }
 
@@ -224,6 +227,22 @@ public abstract class CrawlerTarget implements ConfigElement
         this.provider = provider;
     }
 
+    /**
+     * Returns the digest of the attributes this configuration was parsed from.
+     */
+    public String getDigest()
+    {
+        return digest;
+    }
+
+    /**
+     * Sets the digest of the attributes this configuration was parsed from.
+     */
+    public void setDigest(String digest)
+    {
+        this.digest = digest;
+    }
+
     /**
      * Builder to make configuration construction easier.
      */
@@ -256,6 +275,8 @@ public abstract class CrawlerTarget implements ConfigElement
         @Override
         public B parse(Map<String, Object> map)
         {
+            ret.setDigest(StringUtils.getDigest(map.toString()));
+
             if(map.containsKey(TEASERS))
             {
                 ret.setTeasers(CrawlerContent.builder()
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.content.crawler;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches a list of keywords against a text in a single scan.
+ * <p>
+ * The keywords are compiled into an Aho-Corasick automaton which is shared
+ *  between all the configurations with the same keywords and match type.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class KeywordMatcher
+{
+    public static final int MAX_SIZE = 256;
+
+    // The suffixes allowed after a stemmed keyword, longest first
+    private static final String[] SUFFIXES = {"ing", "ies", "ied", "ers", "es", "ed", "er", "ly", "s", "y"};
+    private static final int MIN_STEM = 3;
+
+    // The compiled matchers, keyed by match type and keywords
+    private static Map<String,KeywordMatcher> matchers = new ConcurrentHashMap<String,KeywordMatcher>();
+
+    private List<String> keywords;
+    private KeywordMatch match;
+    private State root = new State();
+    private List<Integer> lengths = new ArrayList<Integer>();
+
+    /**
+     * Constructor that takes a list of lower case keywords and the match type.
+     */
+    private KeywordMatcher(List<String> keywords, KeywordMatch match)
+    {
+        this.keywords = Collections.unmodifiableList(new ArrayList<String>(keywords));
+        this.match = match;
+
+        for(String keyword : keywords)
+        {
+            if(keyword.length() > 0)
+                add(keyword);
+
+            // Also add the stem so that other forms of the keyword match,
+            //  but keep the whole keyword as the stem may have cut into the word, eg. "process"
+            if(match == KeywordMatch.STEM)
+            {
+                String stem = stem(keyword);
+                if(!stem.equals(keyword))
+                    add(stem);
+            }
+        }
+
+        build();
+    }
+
+    /**
+     * Returns the matcher for the given lower case keywords and match type.
+     * <p>
+     * The matchers are cleared if the cache has reached its maximum size.
+     */
+    public static KeywordMatcher get(List<String> keywords, KeywordMatch match)
+    {
+        if(match == null)
+            match = KeywordMatch.CONTAINS;
+
+        String key = match.value()+":"+String.join(",", keywords);
+        KeywordMatcher ret = matchers.get(key);
+        if(ret == null)
+        {
+            ret = new KeywordMatcher(keywords, match);
+            if(matchers.size() >= MAX_SIZE)
+                matchers.clear();
+            matchers.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the matcher for the given comma-separated keywords and match type.
+     */
+    public static KeywordMatcher get(String keywords, KeywordMatch match)
+    {
+        return get(parse(keywords), match);
+    }
+
+    /**
+     * Returns the lower case keywords in the given comma-separated list.
+     */
+    public static List<String> parse(String keywords)
+    {
+        List<String> ret = new ArrayList<String>();
+        if(keywords != null && keywords.length() > 0)
+        {
+            String[] array = keywords.split(",");
+            for(String keyword : array)
+            {
+                String str = keyword.toLowerCase().trim();
+                if(str.length() > 0)
+                    ret.add(str);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the number of cached matchers.
+     */
+    public static int size()
+    {
+        return matchers.size();
+    }
+
+    /**
+     * Returns the keywords of the matcher.
+     */
+    public List<String> getKeywords()
+    {
+        return keywords;
+    }
+
+    /**
+     * Returns the match type of the matcher.
+     */
+    public KeywordMatch getMatch()
+    {
+        return match;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given text contains any of the keywords.
+     */
+    public boolean matches(String text)
+    {
+        if(keywords.size() == 0 || text == null)
+            return false;
+
+        text = text.toLowerCase();
+        State state = root;
+        for(int i = 0; i < text.length(); i++)
+        {
+            Character c = text.charAt(i);
+            while(state != root && !state.next.containsKey(c))
+                state = state.fail;
+            State next = state.next.get(c);
+            state = next != null ? next : root;
+
+            for(int index : state.words)
+            {
+                if(isMatch(text, i-lengths.get(index)+1, i+1))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the keyword found between the given positions is a match.
+     */
+    private boolean isMatch(String text, int start, int end)
+    {
+        boolean ret = true;
+        if(match == KeywordMatch.WORD)
+        {
+            ret = isBoundary(text, start) && isBoundary(text, end);
+        }
+        else if(match == KeywordMatch.STEM)
+        {
+            ret = false;
+            if(isBoundary(text, start))
+            {
+                int pos = end;
+                while(pos < text.length() && isWordChar(text.charAt(pos)))
+                    ++pos;
+                ret = pos == end || isSuffix(text.substring(end, pos));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the given keyword with any suffix removed from its last word.
+     * <p>
+     * The suffix is removed without checking the word, so the stem may be shorter than the root of the word.
+     */
+    static String stem(String keyword)
+    {
+        for(String suffix : SUFFIXES)
+        {
+            if(keyword.endsWith(suffix) && keyword.length()-suffix.length() >= MIN_STEM
+                && isWordChar(keyword.charAt(keyword.length()-suffix.length()-1)))
+            {
+                return keyword.substring(0, keyword.length()-suffix.length());
+            }
+        }
+
+        return keyword;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given text is an allowed suffix.
+     */
+    private static boolean isSuffix(String text)
+    {
+        for(String suffix : SUFFIXES)
+        {
+            if(suffix.equals(text))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Class representing a state of the automaton.
+     */
+    private static class State
+    {
+        Map<Character,State> next = new HashMap<Character,State>();
+        State fail;
+        List<Integer> words = new ArrayList<Integer>();
+    }
+
+    /**
+     * Adds the given keyword or stem to the trie.
+     */
+    private void add(String text)
+    {
+        int index = lengths.size();
+        lengths.add(text.length());
+
+        State state = root;
+        for(int i = 0; i < text.length(); i++)
+        {
+            Character c = text.charAt(i);
+            State next = state.next.get(c);
+            if(next == null)
+            {
+                next = new State();
+                state.next.put(c, next);
+            }
+
+            state = next;
+        }
+
+        state.words.add(index);
+    }
+
+    /**
+     * Adds the failure links to the trie to complete the automaton.
+     */
+    private void build()
+    {
+        LinkedList<State> queue = new LinkedList<State>();
+        root.fail = root;
+        for(State state : root.next.values())
+        {
+            state.fail = root;
+            queue.add(state);
+        }
+
+        while(!queue.isEmpty())
+        {
+            State state = queue.removeFirst();
+            for(Map.Entry<Character,State> entry : state.next.entrySet())
+            {
+                Character c = entry.getKey();
+                State next = entry.getValue();
+
+                State fail = state.fail;
+                while(fail != root && !fail.next.containsKey(c))
+                    fail = fail.fail;
+                State target = fail.next.get(c);
+                next.fail = target != null && target != next ? target : root;
+
+                // The fail state has already been visited so its words are complete
+                next.words.addAll(next.fail.words);
+                queue.add(next);
+            }
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given position doesn't split a word.
+     */
+    private static boolean isBoundary(String text, int pos)
+    {
+        boolean before = pos > 0 && isWordChar(text.charAt(pos-1));
+        boolean after = pos < text.length() && isWordChar(text.charAt(pos));
+        return !(before && after);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given character is a word character.
+     */
+    private static boolean isWordChar(char c)
+    {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.content.crawler;
+
+/**
+ * Class representing the observed times for pages of a configuration to become ready.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ReadyTime
+{
+    private String code = "";
+    private String category = "";
+    private long sleep = 0L;
+    private int count = 0;
+    private int timeouts = 0;
+    private long total = 0L;
+    private long max = 0L;
+    private long last = 0L;
+
+    /**
+     * Constructor that takes a code and a category.
+     */
+    public ReadyTime(String code, String category)
+    {
+        this.code = code;
+        this.category = category;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("ReadyTime[code=%s category=%s sleep=%d count=%d timeouts=%d avg=%d max=%d last=%d]",
+            code, category, sleep, count, timeouts, getAverage(), max, last);
+    }
+
+    /**
+     * Returns the code of the configuration.
+     */
+    public String getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Returns the category of the pages.
+     */
+    public String getCategory()
+    {
+        return category;
+    }
+
+    /**
+     * Returns the configured sleep time that acts as the ceiling (in milliseconds).
+     */
+    public long getSleep()
+    {
+        return sleep;
+    }
+
+    /**
+     * Adds an observed ready time (in milliseconds).
+     * @param elapsed The time taken for the page to be ready
+     * @param sleep The configured sleep time
+     * @param ready <CODE>false</CODE> if the configured sleep time was reached before the page was ready
+     */
+    public synchronized void add(long elapsed, long sleep, boolean ready)
+    {
+        this.sleep = sleep;
+        ++count;
+        if(!ready)
+            ++timeouts;
+        total += elapsed;
+        if(elapsed > max)
+            max = elapsed;
+        last = elapsed;
+    }
+
+    /**
+     * Returns the number of observed ready times.
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the number of times the configured sleep time was reached before the page was ready.
+     */
+    public int getTimeouts()
+    {
+        return timeouts;
+    }
+
+    /**
+     * Returns the average ready time (in milliseconds).
+     */
+    public synchronized long getAverage()
+    {
+        return count > 0 ? total/count : 0L;
+    }
+
+    /**
+     * Returns the maximum ready time (in milliseconds).
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Returns the last ready time (in milliseconds).
+     */
+    public long getLast()
+    {
+        return last;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.content.crawler;
+
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.media.model.ConfigElement;
+import com.opsmatters.media.model.ConfigParser;
+import com.opsmatters.media.util.StringUtils;
+
+/**
+ * Class that represents a YAML configuration for the resources loaded by the browser for a web page request.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResourceBudget implements ConfigElement
+{
+    private Boolean javascript;
+    private boolean images = true;
+    private List<String> blocked = new ArrayList<String>();
+    private int maxPageWeight = 0;
+    private int timeout = 0;
+
+    /**
+     * Default constructor.
+     */
+    public ResourceBudget()
+    {
+    }
+
+    /**
+     * Copy constructor.
+     */
+    public ResourceBudget(ResourceBudget obj)
+    {
+        copyAttributes(obj);
+    }
+
+    /**
+     * Copies the attributes of the given object.
+     */
+    public void copyAttributes(ResourceBudget obj)
+    {
+        if(obj != null)
+        {
+            setJavaScript(obj.getJavaScript());
+            setImages(obj.isImages());
+            setBlocked(obj.getBlocked());
+            setMaxPageWeight(obj.getMaxPageWeight());
+            setTimeout(obj.getTimeout());
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if JavaScript is enabled, or <CODE>null</CODE> to use the browser default.
+     */
+    public Boolean getJavaScript()
+    {
+        return javascript;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if JavaScript has been enabled or disabled for the request.
+     */
+    public boolean hasJavaScript()
+    {
+        return javascript != null;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if JavaScript is enabled, or <CODE>null</CODE> to use the browser default.
+     */
+    public void setJavaScript(Boolean javascript)
+    {
+        this.javascript = javascript;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if images should be loaded.
+     */
+    public boolean isImages()
+    {
+        return images;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if images should be loaded.
+     */
+    public void setImages(boolean images)
+    {
+        this.images = images;
+    }
+
+    /**
+     * Returns the url patterns of the resources that should not be loaded, eg. "*.doubleclick.net/*".
+     */
+    public List<String> getBlocked()
+    {
+        return blocked;
+    }
+
+    /**
+     * Sets the url patterns of the resources that should not be loaded.
+     */
+    public void setBlocked(List<String> blocked)
+    {
+        this.blocked.clear();
+        if(blocked != null)
+            this.blocked.addAll(blocked);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if there are url patterns of resources that should not be loaded.
+     */
+    public boolean hasBlocked()
+    {
+        return blocked.size() > 0;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given url matches one of the blocked url patterns.
+     */
+    public boolean isBlocked(String url)
+    {
+        for(String pattern : blocked)
+        {
+            if(StringUtils.isWildcardMatch(url, pattern, true))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the maximum size of the resources loaded by HtmlUnit for a page (in KB).
+     * <p>
+     * Once the limit is reached, the remaining resources for the page are not loaded.
+     *  A size of zero means no limit.
+     */
+    public int getMaxPageWeight()
+    {
+        return maxPageWeight;
+    }
+
+    /**
+     * Sets the maximum size of the resources loaded for a page (in KB).
+     */
+    public void setMaxPageWeight(int maxPageWeight)
+    {
+        this.maxPageWeight = maxPageWeight;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if there is a maximum size for the resources loaded for a page.
+     */
+    public boolean hasMaxPageWeight()
+    {
+        return maxPageWeight > 0;
+    }
+
+    /**
+     * Returns the timeout for each resource loaded by HtmlUnit (in milliseconds).
+     * <p>
+     * A timeout of zero means the default timeout.
+     */
+    public int getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout for each resource loaded by HtmlUnit (in milliseconds).
+     */
+    public void setTimeout(int timeout)
+    {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the timeout for each resource has been set.
+     */
+    public boolean hasTimeout()
+    {
+        return timeout > 0;
+    }
+
+    /**
+     * Returns a builder for the configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make configuration construction easier.
+     */
+    public static class Builder implements ConfigParser<ResourceBudget>
+    {
+        // The config attribute names
+        private static final String JAVASCRIPT = "javascript";
+        private static final String IMAGES = "images";
+        private static final String BLOCKED = "blocked";
+        private static final String MAX_PAGE_WEIGHT = "max-page-weight";
+        private static final String TIMEOUT = "timeout";
+
+        private ResourceBudget ret = new ResourceBudget();
+
+        /**
+         * Parse the configuration using the given attribute map.
+         * @param map The map of attributes
+         * @return This object
+         */
+        @Override
+        public Builder parse(Map<String, Object> map)
+        {
+            if(map.containsKey(JAVASCRIPT))
+                ret.setJavaScript((Boolean)map.get(JAVASCRIPT));
+            if(map.containsKey(IMAGES))
+                ret.setImages((Boolean)map.get(IMAGES));
+            if(map.containsKey(BLOCKED))
+                ret.setBlocked((List<String>)map.get(BLOCKED));
+            if(map.containsKey(MAX_PAGE_WEIGHT))
+                ret.setMaxPageWeight((Integer)map.get(MAX_PAGE_WEIGHT));
+            if(map.containsKey(TIMEOUT))
+                ret.setTimeout((Integer)map.get(TIMEOUT));
+
+            return this;
+        }
+
+        /**
+         * Returns the configured configuration instance
+         * @return The configuration instance
+         */
+        public ResourceBudget build()
+        {
+            return ret;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.logging.Logger;
 import com.opsmatters.media.model.ConfigElement;
 import com.opsmatters.media.model.ConfigParser;
+import com.opsmatters.media.util.DateParser;
 
 /**
  * Class that represents a field in a content item.
@@ -36,6 +37,7 @@ public class Field implements ConfigElement
     private List<FieldExtractor> extractors;
     private FieldCase textCase = FieldCase.NONE;
     private List<String> datePatterns;
+    private DateParser dateParser;
     private List<FieldFilter> filters;
     private List<FieldCondition> conditions;
     private String basePath = "";
@@ -254,6 +256,17 @@ public class Field implements ConfigElement
         if(datePatterns == null)
             datePatterns = new ArrayList<String>(2);
         datePatterns.add(datePattern);
+        dateParser = null;
+    }
+
+    /**
+     * Returns the parser for the date patterns of this configuration.
+     */
+    public synchronized DateParser getDateParser()
+    {
+        if(dateParser == null)
+            dateParser = new DateParser(hasDatePatterns() ? datePatterns : new ArrayList<String>());
+        return dateParser;
     }
 
     /**
@@ -204,6 +204,14 @@ public class ContentProxy extends BaseEntity
         return status == ProxyStatus.ACTIVE;
     }
 
+    /**
+     * Returns <CODE>true</CODE> if the proxy has been disabled by the health checks.
+     */
+    public boolean isUnhealthy()
+    {
+        return status == ProxyStatus.UNHEALTHY;
+    }
+
     /**
      * Sets the proxy status.
      */
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 public enum ProxyStatus
 {
     ACTIVE("Active", "glyphicon-ok-circle", "status-success"),
+    UNHEALTHY("Unhealthy", "glyphicon-alert", "status-warn"), // disabled by the health checks
     DISABLED("Disabled", "glyphicon-ban-circle", "status-error");
 
     private String value;
@@ -116,6 +117,7 @@ public enum ProxyStatus
         List<ProxyStatus> ret = new ArrayList<ProxyStatus>();
 
         ret.add(ACTIVE);
+        ret.add(UNHEALTHY);
         ret.add(DISABLED);
 
         return ret;
@@ -35,6 +35,7 @@ public class ContentChange extends ContentEvent
     private long executionTime = -1L;
     private int difference = 0;
     private String sites = "";
+    private transient String diffHtml;
 
     /**
      * Default constructor.
@@ -176,6 +177,7 @@ public class ContentChange extends ContentEvent
     public void setSnapshotBefore(String snapshotBefore)
     {
         this.snapshotBefore = snapshotBefore;
+        this.diffHtml = null;
     }
 
     /**
@@ -192,6 +194,7 @@ public class ContentChange extends ContentEvent
     public void setSnapshotAfter(String snapshotAfter)
     {
         this.snapshotAfter = snapshotAfter;
+        this.diffHtml = null;
     }
 
     /**
@@ -226,6 +229,29 @@ public class ContentChange extends ContentEvent
         setSnapshotDiff(snapshotDiff.toString());
     }
 
+    /**
+     * Returns a HTML document that highlights the differences between the snapshots before and after the change.
+     * <p>
+     * The document is only rendered the first time it is requested.
+     */
+    public synchronized String getDiffHtml()
+    {
+        if(diffHtml == null)
+        {
+            diffHtml = SnapshotDiff.compare(format(getSnapshotBefore()), format(getSnapshotAfter()));
+        }
+
+        return diffHtml;
+    }
+
+    /**
+     * Returns the given snapshot as a list of items.
+     */
+    private static String format(String snapshot)
+    {
+        return snapshot != null && snapshot.length() > 0 ? new ContentSnapshot(snapshot).format() : "";
+    }
+
     /**
      * Returns the time taken for the monitor execution.
      */
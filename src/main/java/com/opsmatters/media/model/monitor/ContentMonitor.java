@@ -23,6 +23,7 @@ import java.util.logging.Logger;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeParseException;
 import java.sql.SQLException;
 import org.json.JSONObject;
@@ -56,6 +57,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
     public static final String CONTENT_TYPE = "content-type";
     public static final String URL = "url";
     public static final String INTERVAL = "interval";
+    public static final String ADAPTIVE = "adaptive";
+    public static final String INTERVAL_REASON = "interval-reason";
     public static final String SUCCESS_DATE = "success-date";
     public static final String EXECUTION_TIME = "execution-time";
     public static final String ERROR_MESSAGE = "error-message";
@@ -65,6 +68,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
     public static final String TITLE = "title";
     public static final String KEYWORDS = "keywords";
     public static final String ALERTS = "alerts";
+    public static final String FINGERPRINT = "fingerprint";
+    public static final String SNAPSHOT_DIGEST = "snapshot-digest";
 
     private String code = "";
     private String organisation = "";
@@ -76,9 +81,12 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
     private MonitorStatus status;
     private String url = "";
     private String snapshot = "";
+    private transient ContentSnapshot contentSnapshot;
     private ContentEventType eventType;
     private String eventId = "";
     private int interval = -1;
+    private boolean adaptive = false;
+    private String intervalReason = "";
     private String errorMessage = "";
     private int retry = 0;
     private Instant subscribedDate;
@@ -86,6 +94,10 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
     private String title = "";
     private String keywords = "";
     private boolean alerts = false;
+    private String fingerprint = "";
+    private String snapshotDigest = "";
+    private transient String baseline;
+    private transient boolean unchanged = false;
 
     private Map<String,String> siteMap = new HashMap<String,String>();
 
@@ -125,6 +137,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
             setEventType(obj.getEventType());
             setEventId(obj.getEventId());
             setInterval(obj.getInterval());
+            setAdaptive(obj.isAdaptive());
+            setIntervalReason(obj.getIntervalReason());
             setErrorMessage(obj.getErrorMessage());
             setRetry(obj.getRetry());
             setSubscribedDate(obj.getSubscribedDate());
@@ -132,6 +146,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
             setTitle(obj.getTitle());
             setKeywords(obj.getKeywords());
             setAlerts(obj.hasAlerts());
+            setFingerprint(obj.getFingerprint());
+            setSnapshotDigest(obj.getSnapshotDigest());
         }
     }
 
@@ -167,27 +183,58 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
     public boolean updateChange(ContentChange change, ContentLookup lookup,
         int maxResults, boolean cache, boolean debug)
         throws SQLException, IOException, IllegalStateException
+    {
+        Instant now = Instant.now();
+        ContentSnapshot snapshot = checkChange(change, maxResults, cache, debug);
+        return updateChange(change, snapshot, now, Instant.now(), lookup, debug);
+    }
+
+    /**
+     * Executes a check using this monitor for the given change.
+     * <p>
+     * The last crawl is reused if it produced the "after" snapshot of the change.
+     */
+    public ContentSnapshot checkChange(ContentChange change, int maxResults, boolean cache, boolean debug)
+        throws IOException, IllegalStateException
+    {
+        try
+        {
+            // The last crawl can only be reused if it produced the current "after" snapshot
+            baseline = change.getSnapshotAfter();
+            return check(maxResults, cache, debug);
+        }
+        finally
+        {
+            baseline = null;
+        }
+    }
+
+    /**
+     * Update the last snapshot for the given change using the snapshot from a check.
+     * @param started The date the check was started
+     * @param completed The date the check was completed
+     */
+    public boolean updateChange(ContentChange change, ContentSnapshot snapshot,
+        Instant started, Instant completed, ContentLookup lookup, boolean debug)
+        throws SQLException
     {
         boolean ret = false;
 
-        Instant now = Instant.now();
-        ContentSnapshot snapshot = check(maxResults, cache, debug);
-        change.setUpdatedDate(now);
+        change.setUpdatedDate(started);
 
-        Instant then = Instant.now();
-        if(snapshot != null && !change.getSnapshotAfter().equals(snapshot.toString()))
+        if(snapshot != null && !isUnchanged() && !change.getSnapshotAfter().equals(snapshot.toString()))
         {
             ContentSnapshot diff = compareSnapshot(snapshot, lookup, debug);
             change.setSnapshotDiff(diff);
             change.setSnapshotAfter(snapshot);
             change.setDifference(SnapshotDiff.getDifferencePercent(change.getSnapshotBefore(),
                 change.getSnapshotAfter()));
-            change.setExecutionTime(Duration.between(now, then).toMillis());
+            change.setExecutionTime(Duration.between(started, completed).toMillis());
             ret = true;
         }
 
-        setExecutedDate(then);
-        setSuccessDate(then);
+        setExecutedDate(completed);
+        setSuccessDate(completed);
         setExecutionTime(change.getExecutionTime());
 
         return ret;
@@ -203,6 +250,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         ret.putOpt(CONTENT_TYPE, getContentType().name());
         ret.putOpt(URL, getUrl());
         ret.putOpt(INTERVAL, getInterval());
+        ret.putOpt(ADAPTIVE, isAdaptive());
+        ret.putOpt(INTERVAL_REASON, getIntervalReason());
         ret.putOpt(SUCCESS_DATE, getSuccessDateMillis());
         ret.putOpt(EXECUTION_TIME, getExecutionTime());
         ret.putOpt(ERROR_MESSAGE, getErrorMessage());
@@ -211,6 +260,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         ret.putOpt(SITES, getSites());
         ret.putOpt(TITLE, getTitle());
         ret.putOpt(ALERTS, hasAlerts());
+        ret.putOpt(FINGERPRINT, getFingerprint());
+        ret.putOpt(SNAPSHOT_DIGEST, getSnapshotDigest());
 
         return ret;
     }
@@ -223,6 +274,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         setContentType(obj.optString(CONTENT_TYPE));
         setUrl(obj.optString(URL));
         setInterval(obj.optInt(INTERVAL));
+        setAdaptive(obj.optBoolean(ADAPTIVE, false));
+        setIntervalReason(obj.optString(INTERVAL_REASON));
         setSuccessDateMillis(obj.optLong(SUCCESS_DATE));
         setExecutionTime(obj.optLong(EXECUTION_TIME));
         setErrorMessage(obj.optString(ERROR_MESSAGE));
@@ -231,6 +284,8 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         setSites(obj.optString(SITES));
         setTitle(obj.optString(TITLE));
         setAlerts(obj.optBoolean(ALERTS, false));
+        setFingerprint(obj.optString(FINGERPRINT));
+        setSnapshotDigest(obj.optString(SNAPSHOT_DIGEST));
     }
 
     /**
@@ -479,6 +534,7 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         setExecutedDate(null);
         clearEvent();
         setErrorMessage("");
+        clearFingerprint();
     }
 
     /**
@@ -717,28 +773,40 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         return snapshot;
     }
 
+    /**
+     * Returns the last monitor snapshot, parsing it the first time it is used.
+     */
+    public synchronized ContentSnapshot getContentSnapshot()
+    {
+        if(contentSnapshot == null)
+            contentSnapshot = new ContentSnapshot(snapshot);
+        return contentSnapshot;
+    }
+
     /**
      * Returns the last monitor snapshot with pretty print.
      */
     public String getPrettySnapshot()
     {
-        return new ContentSnapshot(snapshot).toString(2);
+        return getContentSnapshot().toString(2);
     }
 
     /**
      * Sets the last monitor snapshot.
      */
-    public void setSnapshot(String snapshot)
+    public synchronized void setSnapshot(String snapshot)
     {
         this.snapshot = snapshot;
+        this.contentSnapshot = null;
     }
 
     /**
      * Sets the last monitor snapshot.
      */
-    public void setSnapshot(ContentSnapshot snapshot)
+    public synchronized void setSnapshot(ContentSnapshot snapshot)
     {
         setSnapshot(snapshot.toString());
+        this.contentSnapshot = new ContentSnapshot(snapshot);
     }
 
     /**
@@ -832,6 +900,72 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         this.interval = interval;
     }
 
+    /**
+     * Sets the interval between monitor checks (in minutes) and the reason it was chosen.
+     */
+    public void setInterval(int interval, String reason)
+    {
+        setInterval(interval);
+        setIntervalReason(reason);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the interval between monitor checks is adjusted to the frequency of changes.
+     */
+    public boolean isAdaptive()
+    {
+        return adaptive;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the interval between monitor checks is adjusted to the frequency of changes.
+     */
+    public Boolean getAdaptiveObject()
+    {
+        return Boolean.valueOf(isAdaptive());
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the interval between monitor checks is adjusted to the frequency of changes.
+     */
+    public void setAdaptive(boolean adaptive)
+    {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the interval between monitor checks is adjusted to the frequency of changes.
+     */
+    public void setAdaptiveObject(Boolean adaptive)
+    {
+        setAdaptive(adaptive != null && adaptive.booleanValue());
+    }
+
+    /**
+     * Returns the reason the interval between monitor checks was chosen.
+     */
+    public String getIntervalReason()
+    {
+        return intervalReason;
+    }
+
+    /**
+     * Sets the reason the interval between monitor checks was chosen.
+     */
+    public void setIntervalReason(String intervalReason)
+    {
+        this.intervalReason = intervalReason;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the interval has passed since the monitor was last executed.
+     */
+    public boolean isDue(Instant now)
+    {
+        return getExecutedDate() == null || getInterval() <= 0
+            || !now.isBefore(getExecutedDate().plus(getInterval(), ChronoUnit.MINUTES));
+    }
+
     /**
      * Returns the monitor error message.
      */
@@ -1057,20 +1191,117 @@ public class ContentMonitor<T extends ContentDetails> extends BaseEntity
         setAlerts(alerts != null && alerts.booleanValue());
     }
 
+    /**
+     * Returns the fingerprint of the content found by the last check.
+     */
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the content found by the last check.
+     */
+    public void setFingerprint(String fingerprint)
+    {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the content found by the last check, together with the snapshot it produced.
+     */
+    public void setFingerprint(String fingerprint, ContentSnapshot snapshot)
+    {
+        setFingerprint(fingerprint);
+        setSnapshotDigest(fingerprint != null && fingerprint.length() > 0
+            ? StringUtils.getDigest(snapshot.toString()) : "");
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the fingerprint of the last check has been set.
+     */
+    public boolean hasFingerprint()
+    {
+        return fingerprint != null && fingerprint.length() > 0;
+    }
+
+    /**
+     * Clears the fingerprint so that the next check does a full crawl.
+     */
+    public void clearFingerprint()
+    {
+        setFingerprint("");
+        setSnapshotDigest("");
+    }
+
+    /**
+     * Returns the digest of the snapshot produced by the last check.
+     */
+    public String getSnapshotDigest()
+    {
+        return snapshotDigest;
+    }
+
+    /**
+     * Sets the digest of the snapshot produced by the last check.
+     */
+    public void setSnapshotDigest(String snapshotDigest)
+    {
+        this.snapshotDigest = snapshotDigest;
+    }
+
+    /**
+     * Returns the snapshot that an unchanged check would reproduce.
+     */
+    private String getBaseline()
+    {
+        return baseline != null ? baseline : getSnapshot();
+    }
+
+    /**
+     * Returns the fingerprint to be passed to the crawler for a check.
+     * <p>
+     * Returns <CODE>null</CODE> unless the last check produced the snapshot being compared against,
+     *  as otherwise that snapshot could not be reused if the content is unchanged.
+     */
+    protected String getCheckFingerprint()
+    {
+        unchanged = false;
+
+        String ret = null;
+        if(hasFingerprint() && getSnapshotDigest().equals(StringUtils.getDigest(getBaseline())))
+            ret = getFingerprint();
+        return ret;
+    }
+
+    /**
+     * Returns the snapshot for a check where the content is unchanged since the last check.
+     */
+    protected ContentSnapshot getUnchangedSnapshot()
+    {
+        unchanged = true;
+        return baseline != null ? new ContentSnapshot(baseline) : new ContentSnapshot(getContentSnapshot());
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the last check found the content unchanged since the check before.
+     */
+    public boolean isUnchanged()
+    {
+        return unchanged;
+    }
+
     /**
      * Compare the given snapshot with the current one.
      */
     public ContentSnapshot compareSnapshot(ContentSnapshot snapshot, ContentLookup lookup, boolean debug)
         throws SQLException
     {
-        ContentSnapshot current = new ContentSnapshot(getSnapshot());
-        ContentSnapshot latest = new ContentSnapshot(snapshot);
-
+        // The lookup is shared by the monitors checked at the same time, so use a copy for the organisations
         if(lookup != null)
-            lookup.setOrganisations(OrganisationSites.list(getCode()));
-
+            lookup = lookup.withOrganisations(OrganisationSites.list(getCode()));
         return ContentSnapshot.compare(getCode(),
-            current, latest, lookup, getContentType() != ContentType.VIDEO, debug);
+            getContentSnapshot(), snapshot, lookup, getContentType() != ContentType.VIDEO, debug);
     }
 
     /**
@@ -20,7 +20,11 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.sql.SQLException;
 import org.json.JSONObject;
@@ -41,13 +45,31 @@ import static com.opsmatters.media.model.content.FieldName.*;
 
 /**
  * Class representing a snapshot of content monitor content.
- * 
+ * <p>
+ * The items are held in parallel arrays of interned values, with the JSON
+ *  only produced when the snapshot is persisted or displayed.
+ *
  * @author Gerald Curley (opsmatters)
  */
-public class ContentSnapshot extends JSONObject
+public class ContentSnapshot
 {
     private static final Logger logger = Logger.getLogger(ContentSnapshot.class.getName());
 
+    public static final int MAX_VALUES = 65536;
+
+    // The values shared between snapshots, such as dates and the urls of unchanged items
+    private static Map<String,String> values = new ConcurrentHashMap<String,String>();
+
+    private ContentType type;
+    private String message;
+    private String[] titles;
+    private String[] dates;
+    private String[] ids;
+    private Map<String,String>[] extras;
+    private long digest;
+    private String json;
+    private Map<String,Integer> titleIndex;
+    private Map<String,Integer> idIndex;
     private Log log;
 
     /**
@@ -55,15 +77,16 @@ public class ContentSnapshot extends JSONObject
      */
     public ContentSnapshot(ContentType type, List<? extends ContentDetails> teasers)
     {
-        JSONArray array = new JSONArray();
+        this.type = type;
+        init(teasers != null ? teasers.size() : 0);
+
         if(teasers != null)
         {
-            for(ContentDetails teaser : teasers)
-                array.put(createObject(type, teaser));
+            for(int i = 0; i < teasers.size(); i++)
+                setItem(i, teasers.get(i));
         }
 
-        put(type.tag(), array);
-        put(COUNT.value(), array.length());
+        digest = createDigest();
     }
 
     /**
@@ -71,15 +94,16 @@ public class ContentSnapshot extends JSONObject
      */
     public ContentSnapshot(List<JSONObject> items, ContentType type)
     {
-        JSONArray array = new JSONArray();
+        this.type = type;
+        init(items != null ? items.size() : 0);
+
         if(items != null)
         {
-            for(JSONObject item : items)
-                array.put(item);
+            for(int i = 0; i < items.size(); i++)
+                setItem(i, items.get(i));
         }
 
-        put(type.tag(), array);
-        put(COUNT.value(), array.length());
+        digest = createDigest();
     }
 
     /**
@@ -95,7 +119,10 @@ public class ContentSnapshot extends JSONObject
      */
     public ContentSnapshot(ContentType type, String message)
     {
-        put(type.tag(), new JSONArray().put(message));
+        this.type = type;
+        this.message = message;
+        init(0);
+        digest = createDigest();
     }
 
     /**
@@ -103,7 +130,7 @@ public class ContentSnapshot extends JSONObject
      */
     public ContentSnapshot(JSONObject obj)
     {
-        super(obj.toString());
+        parse(obj);
     }
 
     /**
@@ -111,26 +138,215 @@ public class ContentSnapshot extends JSONObject
      */
     public ContentSnapshot(String str)
     {
-        super(str);
+        parse(new JSONObject(str));
     }
 
     /**
-     * Returns the content type.
+     * Copy constructor.
+     * <p>
+     * The items are shared as they are never changed once the snapshot has been created.
      */
-    public ContentType getContentType()
+    public ContentSnapshot(ContentSnapshot obj)
+    {
+        type = obj.type;
+        message = obj.message;
+        titles = obj.titles;
+        dates = obj.dates;
+        ids = obj.ids;
+        extras = obj.extras;
+        digest = obj.digest;
+        json = obj.json;
+    }
+
+    /**
+     * Constructor that takes the items of the given snapshot with the given indexes,
+     *  together with any attributes to be added to each item.
+     */
+    private ContentSnapshot(ContentSnapshot obj, List<Integer> indexes, Map<Integer,Map<String,String>> changes)
+    {
+        type = obj.type;
+        init(indexes.size());
+
+        for(int i = 0; i < indexes.size(); i++)
+        {
+            int index = indexes.get(i);
+            titles[i] = obj.titles[index];
+            dates[i] = obj.dates[index];
+            ids[i] = obj.ids[index];
+
+            Map<String,String> attributes = changes.get(index);
+            if(obj.extras[index] != null || attributes != null)
+            {
+                extras[i] = new TreeMap<String,String>();
+                if(obj.extras[index] != null)
+                    extras[i].putAll(obj.extras[index]);
+                if(attributes != null)
+                    extras[i].putAll(attributes);
+            }
+        }
+
+        digest = createDigest();
+    }
+
+    /**
+     * Creates the arrays for the given number of items.
+     */
+    @SuppressWarnings("unchecked")
+    private void init(int size)
     {
-        ContentType ret = null;
-        for(Object keyStr : keySet())
+        titles = new String[size];
+        dates = new String[size];
+        ids = new String[size];
+        extras = new Map[size];
+    }
+
+    /**
+     * Reads the snapshot from the given JSONObject.
+     */
+    private void parse(JSONObject obj)
+    {
+        JSONArray array = null;
+        for(Object keyStr : obj.keySet())
         {
             String key = keyStr.toString();
-            Object obj = get(key);
-            if(obj instanceof JSONArray)
-                ret = ContentType.fromTag(key);
+            Object value = obj.get(key);
+            if(value instanceof JSONArray)
+            {
+                type = ContentType.fromTag(key);
+                array = (JSONArray)value;
+            }
+        }
+
+        if(array != null && !obj.has(COUNT.value()))
+        {
+            message = array.length() > 0 ? array.get(0).toString() : "";
+            array = null;
+        }
+
+        init(array != null ? array.length() : 0);
+        for(int i = 0; i < titles.length; i++)
+            setItem(i, array.getJSONObject(i));
+
+        digest = createDigest();
+    }
+
+    /**
+     * Sets the item with the given index from the teaser.
+     */
+    private void setItem(int index, ContentDetails teaser)
+    {
+        switch(type)
+        {
+            case ROUNDUP:
+                RoundupPostDetails post = (RoundupPostDetails)teaser;
+                setItem(index, post.getTitle(),
+                    post.getPublishedDate() != null ? post.getPublishedDateAsString() : null,
+                    post.getUrl());
+                break;
+            case VIDEO:
+                VideoDetails video = (VideoDetails)teaser;
+                setItem(index, video.getTitle(),
+                    video.getPublishedDate() != null ? video.getPublishedDateAsString() : null,
+                    video.getVideoId());
+                break;
+            case EVENT:
+                EventDetails event = (EventDetails)teaser;
+                setItem(index, event.getTitle(),
+                    event.getStartDate() != null ? event.getStartDateAsString() : null,
+                    event.getUrl());
+                break;
+            case PUBLICATION:
+                PublicationDetails publication = (PublicationDetails)teaser;
+                setItem(index, publication.getTitle(),
+                    publication.getPublishedDate() != null ? publication.getPublishedDateAsString() : null,
+                    publication.getUrl());
+                break;
+        }
+    }
+
+    /**
+     * Sets the item with the given index from the JSONObject.
+     */
+    private void setItem(int index, JSONObject item)
+    {
+        String dateField = getDateField();
+        String idField = getIdField();
+        for(Object keyStr : item.keySet())
+        {
+            String key = keyStr.toString();
+            String value = item.get(key).toString();
+            if(key.equals(TITLE.value()))
+                titles[index] = intern(value);
+            else if(key.equals(dateField))
+                dates[index] = intern(value);
+            else if(key.equals(idField))
+                ids[index] = intern(value);
+            else
+            {
+                if(extras[index] == null)
+                    extras[index] = new TreeMap<String,String>();
+                extras[index].put(intern(key), intern(value));
+            }
+        }
+    }
+
+    /**
+     * Sets the item with the given index from the given values.
+     */
+    private void setItem(int index, String title, String date, String id)
+    {
+        titles[index] = intern(title);
+        dates[index] = intern(date);
+        ids[index] = intern(id);
+    }
+
+    /**
+     * Returns the shared copy of the given value.
+     * <p>
+     * The values are cleared if the cache has reached its maximum size.
+     */
+    private static String intern(String value)
+    {
+        if(value == null)
+            return null;
+
+        String ret = values.get(value);
+        if(ret == null)
+        {
+            if(values.size() >= MAX_VALUES)
+                values.clear();
+            ret = values.putIfAbsent(value, value);
+            if(ret == null)
+                ret = value;
         }
 
         return ret;
     }
 
+    /**
+     * Returns the name of the date field of the items.
+     */
+    private String getDateField()
+    {
+        return type == ContentType.EVENT ? START_DATE.value() : PUBLISHED_DATE.value();
+    }
+
+    /**
+     * Returns the name of the id field of the items.
+     */
+    private String getIdField()
+    {
+        return type == ContentType.VIDEO ? VIDEO_ID.value() : URL.value();
+    }
+
+    /**
+     * Returns the content type.
+     */
+    public ContentType getContentType()
+    {
+        return type;
+    }
+
     /**
      * Returns the tag.
      */
@@ -144,7 +360,7 @@ public class ContentSnapshot extends JSONObject
      */
     public int getCount()
     {
-        return optInt(COUNT.value(), -1);
+        return containsItems() ? titles.length : -1;
     }
 
     /**
@@ -156,77 +372,302 @@ public class ContentSnapshot extends JSONObject
     }
 
     /**
-     * Create an object for the teaser.
+     * Returns the error message of the snapshot.
      */
-    private JSONObject createObject(ContentType type, ContentDetails teaser)
+    public String getMessage()
     {
-        switch(type)
+        return message;
+    }
+
+    /**
+     * Returns the title of the item with the given index.
+     */
+    public String getTitle(int index)
+    {
+        return titles[index] != null ? titles[index] : "";
+    }
+
+    /**
+     * Returns the published or start date of the item with the given index.
+     */
+    public String getDate(int index)
+    {
+        return dates[index] != null ? dates[index] : "";
+    }
+
+    /**
+     * Returns the URL or video id of the item with the given index.
+     */
+    public String getId(int index)
+    {
+        return ids[index] != null ? ids[index] : "";
+    }
+
+    /**
+     * Returns the published date of the item with the given index.
+     */
+    private String getPublishedDate(int index)
+    {
+        return type != ContentType.EVENT ? getDate(index) : "";
+    }
+
+    /**
+     * Returns the index of the last item with the given title, or -1 if there is no such item.
+     */
+    public int indexOfTitle(String title)
+    {
+        Integer ret = getTitleIndex().get(title);
+        return ret != null ? ret : -1;
+    }
+
+    /**
+     * Returns the index of the last item with the given URL or video id, or -1 if there is no such item.
+     */
+    public int indexOfId(String id)
+    {
+        Integer ret = getIdIndex().get(id);
+        return ret != null ? ret : -1;
+    }
+
+    /**
+     * Returns the index of the items by title.
+     */
+    private synchronized Map<String,Integer> getTitleIndex()
+    {
+        if(titleIndex == null)
         {
-            case ROUNDUP:
-                return createObject((RoundupPostDetails)teaser);
-            case VIDEO:
-                return createObject((VideoDetails)teaser);
-            case EVENT:
-                return createObject((EventDetails)teaser);
-            case PUBLICATION:
-                return createObject((PublicationDetails)teaser);
-            default:
-                return null;
+            Map<String,Integer> map = new HashMap<String,Integer>();
+            for(int i = 0; i < titles.length; i++)
+                map.put(getTitle(i), i);
+            titleIndex = Collections.unmodifiableMap(map);
         }
+
+        return titleIndex;
     }
 
     /**
-     * Create an object for the roundup teaser.
+     * Returns the index of the items by URL or video id.
      */
-    private JSONObject createObject(RoundupPostDetails teaser)
+    private synchronized Map<String,Integer> getIdIndex()
     {
-        JSONObject ret = new JSONObject();
-        ret.put(TITLE.value(), teaser.getTitle());
-        if(teaser.getPublishedDate() != null)
-            ret.put(PUBLISHED_DATE.value(), teaser.getPublishedDateAsString());
-        ret.put(URL.value(), teaser.getUrl());
+        if(idIndex == null)
+        {
+            Map<String,Integer> map = new HashMap<String,Integer>();
+            for(int i = 0; i < ids.length; i++)
+                map.put(getId(i), i);
+            idIndex = Collections.unmodifiableMap(map);
+        }
+
+        return idIndex;
+    }
+
+    /**
+     * Returns the digest of the contents of the snapshot.
+     */
+    public long getDigest()
+    {
+        return digest;
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a digest of the contents of the snapshot.
+     */
+    private long createDigest()
+    {
+        long ret = 0xcbf29ce484222325L;
+        ret = digest(ret, type != null ? type.tag() : null);
+        ret = digest(ret, message);
+        for(int i = 0; i < titles.length; i++)
+        {
+            ret = digest(ret, titles[i]);
+            ret = digest(ret, dates[i]);
+            ret = digest(ret, ids[i]);
+            if(extras[i] != null)
+            {
+                for(Map.Entry<String,String> entry : extras[i].entrySet())
+                {
+                    ret = digest(ret, entry.getKey());
+                    ret = digest(ret, entry.getValue());
+                }
+            }
+        }
+
         return ret;
     }
 
     /**
-     * Create an object for the video teaser.
+     * Adds the given value to the digest.
+     */
+    private static long digest(long hash, String value)
+    {
+        if(value != null)
+        {
+            for(int i = 0; i < value.length(); i++)
+            {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+
+        // Add a separator so that adjacent values can't run together
+        hash ^= value != null ? 0xff : 0xfe;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given object is a snapshot with the same contents.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if(obj == this)
+            return true;
+        if(!(obj instanceof ContentSnapshot))
+            return false;
+
+        ContentSnapshot snapshot = (ContentSnapshot)obj;
+        return digest == snapshot.digest
+            && type == snapshot.type
+            && (message != null ? message.equals(snapshot.message) : snapshot.message == null)
+            && Arrays.equals(titles, snapshot.titles)
+            && Arrays.equals(dates, snapshot.dates)
+            && Arrays.equals(ids, snapshot.ids)
+            && Arrays.equals(extras, snapshot.extras);
+    }
+
+    /**
+     * Returns the hash code of the snapshot.
+     */
+    @Override
+    public int hashCode()
+    {
+        return (int)(digest ^ (digest >>> 32));
+    }
+
+    /**
+     * Returns the snapshot as a JSONObject.
      */
-    private JSONObject createObject(VideoDetails teaser)
+    public JSONObject toJson()
     {
         JSONObject ret = new JSONObject();
-        ret.put(TITLE.value(), teaser.getTitle());
-        if(teaser.getPublishedDate() != null)
-            ret.put(PUBLISHED_DATE.value(), teaser.getPublishedDateAsString());
-        ret.put(VIDEO_ID.value(), teaser.getVideoId());
+        JSONArray array = new JSONArray();
+        if(message != null)
+        {
+            array.put(message);
+            ret.put(getTag(), array);
+        }
+        else
+        {
+            for(int i = 0; i < titles.length; i++)
+                array.put(getItem(i));
+            ret.put(getTag(), array);
+            ret.put(COUNT.value(), array.length());
+        }
+
         return ret;
     }
 
     /**
-     * Create an object for the event teaser.
+     * Returns the item with the given index as a JSONObject.
      */
-    private JSONObject createObject(EventDetails teaser)
+    private JSONObject getItem(int index)
     {
         JSONObject ret = new JSONObject();
-        ret.put(TITLE.value(), teaser.getTitle());
-        if(teaser.getStartDate() != null)
-            ret.put(START_DATE.value(), teaser.getStartDateAsString());
-        ret.put(URL.value(), teaser.getUrl());
+        ret.put(TITLE.value(), titles[index]);
+        ret.put(getDateField(), dates[index]);
+        ret.put(getIdField(), ids[index]);
+        if(extras[index] != null)
+        {
+            for(Map.Entry<String,String> entry : extras[index].entrySet())
+                ret.put(entry.getKey(), entry.getValue());
+        }
+
         return ret;
     }
 
     /**
-     * Create an object for the publication teaser.
+     * Returns the key used to find the items that are the same in two snapshots.
      */
-    private JSONObject createObject(PublicationDetails teaser)
+    private List<Object> getItemKey(int index)
     {
+        return Arrays.asList(titles[index], dates[index], ids[index], extras[index]);
+    }
+
+    /**
+     * Returns this snapshot as a delta from the given snapshot.
+     * <p>
+     * Each item that is unchanged from the given snapshot is replaced by the index of the item in it.
+     */
+    public JSONObject getDelta(ContentSnapshot base)
+    {
+        Map<List<Object>,Integer> keys = new HashMap<List<Object>,Integer>();
+        for(int i = base.titles.length-1; i >= 0; i--)
+            keys.put(base.getItemKey(i), i);
+
+        JSONArray array = new JSONArray();
+        for(int i = 0; i < titles.length; i++)
+        {
+            Integer index = keys.get(getItemKey(i));
+            if(index != null)
+                array.put(index.intValue());
+            else
+                array.put(getItem(i));
+        }
+
         JSONObject ret = new JSONObject();
-        ret.put(TITLE.value(), teaser.getTitle());
-        if(teaser.getPublishedDate() != null)
-            ret.put(PUBLISHED_DATE.value(), teaser.getPublishedDateAsString());
-        ret.put(URL.value(), teaser.getUrl());
+        ret.put(getTag(), array);
+        return ret;
+    }
+
+    /**
+     * Returns the snapshot for the given delta from the given snapshot.
+     */
+    public static ContentSnapshot fromDelta(JSONObject delta, ContentSnapshot base)
+    {
+        ContentSnapshot ret = new ContentSnapshot(base.type, (List<? extends ContentDetails>)null);
+        JSONArray array = delta.getJSONArray(base.getTag());
+        ret.init(array.length());
+        for(int i = 0; i < array.length(); i++)
+        {
+            Object item = array.get(i);
+            if(item instanceof Number)
+            {
+                int index = ((Number)item).intValue();
+                ret.titles[i] = base.titles[index];
+                ret.dates[i] = base.dates[index];
+                ret.ids[i] = base.ids[index];
+                ret.extras[i] = base.extras[index];
+            }
+            else
+            {
+                ret.setItem(i, (JSONObject)item);
+            }
+        }
+
+        ret.digest = ret.createDigest();
         return ret;
     }
 
+    /**
+     * Returns the snapshot as a JSON string.
+     */
+    @Override
+    public String toString()
+    {
+        if(json == null)
+            json = toJson().toString();
+        return json;
+    }
+
+    /**
+     * Returns the snapshot as a JSON string with pretty print.
+     */
+    public String toString(int indentFactor)
+    {
+        return toJson().toString(indentFactor);
+    }
+
     /**
      * Returns the difference between the two snapshots (or null if they are the same).
      */
@@ -246,57 +687,40 @@ public class ContentSnapshot extends JSONObject
             throw new IllegalStateException(String.format("Detected abnormal decrease in items: %.2f%%", decrease));
 
         ContentType type = current.getContentType();
-        Map<String,JSONObject> titles = new HashMap<String,JSONObject>();
-        Map<String,JSONObject> ids = new HashMap<String,JSONObject>();
-
-        JSONArray latestArray = latest.getJSONArray(latest.getTag());
-        for(int i = 0; i < latestArray.length(); i++)
-        {
-            JSONObject item = latestArray.getJSONObject(i);
-            String title = item.optString(TITLE.value());
-            String id = item.optString(URL.value());
-            if(type == ContentType.VIDEO)
-                id = item.optString(VIDEO_ID.value());
-            titles.put(title, item);
-            ids.put(id, item);
-        }
+        Map<String,Integer> titles = new HashMap<String,Integer>(latest.getTitleIndex());
+        Map<String,Integer> ids = new HashMap<String,Integer>(latest.getIdIndex());
 
         if(lookup != null && debug)
             logger.info(String.format("Before compare snapshot for %s: titles=%d ids=%d",
                 code, titles.size(), ids.size()));
 
-        JSONArray currentArray = current.getJSONArray(current.getTag());
-        for(int i = 0; i < currentArray.length(); i++)
+        for(int i = 0; i < current.titles.length; i++)
         {
-            JSONObject item = currentArray.getJSONObject(i);
-            String title = item.optString(TITLE.value());
-            String id = item.optString(URL.value());
-            if(type == ContentType.VIDEO)
-                id = item.optString(VIDEO_ID.value());
-            titles.remove(title);
-            ids.remove(id);
+            titles.remove(current.getTitle(i));
+            ids.remove(current.getId(i));
         }
 
         if(lookup != null && debug)
             logger.info(String.format("After compare with current for %s: titles=%d ids=%d",
                 code, titles.size(), ids.size()));
 
+        // The attributes to be added to the difference items, by index
+        Map<Integer,Map<String,String>> changes = new HashMap<Integer,Map<String,String>>();
+
         // If there are still unresolved items, try looking for them
         //   in the stored content items to see if we've seen them before
         if(lookup != null && (titles.size() > 0 || ids.size() > 0))
         {
-            Iterator<Entry<String,JSONObject>> iterator = titles.entrySet().iterator();
+            Iterator<Entry<String,Integer>> iterator = titles.entrySet().iterator();
             while(iterator.hasNext())
             {
-                Entry<String,JSONObject> entry = iterator.next();
+                Entry<String,Integer> entry = iterator.next();
                 String title = entry.getKey();
-                JSONObject item = entry.getValue();
-                String publishedDate = item.optString(PUBLISHED_DATE.value());
+                int item = entry.getValue();
+                String publishedDate = latest.getPublishedDate(item);
                 if(publishedDate.length() > 0)
                     publishedDate = publishedDate.substring(0, publishedDate.indexOf(" ")); // Remove time part
-                String id = item.optString(URL.value());
-                if(type == ContentType.VIDEO)
-                    id = item.optString(VIDEO_ID.value());
+                String id = latest.getId(item);
 
                 Content content = lookup.getByTitle(title);
                 if(content != null)
@@ -306,27 +730,20 @@ public class ContentSnapshot extends JSONObject
                     {
                         Video video = (Video)content;
                         if(!id.equals(video.getVideoId()))
-                        {
-                            item.put(LAST_VIDEO_ID.value(), video.getVideoId());
-                            entry.setValue(item);
-                        }
+                            addChange(changes, item, LAST_VIDEO_ID.value(), video.getVideoId());
                     }
                     else
                     {
                         LinkedContent linked = (LinkedContent)content;
                         if(!id.equals(linked.getUrl()))
-                        {
-                            item.put(LAST_URL.value(), linked.getUrl());
-                            entry.setValue(item);
-                        }
+                            addChange(changes, item, LAST_URL.value(), linked.getUrl());
                     }
 
                     // Store the last published date if it has changed
                     if(publishedDate.length() > 0
                         && !content.getPublishedDateAsString().startsWith(publishedDate))
                     {
-                        item.put(LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
-                        entry.setValue(item);
+                        addChange(changes, item, LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
                         continue;
                     }
 
@@ -343,17 +760,13 @@ public class ContentSnapshot extends JSONObject
                     {
                         // Store the last title if it has changed
                         if(!title.equals(content.getTitle()))
-                        {
-                            item.put(LAST_TITLE.value(), content.getTitle());
-                            entry.setValue(item);
-                        }
+                            addChange(changes, item, LAST_TITLE.value(), content.getTitle());
 
                         // Store the last published date if it has changed
                         if(publishedDate.length() > 0
                             && !content.getPublishedDateAsString().startsWith(publishedDate))
                         {
-                            item.put(LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
-                            entry.setValue(item);
+                            addChange(changes, item, LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
                         }
                     }
                 }
@@ -362,30 +775,26 @@ public class ContentSnapshot extends JSONObject
             iterator = ids.entrySet().iterator();
             while(iterator.hasNext())
             {
-                Entry<String,JSONObject> entry = iterator.next();
+                Entry<String,Integer> entry = iterator.next();
                 String id = entry.getKey();
-                JSONObject item = entry.getValue();
-                String publishedDate = item.optString(PUBLISHED_DATE.value());
+                int item = entry.getValue();
+                String publishedDate = latest.getPublishedDate(item);
                 if(publishedDate.length() > 0)
                     publishedDate = publishedDate.substring(0, publishedDate.indexOf(" ")); // Remove time part
-                String title = item.optString(TITLE.value());
+                String title = latest.getTitle(item);
 
                 Content content = lookup.getById(id);
                 if(content != null)
                 {
                     // Store the last title if it has changed
                     if(!title.equals(content.getTitle()))
-                    {
-                        item.put(LAST_TITLE.value(), content.getTitle());
-                        entry.setValue(item);
-                    }
+                        addChange(changes, item, LAST_TITLE.value(), content.getTitle());
 
                     // Store the last published date if it has changed
                     if(publishedDate.length() > 0
                         && !content.getPublishedDateAsString().startsWith(publishedDate))
                     {
-                        item.put(LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
-                        entry.setValue(item);
+                        addChange(changes, item, LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
                         continue;
                     }
 
@@ -405,27 +814,20 @@ public class ContentSnapshot extends JSONObject
                         {
                             Video video = (Video)content;
                             if(!id.equals(video.getVideoId()))
-                            {
-                                item.put(LAST_VIDEO_ID.value(), video.getVideoId());
-                                entry.setValue(item);
-                            }
+                                addChange(changes, item, LAST_VIDEO_ID.value(), video.getVideoId());
                         }
                         else
                         {
                             LinkedContent linked = (LinkedContent)content;
                             if(!id.equals(linked.getUrl()))
-                            {
-                                item.put(LAST_URL.value(), linked.getUrl());
-                                entry.setValue(item);
-                            }
+                                addChange(changes, item, LAST_URL.value(), linked.getUrl());
                         }
 
                         // Store the last published date if it has changed
                         if(publishedDate.length() > 0
                             && !content.getPublishedDateAsString().startsWith(publishedDate))
                         {
-                            item.put(LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
-                            entry.setValue(item);
+                            addChange(changes, item, LAST_PUBLISHED_DATE.value(), content.getPublishedDateAsString());
                         }
                     }
                 }
@@ -436,50 +838,57 @@ public class ContentSnapshot extends JSONObject
             logger.info(String.format("After compare with stored for %s: titles=%d ids=%d",
                 code, titles.size(), ids.size()));
 
-        // Create the array of difference items
-        List<JSONObject> items = new ArrayList<JSONObject>();
- 
-        // Go through the leftover titles and add to the differences
-        if(titles.size() > 0)
+        // Create the list of difference items from the leftover titles and then the leftover ids,
+        //   with each item only added once by marking its index
+        boolean[] added = new boolean[latest.titles.length];
+        List<Integer> items = new ArrayList<Integer>(titles.size()+ids.size());
+
+        for(Entry<String,Integer> entry : titles.entrySet())
         {
-            Iterator<Entry<String,JSONObject>> iterator = titles.entrySet().iterator();
-            while(iterator.hasNext())
-            {
-                Entry<String,JSONObject> entry = iterator.next();
-                String title = entry.getKey();
-                JSONObject item = entry.getValue();
-                String id = item.optString(URL.value());
-                if(type == ContentType.VIDEO)
-                    id = item.optString(VIDEO_ID.value());
-                String publishedDate = item.optString(PUBLISHED_DATE.value());
-                if(debug)
-                    logger.info(String.format("Unable to find item with title for %s: id=%s, published=%s, title=%s",
-                        code, id, publishedDate, title));
-                if(!items.contains(item))
-                    items.add(item);
-            }
+            int item = entry.getValue();
+            if(debug)
+                logger.info(String.format("Unable to find item with title for %s: id=%s, published=%s, title=%s",
+                    code, latest.getId(item), latest.getPublishedDate(item), entry.getKey()));
+            addItem(items, added, item);
         }
 
-        // Go through the leftover ids and add to the differences
-        if(ids.size() > 0)
+        for(Entry<String,Integer> entry : ids.entrySet())
         {
-            Iterator<Entry<String,JSONObject>> iterator = ids.entrySet().iterator();
-            while(iterator.hasNext())
-            {
-                Entry<String,JSONObject> entry = iterator.next();
-                String id = entry.getKey();
-                JSONObject item = entry.getValue();
-                String title = item.optString(TITLE.value());
-                String publishedDate = item.optString(PUBLISHED_DATE.value());
-                if(debug)
-                    logger.info(String.format("Unable to find item with id for %s: id=%s, published=%s, title=%s",
-                        code, id, publishedDate, title));
-                if(!items.contains(item))
-                    items.add(item);
-            }
+            int item = entry.getValue();
+            if(debug)
+                logger.info(String.format("Unable to find item with id for %s: id=%s, published=%s, title=%s",
+                    code, entry.getKey(), latest.getPublishedDate(item), latest.getTitle(item)));
+            addItem(items, added, item);
+        }
+
+        return new ContentSnapshot(latest, items, changes);
+    }
+
+    /**
+     * Adds the given index to the difference items if it hasn't already been added.
+     */
+    private static void addItem(List<Integer> items, boolean[] added, int index)
+    {
+        if(!added[index])
+        {
+            added[index] = true;
+            items.add(index);
+        }
+    }
+
+    /**
+     * Adds the given attribute to the difference item with the given index.
+     */
+    private static void addChange(Map<Integer,Map<String,String>> changes, int index, String key, String value)
+    {
+        Map<String,String> attributes = changes.get(index);
+        if(attributes == null)
+        {
+            attributes = new TreeMap<String,String>();
+            changes.put(index, attributes);
         }
 
-        return new ContentSnapshot(items, type);
+        attributes.put(key, value);
     }
 
     /**
@@ -487,7 +896,7 @@ public class ContentSnapshot extends JSONObject
      */
     public boolean containsItems()
     {
-        return toString().indexOf(String.format("\"%s\"", COUNT.value())) != -1;
+        return message == null;
     }
 
     /**
@@ -496,22 +905,17 @@ public class ContentSnapshot extends JSONObject
     public String format()
     {
         StringBuilder builder = new StringBuilder();
-        String type = getTag();
-        Object value = get(type);
-        if(value instanceof JSONArray)
+        if(containsItems())
         {
-            JSONArray array = getJSONArray(type);
-            for(int i = 0; i < array.length(); i++)
+            for(int i = 0; i < titles.length; i++)
             {
-                JSONObject item = array.getJSONObject(i);
+                JSONObject item = getItem(i);
                 if(i > 0)
                     builder.append("\n");
 
                 // Add an empty Date field if one wasn't provided
                 //   Otherwise the fields could be out of sync and mess up the comparison.
-                String fieldname = PUBLISHED_DATE.value();
-                if(type.equals(ContentType.EVENT.tag()))
-                    fieldname = START_DATE.value();
+                String fieldname = getDateField();
                 if(!item.has(fieldname))
                     item.put(fieldname, "");
 
@@ -521,7 +925,7 @@ public class ContentSnapshot extends JSONObject
         }
         else
         {
-            builder.append(value);
+            builder.append(new JSONArray().put(message));
         }
 
         return builder.toString();
@@ -542,4 +946,4 @@ public class ContentSnapshot extends JSONObject
     {
         this.log = log;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.time.Instant;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Class that adjusts the interval between the checks of a monitor to how often its page changes.
+ * <p>
+ * The interval is set so that a page is checked several times between its changes on average,
+ *  within the configured bounds. A shorter interval is used as soon as the page becomes more active,
+ *  while a longer interval is only reached gradually.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class MonitorSchedule
+{
+    public static final int DEFAULT_MIN_INTERVAL = 15; // 15 mins
+    public static final int DEFAULT_MAX_INTERVAL = 1440; // 1 day
+    public static final int DEFAULT_HISTORY = 90; // 90 days
+
+    private static final int CHECKS_PER_CHANGE = 4;
+    private static final int MAX_GROWTH = 2;
+    private static final int MAX_LOAD = 50; // Spend at most 2% of the interval executing
+    private static final long MINUTE = 60000L;
+
+    private int minInterval = DEFAULT_MIN_INTERVAL;
+    private int maxInterval = DEFAULT_MAX_INTERVAL;
+    private int history = DEFAULT_HISTORY;
+
+    /**
+     * Default constructor.
+     */
+    public MonitorSchedule()
+    {
+    }
+
+    /**
+     * Constructor that takes the bounds of the interval (in minutes).
+     */
+    public MonitorSchedule(int minInterval, int maxInterval)
+    {
+        setMinInterval(minInterval);
+        setMaxInterval(maxInterval);
+    }
+
+    /**
+     * Returns the shortest interval between checks (in minutes).
+     */
+    public int getMinInterval()
+    {
+        return minInterval;
+    }
+
+    /**
+     * Sets the shortest interval between checks (in minutes).
+     */
+    public void setMinInterval(int minInterval)
+    {
+        this.minInterval = minInterval;
+    }
+
+    /**
+     * Returns the longest interval between checks (in minutes).
+     */
+    public int getMaxInterval()
+    {
+        return maxInterval;
+    }
+
+    /**
+     * Sets the longest interval between checks (in minutes).
+     */
+    public void setMaxInterval(int maxInterval)
+    {
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Returns the number of days of changes used to calculate the interval.
+     */
+    public int getHistory()
+    {
+        return history;
+    }
+
+    /**
+     * Sets the number of days of changes used to calculate the interval.
+     */
+    public void setHistory(int history)
+    {
+        this.history = history;
+    }
+
+    /**
+     * Returns the earliest date of the changes used to calculate the interval.
+     */
+    public Instant getHistoryStart(Instant now)
+    {
+        return now.minus(history, ChronoUnit.DAYS);
+    }
+
+    /**
+     * Sets the interval of the given adaptive monitor using the dates of its changes.
+     * <p>
+     * Only the changes since {@link #getHistoryStart(Instant)} are considered.
+     * @return <CODE>true</CODE> if the interval of the monitor was changed
+     */
+    public boolean update(ContentMonitor monitor, List<Instant> changes, Instant now)
+    {
+        if(!monitor.isAdaptive())
+            return false;
+
+        // Only use the history since the monitor was created
+        Instant start = getHistoryStart(now);
+        if(monitor.getCreatedDate() != null && monitor.getCreatedDate().isAfter(start))
+            start = monitor.getCreatedDate();
+        long window = Duration.between(start, now).toMinutes();
+        if(window < maxInterval)
+            return false;
+
+        int count = 0;
+        for(Instant date : changes)
+        {
+            if(date.isAfter(start))
+                ++count;
+        }
+
+        long days = Math.max(window/(24*60), 1L);
+        long target;
+        String reason;
+        if(count > 0)
+        {
+            target = window/(count*CHECKS_PER_CHANGE);
+            reason = String.format("%d changes in %d days", count, days);
+        }
+        else
+        {
+            target = maxInterval;
+            reason = String.format("No changes in %d days", days);
+        }
+
+        // Lengthen the interval gradually in case the page becomes active again
+        int current = monitor.getInterval();
+        if(current > 0 && target > current*MAX_GROWTH)
+        {
+            target = current*MAX_GROWTH;
+            reason += ", increasing";
+        }
+
+        // Don't spend too much of the interval executing the check
+        long load = (monitor.getExecutionTime()*MAX_LOAD)/MINUTE;
+        if(target < load)
+        {
+            target = load;
+            reason = String.format("Execution time of %ds", monitor.getExecutionTime()/1000L);
+        }
+
+        int interval = (int)Math.max(Math.min(target, maxInterval), minInterval);
+        if(interval == current && reason.equals(monitor.getIntervalReason()))
+            return false;
+
+        monitor.setInterval(interval, reason);
+        return true;
+    }
+}
@@ -0,0 +1,762 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.time.Instant;
+import java.sql.SQLException;
+import com.opsmatters.media.model.content.ContentLookup;
+import com.opsmatters.media.model.content.util.ContentProxy;
+import com.opsmatters.media.cache.content.util.ContentProxies;
+import com.opsmatters.media.db.dao.monitor.MonitorDAOFactory;
+import com.opsmatters.media.db.dao.content.util.ContentProxyDAO;
+import com.opsmatters.media.util.TaskExecutor;
+import com.opsmatters.media.util.StringUtils;
+
+/**
+ * Class that checks a list of content monitors concurrently.
+ * <p>
+ * The checks run as a pipeline of three stages: the crawl of each page, the comparison of the snapshot
+ *  with the stored content, and the storage of the results. Each stage has its own workers and
+ *  passes its results to the next stage through a bounded queue, so a slow stage holds back
+ *  the stages before it rather than every check waiting for all the stages in turn.
+ * Each crawl runs with its own timeout and a failed check only affects its own monitor.
+ * A crawl that is still running after its timeout keeps the monitor until it finishes,
+ *  so the failure is stored without changing the monitor and the monitor is skipped by later sweeps
+ *  until the crawl has finished.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class MonitorSweep
+{
+    private static final Logger logger = Logger.getLogger(MonitorSweep.class.getName());
+
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final int DEFAULT_COMPARE_WORKERS = 2;
+    public static final int DEFAULT_STORE_WORKERS = 1;
+    public static final int DEFAULT_QUEUE_SIZE = 16;
+    public static final long DEFAULT_TIMEOUT = 300000L; // 5 mins
+
+    // Marks the end of the results passed to the next stage
+    private static final Result END = new Result(null);
+
+    // The monitors with a crawl still running, including crawls that have timed out
+    private static final Set<String> crawling = ConcurrentHashMap.newKeySet();
+
+    private MonitorDAOFactory factory;
+    private ContentLookup lookup;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int compareWorkers = DEFAULT_COMPARE_WORKERS;
+    private int storeWorkers = DEFAULT_STORE_WORKERS;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private long timeout = DEFAULT_TIMEOUT;
+    private int maxResults = 0;
+    private boolean cache = false;
+    private boolean debug = false;
+    private MonitorSchedule schedule;
+    private ContentProxyDAO proxyDAO;
+
+    /**
+     * Constructor that takes a DAO factory and a lookup for the stored content.
+     */
+    public MonitorSweep(MonitorDAOFactory factory, ContentLookup lookup)
+    {
+        this.factory = factory;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Returns the number of monitors crawled at the same time.
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of monitors crawled at the same time.
+     */
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of snapshots compared with the stored content at the same time.
+     */
+    public int getCompareWorkers()
+    {
+        return compareWorkers;
+    }
+
+    /**
+     * Sets the number of snapshots compared with the stored content at the same time.
+     */
+    public void setCompareWorkers(int compareWorkers)
+    {
+        this.compareWorkers = compareWorkers;
+    }
+
+    /**
+     * Returns the number of results stored at the same time.
+     */
+    public int getStoreWorkers()
+    {
+        return storeWorkers;
+    }
+
+    /**
+     * Sets the number of results stored at the same time.
+     */
+    public void setStoreWorkers(int storeWorkers)
+    {
+        this.storeWorkers = storeWorkers;
+    }
+
+    /**
+     * Returns the number of results that can wait for each stage.
+     */
+    public int getQueueSize()
+    {
+        return queueSize;
+    }
+
+    /**
+     * Sets the number of results that can wait for each stage.
+     */
+    public void setQueueSize(int queueSize)
+    {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Returns the timeout for each crawl (in milliseconds).
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout for each crawl (in milliseconds).
+     */
+    public void setTimeout(long timeout)
+    {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the maximum results for each check.
+     */
+    public int getMaxResults()
+    {
+        return maxResults;
+    }
+
+    /**
+     * Sets the maximum results for each check.
+     */
+    public void setMaxResults(int maxResults)
+    {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the crawlers should use the cache.
+     */
+    public boolean useCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the crawlers should use the cache.
+     */
+    public void setCache(boolean cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if debug logging is enabled.
+     */
+    public boolean isDebug()
+    {
+        return debug;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> to enable debug logging.
+     */
+    public void setDebug(boolean debug)
+    {
+        this.debug = debug;
+    }
+
+    /**
+     * Returns the schedule used to adjust the interval of adaptive monitors.
+     */
+    public MonitorSchedule getSchedule()
+    {
+        return schedule;
+    }
+
+    /**
+     * Sets the schedule used to adjust the interval of adaptive monitors.
+     * <p>
+     * Monitors that are not yet due to be checked are skipped when a schedule is set.
+     */
+    public void setSchedule(MonitorSchedule schedule)
+    {
+        this.schedule = schedule;
+    }
+
+    /**
+     * Returns the DAO used to save the status changes of the proxies.
+     */
+    public ContentProxyDAO getProxyDAO()
+    {
+        return proxyDAO;
+    }
+
+    /**
+     * Sets the DAO used to save the status changes of the proxies.
+     * <p>
+     * The proxies that became unhealthy or healthy again during the crawls are saved at the end of each sweep.
+     */
+    public void setProxyDAO(ContentProxyDAO proxyDAO)
+    {
+        this.proxyDAO = proxyDAO;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given monitor should be checked in a sweep.
+     * <p>
+     * Running monitors are checked for new changes, and monitors with a pending change
+     *  are checked to update the change.
+     */
+    public static boolean isCheckable(ContentMonitor monitor)
+    {
+        MonitorStatus status = monitor.getStatus();
+        return status != null && (status == MonitorStatus.CHANGE
+            || (status.isRunning() && status != MonitorStatus.EXECUTING));
+    }
+
+    /**
+     * Checks the given monitors and stores the results.
+     */
+    public MonitorSweepSummary run(List<ContentMonitor> monitors) throws SQLException, InterruptedException
+    {
+        MonitorSweepSummary ret = new MonitorSweepSummary();
+        long start = System.currentTimeMillis();
+
+        Instant now = Instant.now();
+        Queue<ContentMonitor> checked = new ConcurrentLinkedQueue<ContentMonitor>();
+        for(ContentMonitor monitor : monitors)
+        {
+            if(crawling.contains(monitor.getId()))
+            {
+                logger.warning(String.format("Skipped monitor %s as a previous check is still running", monitor.getGuid()));
+            }
+            else if(isCheckable(monitor) && (schedule == null
+                || monitor.getStatus() == MonitorStatus.CHANGE || monitor.isDue(now)))
+            {
+                checked.add(monitor);
+            }
+        }
+
+        int count = checked.size();
+        if(count > 0)
+        {
+            int crawlers = Math.min(parallelism, count);
+            int comparers = Math.min(compareWorkers, count);
+            int storers = Math.min(storeWorkers, count);
+            BlockingQueue<Result> compareQueue = new ArrayBlockingQueue<Result>(queueSize);
+            BlockingQueue<Result> storeQueue = new ArrayBlockingQueue<Result>(queueSize);
+            List<SQLException> errors = new ArrayList<SQLException>();
+
+            TaskExecutor crawler = new TaskExecutor(crawlers, timeout, true);
+            TaskExecutor workers = new TaskExecutor(crawlers+comparers+storers, 0L, true);
+
+            try
+            {
+                List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                AtomicInteger crawling = new AtomicInteger(crawlers);
+                for(int i = 0; i < crawlers; i++)
+                    futures.add(workers.submit(newCrawlWorker(crawler, checked, compareQueue, storeQueue, crawling, comparers)));
+                AtomicInteger comparing = new AtomicInteger(comparers);
+                for(int i = 0; i < comparers; i++)
+                    futures.add(workers.submit(newCompareWorker(compareQueue, storeQueue, comparing, storers)));
+                for(int i = 0; i < storers; i++)
+                    futures.add(workers.submit(newStoreWorker(storeQueue, ret, errors)));
+
+                for(Future<Void> future : futures)
+                    getResult(future);
+            }
+            finally
+            {
+                workers.close();
+                crawler.close();
+            }
+
+            saveProxyStatus();
+
+            if(errors.size() > 0)
+                throw errors.get(0);
+        }
+
+        ret.setElapsedTime(System.currentTimeMillis()-start);
+        logger.info(String.format("Completed sweep of %d monitors: %s", count, ret));
+
+        return ret;
+    }
+
+    /**
+     * Saves the status changes of the proxies used by the crawls.
+     * <p>
+     * The changes are kept to be saved by the next sweep if they can't be saved.
+     */
+    private void saveProxyStatus()
+    {
+        if(proxyDAO == null)
+            return;
+
+        List<ContentProxy> proxies = ContentProxies.getStatusChanges();
+
+        try
+        {
+            proxyDAO.updateStatus(proxies);
+        }
+        catch(SQLException e)
+        {
+            logger.severe("Unable to save proxy status: "+StringUtils.serialize(e));
+            ContentProxies.addStatusChanges(proxies);
+        }
+    }
+
+    /**
+     * Waits for the given worker to complete.
+     */
+    private void getResult(Future<Void> future) throws InterruptedException
+    {
+        try
+        {
+            future.get();
+        }
+        catch(ExecutionException e)
+        {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.severe("Sweep worker failed: "+StringUtils.serialize(cause));
+        }
+    }
+
+    /**
+     * Returns a worker that crawls the given monitors and passes the snapshots to be compared.
+     * <p>
+     * The last crawl worker to finish tells the compare workers that there are no more snapshots.
+     */
+    private Callable<Void> newCrawlWorker(final TaskExecutor crawler, final Queue<ContentMonitor> monitors,
+        final BlockingQueue<Result> compareQueue, final BlockingQueue<Result> storeQueue,
+        final AtomicInteger crawling, final int comparers)
+    {
+        return new Callable<Void>()
+        {
+            public Void call() throws Exception
+            {
+                try
+                {
+                    ContentMonitor monitor = null;
+                    while((monitor = monitors.poll()) != null)
+                    {
+                        Result result = crawl(crawler, monitor);
+                        if(result.failed())
+                            storeQueue.put(result);
+                        else
+                            compareQueue.put(result);
+                    }
+                }
+                finally
+                {
+                    if(crawling.decrementAndGet() == 0)
+                        end(compareQueue, comparers);
+                }
+
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns a worker that compares the crawled snapshots and passes the results to be stored.
+     * <p>
+     * The last compare worker to finish tells the store workers that there are no more results.
+     */
+    private Callable<Void> newCompareWorker(final BlockingQueue<Result> compareQueue,
+        final BlockingQueue<Result> storeQueue, final AtomicInteger comparing, final int storers)
+    {
+        return new Callable<Void>()
+        {
+            public Void call() throws Exception
+            {
+                try
+                {
+                    Result result = null;
+                    while((result = compareQueue.take()) != END)
+                    {
+                        compare(result);
+                        storeQueue.put(result);
+                    }
+                }
+                finally
+                {
+                    if(comparing.decrementAndGet() == 0)
+                        end(storeQueue, storers);
+                }
+
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns a worker that stores the results of the checks.
+     */
+    private Callable<Void> newStoreWorker(final BlockingQueue<Result> storeQueue,
+        final MonitorSweepSummary summary, final List<SQLException> errors)
+    {
+        return new Callable<Void>()
+        {
+            public Void call() throws Exception
+            {
+                Result result = null;
+                while((result = storeQueue.take()) != END)
+                {
+                    try
+                    {
+                        store(result, summary);
+                    }
+                    catch(SQLException e)
+                    {
+                        logger.severe(String.format("Unable to store check for monitor %s: %s",
+                            result.monitor.getGuid(), StringUtils.serialize(e)));
+                        synchronized(errors)
+                        {
+                            errors.add(e);
+                        }
+                    }
+                    catch(RuntimeException e)
+                    {
+                        logger.severe(String.format("Unable to store check for monitor %s: %s",
+                            result.monitor.getGuid(), StringUtils.serialize(e)));
+                    }
+                }
+
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Tells the given number of workers that there are no more results in the given queue.
+     */
+    private static void end(BlockingQueue<Result> queue, int workers) throws InterruptedException
+    {
+        for(int i = 0; i < workers; i++)
+            queue.put(END);
+    }
+
+    /**
+     * Crawls the page of the given monitor.
+     * <p>
+     * Returns a failure if the crawl failed or timed out.
+     */
+    private Result crawl(TaskExecutor crawler, final ContentMonitor monitor) throws InterruptedException
+    {
+        final Result ret = new Result(monitor);
+        ret.started = Instant.now();
+
+        try
+        {
+            ret.snapshot = crawler.call(new Callable<ContentSnapshot>()
+            {
+                public ContentSnapshot call() throws Exception
+                {
+                    // The sweep has already given up on the check
+                    if(!ret.state.compareAndSet(Result.QUEUED, Result.CRAWLING))
+                        return null;
+
+                    crawling.add(monitor.getId());
+
+                    try
+                    {
+                        if(monitor.getStatus() == MonitorStatus.CHANGE)
+                        {
+                            ret.event = factory.getContentChangeDAO().getById(monitor.getEventId());
+                            return ret.event != null ? monitor.checkChange(ret.event, maxResults, cache, debug) : null;
+                        }
+
+                        return monitor.check(maxResults, cache, debug);
+                    }
+                    finally
+                    {
+                        if(!ret.state.compareAndSet(Result.CRAWLING, Result.CRAWLED))
+                            logger.warning(String.format("Timed out check finished for monitor %s", monitor.getGuid()));
+                        crawling.remove(monitor.getId());
+                    }
+                }
+            }, timeout);
+            ret.completed = Instant.now();
+        }
+        catch(TimeoutException | CancellationException e)
+        {
+            // Leave the monitor alone if the crawl is still changing it
+            int state = ret.state.getAndSet(Result.ABANDONED);
+            ret.abandoned = state == Result.CRAWLING;
+            if(state == Result.QUEUED) // The crawl never got a thread, so the page isn't hanging
+                fail(ret, String.format("Check did not start within %dms",
+                    System.currentTimeMillis()-ret.started.toEpochMilli()), false);
+            else
+                fail(ret, String.format("Check exceeded timeout of %dms", timeout), true);
+        }
+        catch(ExecutionException e)
+        {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.severe(String.format("Check failed for monitor %s: %s", monitor.getGuid(), StringUtils.serialize(cause)));
+            fail(ret, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName(), false);
+        }
+
+        ret.latency = System.currentTimeMillis()-ret.started.toEpochMilli();
+
+        return ret;
+    }
+
+    /**
+     * Compares the crawled snapshot of the given result with the stored content.
+     */
+    private void compare(Result result)
+    {
+        ContentMonitor monitor = result.monitor;
+
+        try
+        {
+            if(monitor.getStatus() == MonitorStatus.CHANGE)
+            {
+                if(result.event != null && monitor.updateChange(result.event, result.snapshot,
+                    result.started, result.completed, lookup, debug))
+                {
+                    result.update = result.event;
+                }
+            }
+            else
+            {
+                ContentSnapshot snapshot = result.snapshot;
+                monitor.setExecutedDate(result.completed);
+                monitor.setSuccessDate(result.completed);
+                monitor.setExecutionTime(result.completed.toEpochMilli()-result.started.toEpochMilli());
+
+                if(snapshot != null && !monitor.isUnchanged())
+                {
+                    ContentSnapshot diff = monitor.compareSnapshot(snapshot, lookup, debug);
+                    if(!diff.isEmpty())
+                    {
+                        result.change = new ContentChange(monitor, snapshot, diff);
+                        monitor.setChange(result.change);
+                    }
+                    else
+                    {
+                        monitor.setSnapshot(snapshot);
+                    }
+                }
+
+                if(result.change == null && monitor.getStatus() != MonitorStatus.WAITING)
+                {
+                    monitor.setStatus(MonitorStatus.WAITING);
+                    monitor.setUpdatedDate(result.completed);
+                }
+
+                monitor.setErrorMessage("");
+
+                if(schedule != null && monitor.isAdaptive())
+                    reschedule(monitor, result.change != null ? result.completed : null);
+            }
+        }
+        catch(Exception e)
+        {
+            logger.severe(String.format("Compare failed for monitor %s: %s", monitor.getGuid(), StringUtils.serialize(e)));
+            result.change = null;
+            result.update = null;
+            fail(result, e.getMessage() != null ? e.getMessage() : e.getClass().getName(), false);
+        }
+    }
+
+    /**
+     * Adjusts the interval of the given monitor to the changes found by its previous checks.
+     * @param changed The date of a change that has just been found, or <CODE>null</CODE>
+     */
+    private void reschedule(ContentMonitor monitor, Instant changed)
+    {
+        Instant now = Instant.now();
+        List<Instant> dates = new ArrayList<Instant>();
+
+        try
+        {
+            List<ContentChangeItem> changes = factory.getContentChangeDAO()
+                .listItems(monitor.getId(), schedule.getHistoryStart(now));
+            if(changes != null)
+            {
+                for(ContentChangeItem change : changes)
+                    dates.add(change.getCreatedDate());
+            }
+        }
+        catch(SQLException e)
+        {
+            // Keep the current interval until the changes can be read
+            logger.warning(String.format("Unable to read changes for monitor %s: %s", monitor.getGuid(), e.getMessage()));
+            return;
+        }
+
+        if(changed != null)
+            dates.add(changed);
+
+        if(schedule.update(monitor, dates, now) && debug)
+        {
+            logger.info(String.format("Set interval for monitor %s: interval=%d reason=%s",
+                monitor.getGuid(), monitor.getInterval(), monitor.getIntervalReason()));
+        }
+    }
+
+    /**
+     * Raises an alert or failure for the monitor of the given result.
+     * <p>
+     * Monitors with alerts enabled raise an alert, otherwise a failure is raised.
+     *  The monitor is not changed if the result has been abandoned by a crawl that is still running.
+     */
+    private void fail(Result result, String message, boolean timedOut)
+    {
+        ContentMonitor monitor = result.monitor;
+        result.timedOut = timedOut;
+        if(!result.abandoned)
+        {
+            monitor.setErrorMessage(message);
+            monitor.setExecutedDate(Instant.now());
+        }
+
+        if(monitor.hasAlerts())
+        {
+            result.alert = new ContentAlert(monitor, AlertReason.UNREACHABLE);
+            result.alert.setErrorMessage(message);
+            if(!result.abandoned)
+                monitor.setAlert(result.alert);
+        }
+        else
+        {
+            result.failure = new ContentFailure(monitor);
+            result.failure.setReason(timedOut ? FailureReason.HANGING : FailureReason.UNDEFINED);
+            result.failure.setNotes(message);
+            if(!result.abandoned)
+                monitor.setFailure(result.failure);
+        }
+    }
+
+    /**
+     * Stores the change, alert, failure and monitor for the given result.
+     */
+    private void store(Result result, MonitorSweepSummary summary) throws SQLException
+    {
+        summary.addCheck(result.latency);
+
+        if(result.change != null)
+        {
+            factory.getContentChangeDAO().add(result.change);
+            summary.addChange();
+        }
+
+        if(result.update != null)
+        {
+            factory.getContentChangeDAO().update(result.update);
+            summary.addUpdate();
+        }
+
+        if(result.alert != null)
+        {
+            factory.getContentAlertDAO().add(result.alert);
+            summary.addAlert();
+        }
+
+        if(result.failure != null)
+        {
+            factory.getContentFailureDAO().add(result.failure);
+            summary.addFailure();
+        }
+
+        if(result.timedOut)
+            summary.addTimeout();
+
+        // The monitor is still being changed by the crawl
+        if(!result.abandoned)
+            factory.getContentMonitorDAO().update(result.monitor);
+    }
+
+    /**
+     * Class representing the result of the check of a monitor.
+     */
+    private static class Result
+    {
+        // The states of the crawl
+        static final int QUEUED = 0;
+        static final int CRAWLING = 1;
+        static final int CRAWLED = 2;
+        static final int ABANDONED = 3;
+
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        boolean abandoned = false;
+        ContentMonitor monitor;
+        Instant started;
+        Instant completed;
+        long latency = 0L;
+        boolean timedOut = false;
+        ContentSnapshot snapshot;
+        ContentChange event;
+        ContentChange change;
+        ContentChange update;
+        ContentAlert alert;
+        ContentFailure failure;
+
+        Result(ContentMonitor monitor)
+        {
+            this.monitor = monitor;
+        }
+
+        boolean failed()
+        {
+            return alert != null || failure != null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Class representing the summary of a sweep of content monitors.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class MonitorSweepSummary
+{
+    private int checked = 0;
+    private int changes = 0;
+    private int updates = 0;
+    private int alerts = 0;
+    private int failures = 0;
+    private int timeouts = 0;
+    private long elapsedTime = 0L;
+    private List<Long> latencies = new ArrayList<Long>();
+
+    /**
+     * Default constructor.
+     */
+    public MonitorSweepSummary()
+    {
+    }
+
+    /**
+     * Returns the number of monitors that were checked.
+     */
+    public int getChecked()
+    {
+        return checked;
+    }
+
+    /**
+     * Returns the number of new changes found.
+     */
+    public int getChanges()
+    {
+        return changes;
+    }
+
+    /**
+     * Returns the number of existing changes that were updated.
+     */
+    public int getUpdates()
+    {
+        return updates;
+    }
+
+    /**
+     * Returns the number of alerts raised.
+     */
+    public int getAlerts()
+    {
+        return alerts;
+    }
+
+    /**
+     * Returns the number of failures raised.
+     */
+    public int getFailures()
+    {
+        return failures;
+    }
+
+    /**
+     * Returns the number of checks that exceeded the timeout.
+     */
+    public int getTimeouts()
+    {
+        return timeouts;
+    }
+
+    /**
+     * Returns the time taken for the sweep (in milliseconds).
+     */
+    public long getElapsedTime()
+    {
+        return elapsedTime;
+    }
+
+    /**
+     * Sets the time taken for the sweep (in milliseconds).
+     */
+    public void setElapsedTime(long elapsedTime)
+    {
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Adds a check that took the given time (in milliseconds).
+     */
+    synchronized void addCheck(long latency)
+    {
+        ++checked;
+        latencies.add(latency);
+    }
+
+    /**
+     * Adds a new change.
+     */
+    synchronized void addChange()
+    {
+        ++changes;
+    }
+
+    /**
+     * Adds an updated change.
+     */
+    synchronized void addUpdate()
+    {
+        ++updates;
+    }
+
+    /**
+     * Adds an alert.
+     */
+    synchronized void addAlert()
+    {
+        ++alerts;
+    }
+
+    /**
+     * Adds a failure.
+     */
+    synchronized void addFailure()
+    {
+        ++failures;
+    }
+
+    /**
+     * Adds a check that exceeded the timeout.
+     */
+    synchronized void addTimeout()
+    {
+        ++timeouts;
+    }
+
+    /**
+     * Returns the given percentile of the check latencies (in milliseconds).
+     */
+    public synchronized long getLatency(int percentile)
+    {
+        if(latencies.size() == 0)
+            return 0L;
+
+        List<Long> sorted = new ArrayList<Long>(latencies);
+        Collections.sort(sorted);
+        int rank = (int)Math.ceil((percentile/100.0d)*sorted.size());
+        return sorted.get(Math.min(Math.max(rank, 1), sorted.size())-1);
+    }
+
+    /**
+     * Returns a string representation of the summary.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("checked=%d changes=%d updates=%d alerts=%d failures=%d timeouts=%d p50=%dms p95=%dms elapsed=%dms",
+            getChecked(), getChanges(), getUpdates(), getAlerts(), getFailures(), getTimeouts(),
+            getLatency(50), getLatency(95), getElapsedTime());
+    }
+}
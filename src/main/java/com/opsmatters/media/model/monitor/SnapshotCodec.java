@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import org.json.JSONObject;
+import org.json.JSONException;
+import com.opsmatters.media.util.FileUtils;
+
+/**
+ * Encodes the snapshots of a content monitor for storage.
+ * <p>
+ * A snapshot is either stored in full as a compressed keyframe, or as a compressed delta
+ *  of its items from another snapshot that is stored alongside it.
+ * Values that were stored as plain JSON are returned unchanged when decoded.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class SnapshotCodec
+{
+    private static final String KEYFRAME = "z:";
+    private static final String DELTA = "d:";
+    private static final String PLAIN_DELTA = "p:";
+
+    /**
+     * Private constructor as this class shouldn't be instantiated.
+     */
+    private SnapshotCodec()
+    {
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given value has been encoded.
+     */
+    public static boolean isEncoded(String value)
+    {
+        return value != null && (value.startsWith(KEYFRAME)
+            || value.startsWith(DELTA) || value.startsWith(PLAIN_DELTA));
+    }
+
+    /**
+     * Returns the given snapshot encoded as a keyframe.
+     * <p>
+     * The snapshot is returned unchanged if it doesn't compress.
+     */
+    public static String encode(String snapshot)
+    {
+        if(snapshot == null || snapshot.length() == 0 || isEncoded(snapshot))
+            return snapshot;
+
+        String ret = compress(KEYFRAME, snapshot);
+        return ret != null ? ret : snapshot;
+    }
+
+    /**
+     * Returns the given snapshot encoded as a delta from the given base snapshot.
+     * <p>
+     * The snapshot is encoded as a keyframe if it cannot be reproduced exactly from a delta.
+     */
+    public static String encode(String snapshot, String base)
+    {
+        if(snapshot == null || snapshot.length() == 0 || isEncoded(snapshot))
+            return snapshot;
+
+        String delta = getDelta(snapshot, base);
+        if(delta == null)
+            return encode(snapshot);
+
+        String ret = compress(DELTA, delta);
+        return ret != null ? ret : PLAIN_DELTA+delta;
+    }
+
+    /**
+     * Returns the snapshot for the given keyframe.
+     */
+    public static String decode(String value)
+    {
+        return decode(value, null);
+    }
+
+    /**
+     * Returns the snapshot for the given keyframe or delta from the given decoded base snapshot.
+     */
+    public static String decode(String value, String base)
+    {
+        if(!isEncoded(value))
+            return value;
+
+        if(value.startsWith(KEYFRAME))
+            return uncompress(value.substring(KEYFRAME.length()));
+
+        String delta = value.startsWith(DELTA)
+            ? uncompress(value.substring(DELTA.length()))
+            : value.substring(PLAIN_DELTA.length());
+        if(base == null)
+            throw new IllegalArgumentException("Missing base snapshot for delta");
+        return ContentSnapshot.fromDelta(new JSONObject(delta), new ContentSnapshot(base)).toString();
+    }
+
+    /**
+     * Returns the delta of the given snapshot from the given base snapshot.
+     * <p>
+     * Returns <CODE>null</CODE> if either snapshot doesn't contain a list of items of the same type,
+     *  or if the delta doesn't reproduce the snapshot exactly.
+     */
+    private static String getDelta(String snapshot, String base)
+    {
+        if(base == null || base.length() == 0)
+            return null;
+
+        try
+        {
+            ContentSnapshot current = new ContentSnapshot(snapshot);
+            ContentSnapshot previous = new ContentSnapshot(base);
+            if(!current.containsItems() || !previous.containsItems()
+                || current.getContentType() == null
+                || current.getContentType() != previous.getContentType())
+            {
+                return null;
+            }
+
+            JSONObject delta = current.getDelta(previous);
+            if(!ContentSnapshot.fromDelta(delta, previous).toString().equals(snapshot))
+                return null;
+            return delta.toString();
+        }
+        catch(JSONException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the given string compressed and encoded with the given prefix.
+     * <p>
+     * Returns <CODE>null</CODE> if the encoded string would not be shorter.
+     */
+    private static String compress(String prefix, String str)
+    {
+        String ret = null;
+        byte[] bytes = FileUtils.compress(str.getBytes(StandardCharsets.UTF_8), Deflater.BEST_COMPRESSION);
+        if(bytes != null)
+            ret = prefix+Base64.getEncoder().encodeToString(bytes);
+        return ret != null && ret.length() < str.length() ? ret : null;
+    }
+
+    /**
+     * Returns the given compressed string.
+     */
+    private static String uncompress(String str)
+    {
+        try
+        {
+            byte[] bytes = FileUtils.uncompress(Base64.getDecoder().decode(str));
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalArgumentException("Invalid compressed snapshot", e);
+        }
+    }
+}
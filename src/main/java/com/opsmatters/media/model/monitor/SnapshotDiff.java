@@ -16,13 +16,25 @@
 package com.opsmatters.media.model.monitor;
 
 import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.io.StringReader;
 import org.apache.commons.io.LineIterator;
 import org.apache.commons.text.diff.StringsComparator;
+import org.apache.commons.text.diff.EditScript;
+import org.apache.commons.text.diff.KeepCommand;
+import org.apache.commons.text.diff.InsertCommand;
+import org.apache.commons.text.diff.DeleteCommand;
+import org.json.JSONObject;
+import org.json.JSONArray;
+import org.json.JSONException;
 import com.opsmatters.media.cache.provider.VideoProviders;
 import com.opsmatters.media.model.provider.VideoProviderId;
 import com.opsmatters.media.model.provider.VideoProvider;
+import com.opsmatters.media.util.StringUtils;
 
 import static com.opsmatters.media.model.content.FieldName.*;
 
@@ -34,6 +46,8 @@ import static com.opsmatters.media.model.content.FieldName.*;
 public class SnapshotDiff
 {
     private static final float COMMONALITY = 0.8f;
+    private static final int MAX_ITEM_LENGTH = 2000;
+    private static final int MAX_CACHE_SIZE = 500;
 
     private static Map<String,String> NAMES = new HashMap<String,String>();
 
@@ -47,7 +61,46 @@ public class SnapshotDiff
         NAMES.put(VIDEO_ID.value(), "Video ID");
     }
 
+    // The rendered comparisons, with the least recently used removed first
+    private static Map<String,String> cache = Collections.synchronizedMap(new LinkedHashMap<String,String>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,String> eldest)
+        {
+            return size() > MAX_CACHE_SIZE;
+        }
+    });
+
+    /**
+     * Returns a HTML document that highlights the differences between the given texts.
+     * <p>
+     * The document is only rendered once for each pair of texts and then kept in a cache.
+     */
     public static String compare(String text1, String text2)
+    {
+        String key = StringUtils.getDigest(text1)+":"+StringUtils.getDigest(text2);
+        String ret = cache.get(key);
+        if(ret == null)
+        {
+            ret = render(text1, text2);
+            cache.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Clears the cache of rendered comparisons.
+     */
+    public static void clearCache()
+    {
+        cache.clear();
+    }
+
+    /**
+     * Returns a HTML document that highlights the differences between the given texts.
+     */
+    private static String render(String text1, String text2)
     {
         StringReader reader1 = new StringReader(text1);
         LineIterator iterator1 = new LineIterator(reader1);
@@ -55,7 +108,7 @@ public class SnapshotDiff
         LineIterator iterator2 = new LineIterator(reader2);
 
         TextCommandVisitor textVisitor = new TextCommandVisitor();
-        VideoProvider youtube = VideoProviders.get(VideoProviderId.YOUTUBE);
+        VideoProvider youtube = null;
 
         try
         {
@@ -74,7 +127,11 @@ public class SnapshotDiff
                     if(leftProperty.equals(URL.value()))
                         leftUrl = left;
                     else if(leftProperty.equals(VIDEO_ID.value()))
+                    {
+                        if(youtube == null)
+                            youtube = VideoProviders.get(VideoProviderId.YOUTUBE);
                         leftUrl = youtube.getUrl()+String.format(youtube.getVideoUrl(), left);
+                    }
                     leftProperty = NAMES.get(leftProperty);
                 }
 
@@ -87,7 +144,11 @@ public class SnapshotDiff
                     if(rightProperty.equals(URL.value()))
                         rightUrl = right;
                     else if(rightProperty.equals(VIDEO_ID.value()))
+                    {
+                        if(youtube == null)
+                            youtube = VideoProviders.get(VideoProviderId.YOUTUBE);
                         rightUrl = youtube.getUrl()+String.format(youtube.getVideoUrl(), right);
+                    }
                     rightProperty = NAMES.get(rightProperty);
                 }
 
@@ -102,8 +163,8 @@ public class SnapshotDiff
 
                 if(!emptyKeys)
                 {
-                    StringsComparator comparator = new StringsComparator(left, right);
-                    int length = comparator.getScript().getLCSLength();
+                    EditScript<Character> script = getScript(left, right);
+                    int length = script.getLCSLength();
                     int max = Integer.max(left.length(), right.length());
                     if(length > (max*COMMONALITY)) // Strings have at least 40% commonality
                     {
@@ -113,7 +174,7 @@ public class SnapshotDiff
                             textVisitor.append("<div class=\"comparison comparison-fail\">");
 
                         // Merge both lines if they have at least 40% commonality
-                        appendLine(textVisitor, rightProperty, rightUrl, comparator);
+                        appendLine(textVisitor, rightProperty, rightUrl, script);
                     }
                     else
                     {
@@ -122,14 +183,12 @@ public class SnapshotDiff
                         // Otherwise show the two lines separately
                         if(leftProperty != null && left.length() > 1)
                         {
-                            StringsComparator leftComparator = new StringsComparator(left, "\n");
-                            appendLine(textVisitor, leftProperty, leftUrl, leftComparator);
+                            appendLine(textVisitor, leftProperty, leftUrl, getScript(left, "\n"));
                         }
 
                         if(rightProperty != null && right.length() > 1)
                         {
-                            StringsComparator rightComparator = new StringsComparator("\n", right);
-                            appendLine(textVisitor, !rightProperty.equals(leftProperty) || left.length() == 1 ? rightProperty : "", rightUrl, rightComparator);
+                            appendLine(textVisitor, !rightProperty.equals(leftProperty) || left.length() == 1 ? rightProperty : "", rightUrl, getScript("\n", right));
                         }
                     }
                 }
@@ -149,6 +208,42 @@ public class SnapshotDiff
         return textVisitor.getText();
     }
 
+    /**
+     * Returns the script to turn the given left line into the given right line.
+     * <p>
+     * Lines that are unchanged, or are only on one side, don't need a character comparison.
+     */
+    private static EditScript<Character> getScript(String left, String right)
+    {
+        EditScript<Character> ret = null;
+        if(left.equals(right))
+        {
+            ret = new EditScript<Character>();
+            for(int i = 0; i < left.length(); i++)
+                ret.append(new KeepCommand<Character>(left.charAt(i)));
+        }
+        else if(right.equals("\n") && left.indexOf('\n') == left.length()-1)
+        {
+            ret = new EditScript<Character>();
+            for(int i = 0; i < left.length()-1; i++)
+                ret.append(new DeleteCommand<Character>(left.charAt(i)));
+            ret.append(new KeepCommand<Character>('\n'));
+        }
+        else if(left.equals("\n") && right.indexOf('\n') == right.length()-1)
+        {
+            ret = new EditScript<Character>();
+            for(int i = 0; i < right.length()-1; i++)
+                ret.append(new InsertCommand<Character>(right.charAt(i)));
+            ret.append(new KeepCommand<Character>('\n'));
+        }
+        else
+        {
+            ret = new StringsComparator(left, right).getScript();
+        }
+
+        return ret;
+    }
+
     /**
      * Returns the property name from the given string.
      */
@@ -177,13 +272,13 @@ public class SnapshotDiff
     /**
      * Appends the given URL to the visitor.
      */
-    private static void appendUrl(TextCommandVisitor textVisitor, String url, StringsComparator comparator)
+    private static void appendUrl(TextCommandVisitor textVisitor, String url, EditScript<Character> script)
     {
         if(url != null)
         {
             textVisitor.append("<div class=\"value\">");
             textVisitor.append(String.format("<a href=\"%s\" target=\"_blank\">", url.trim()));
-            comparator.getScript().visit(textVisitor);
+            script.visit(textVisitor);
             textVisitor.append("</a>");
             textVisitor.append("</div>");
         }
@@ -192,38 +287,176 @@ public class SnapshotDiff
     /**
      * Appends the given string to the visitor.
      */
-    private static void appendString(TextCommandVisitor textVisitor, StringsComparator comparator)
+    private static void appendString(TextCommandVisitor textVisitor, EditScript<Character> script)
     {
         textVisitor.append("<div class=\"value\">");
-        comparator.getScript().visit(textVisitor);
+        script.visit(textVisitor);
         textVisitor.append("</div>");
     }
 
     /**
      * Appends the given line to the visitor.
      */
-    private static void appendLine(TextCommandVisitor textVisitor, String key, String url, StringsComparator comparator)
+    private static void appendLine(TextCommandVisitor textVisitor, String key, String url, EditScript<Character> script)
     {
         if(key != null)
         {
             textVisitor.append("<div class=\"line\">");
             appendKey(textVisitor, key);
             if(url != null)
-                appendUrl(textVisitor, url, comparator);
+                appendUrl(textVisitor, url, script);
             else
-                appendString(textVisitor, comparator);
+                appendString(textVisitor, script);
             textVisitor.append("</div>");
         }
     }
 
     /**
-     * Returns the % difference between the given strings.
+     * Returns the % difference between the given snapshots.
+     * <p>
+     * The items in the snapshots are matched by their url, video id or title,
+     *  and only the text of the items that have changed is compared,
+     *  with each removed item compared to the added item that replaced it.
+     *  Snapshots that don't contain a list of items are compared as text.
      */
     public static int getDifferencePercent(String before, String after)
+    {
+        if(before.equals(after))
+            return 0;
+
+        Map<String,String> beforeItems = getItems(before);
+        Map<String,String> afterItems = getItems(after);
+        if(beforeItems == null || afterItems == null)
+            return getTextDifferencePercent(before, after);
+
+        int beforeLength = 0;
+        int common = 0;
+        List<String> removed = new ArrayList<String>();
+        for(Map.Entry<String,String> entry : beforeItems.entrySet())
+        {
+            String item = entry.getValue();
+            beforeLength += item.length();
+
+            String other = afterItems.get(entry.getKey());
+            if(other != null)
+                common += getCommonLength(item, other);
+            else
+                removed.add(item);
+        }
+
+        int afterLength = 0;
+        List<String> added = new ArrayList<String>();
+        for(Map.Entry<String,String> entry : afterItems.entrySet())
+        {
+            String item = entry.getValue();
+            afterLength += item.length();
+            if(!beforeItems.containsKey(entry.getKey()))
+                added.add(item);
+        }
+
+        // Compare the removed items with the added items that replaced them
+        for(int i = 0; i < removed.size() && i < added.size(); i++)
+            common += getCommonLength(removed.get(i), added.get(i));
+
+        return getPercent(common, Integer.max(beforeLength, afterLength));
+    }
+
+    /**
+     * Returns the % difference between the given strings using a character comparison.
+     */
+    public static int getTextDifferencePercent(String before, String after)
     {
         StringsComparator comparator = new StringsComparator(before, after);
         int len = Integer.max(before.length(), after.length());
         int lcs = comparator.getScript().getLCSLength();
-        return (int)((1-(lcs/(float)len))*100);
+        return getPercent(lcs, len);
+    }
+
+    /**
+     * Returns the % difference given the common length and the total length.
+     */
+    private static int getPercent(int common, int length)
+    {
+        if(length == 0)
+            return 0;
+        return (int)((1-(common/(float)length))*100);
+    }
+
+    /**
+     * Returns the number of characters in common between the two items.
+     * <p>
+     * Items that are too long for a character comparison only count their common prefix and suffix.
+     */
+    private static int getCommonLength(String item1, String item2)
+    {
+        if(item1.equals(item2))
+            return item1.length();
+
+        if(item1.length() <= MAX_ITEM_LENGTH && item2.length() <= MAX_ITEM_LENGTH)
+            return new StringsComparator(item1, item2).getScript().getLCSLength();
+
+        int max = Integer.min(item1.length(), item2.length());
+        int prefix = 0;
+        while(prefix < max && item1.charAt(prefix) == item2.charAt(prefix))
+            ++prefix;
+        int suffix = 0;
+        while(suffix < max-prefix
+            && item1.charAt(item1.length()-suffix-1) == item2.charAt(item2.length()-suffix-1))
+        {
+            ++suffix;
+        }
+
+        return prefix+suffix;
+    }
+
+    /**
+     * Returns the items in the given snapshot keyed by url, video id or title.
+     * <p>
+     * Returns <CODE>null</CODE> if the snapshot doesn't contain a list of items.
+     */
+    private static Map<String,String> getItems(String snapshot)
+    {
+        JSONArray array = null;
+
+        try
+        {
+            JSONObject obj = new JSONObject(snapshot);
+            for(String key : obj.keySet())
+            {
+                Object value = obj.get(key);
+                if(value instanceof JSONArray)
+                    array = (JSONArray)value;
+            }
+        }
+        catch(JSONException e)
+        {
+            return null;
+        }
+
+        if(array == null)
+            return null;
+
+        Map<String,String> ret = new LinkedHashMap<String,String>();
+        for(int i = 0; i < array.length(); i++)
+        {
+            JSONObject item = array.optJSONObject(i);
+            if(item == null)
+                return null;
+
+            String key = item.optString(URL.value(), null);
+            if(key == null)
+                key = item.optString(VIDEO_ID.value(), null);
+            if(key == null)
+                key = item.optString(TITLE.value());
+
+            // Keep items with duplicate keys separate
+            String unique = key;
+            for(int j = 1; ret.containsKey(unique); j++)
+                unique = key+"#"+j;
+
+            ret.put(unique, item.toString());
+        }
+
+        return ret;
     }
-}
\ No newline at end of file
+}
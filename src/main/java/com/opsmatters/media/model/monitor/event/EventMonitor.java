@@ -94,12 +94,22 @@ public class EventMonitor extends ContentMonitor<EventDetails>
             crawler = new EventCrawler(config, page);
             crawler.setDebug(debug);
             crawler.setMaxResults(maxResults);
+            crawler.setLastFingerprint(getCheckFingerprint());
             int count = crawler.processTeasers(cache);
 
-            List<EventDetails> teasers = crawler.getTeasers();
-            if(EventDetails.hasStartDate(teasers))
-                Collections.sort(teasers, comparator);
-            ret = new ContentSnapshot(getContentType(), teasers);
+            if(crawler.isUnchanged())
+            {
+                ret = getUnchangedSnapshot();
+            }
+            else
+            {
+                List<EventDetails> teasers = crawler.getTeasers();
+                if(EventDetails.hasStartDate(teasers))
+                    Collections.sort(teasers, comparator);
+                ret = new ContentSnapshot(getContentType(), teasers);
+                setFingerprint(crawler.getFingerprint(), ret);
+            }
+
             ret.setLog(crawler.getLog());
 
             if(crawler.getTitle() != null)
@@ -95,12 +95,22 @@ public class PublicationMonitor extends ContentMonitor<PublicationDetails>
             crawler.setImagePrefix(organisation.getImagePrefix());
             crawler.setDebug(debug);
             crawler.setMaxResults(maxResults);
+            crawler.setLastFingerprint(getCheckFingerprint());
             int count = crawler.processTeasers(cache);
 
-            List<PublicationDetails> teasers = crawler.getTeasers();
-            if(PublicationDetails.hasPublishedDate(teasers))
-                Collections.sort(teasers, comparator);
-            ret = new ContentSnapshot(getContentType(), teasers);
+            if(crawler.isUnchanged())
+            {
+                ret = getUnchangedSnapshot();
+            }
+            else
+            {
+                List<PublicationDetails> teasers = crawler.getTeasers();
+                if(PublicationDetails.hasPublishedDate(teasers))
+                    Collections.sort(teasers, comparator);
+                ret = new ContentSnapshot(getContentType(), teasers);
+                setFingerprint(crawler.getFingerprint(), ret);
+            }
+
             ret.setLog(crawler.getLog());
 
             if(crawler.getTitle() != null)
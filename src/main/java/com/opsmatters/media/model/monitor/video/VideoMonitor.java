@@ -207,11 +207,18 @@ public class VideoMonitor extends ContentMonitor<VideoDetails>
             // Remove any future videos from the change list
             if(cache && teasers.size() > 0)
             {
+                // Look up the videos concurrently
+                List<VideoDetails> lookups = new ArrayList<VideoDetails>();
+                for(VideoDetails teaser : teasers)
+                    lookups.add(new VideoDetails(teaser.getVideoId()));
+                List<VideoDetails> videos = crawler.getDetails(lookups);
+
                 Iterator it = teasers.iterator();
+                Iterator<VideoDetails> vit = videos.iterator();
                 while(it.hasNext())
                 {
-                    VideoDetails teaser = (VideoDetails)it.next(); 
-                    VideoDetails video = crawler.getDetails(teaser.getVideoId());
+                    it.next();
+                    VideoDetails video = vit.next();
                     if(video != null && video.getDuration() == 0)
                     {
                         it.remove();
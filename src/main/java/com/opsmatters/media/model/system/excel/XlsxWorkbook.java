@@ -1089,8 +1089,9 @@ public class XlsxWorkbook extends Workbook
         }
 
         // Remove any illegal characters from the value
+        // The same string is returned if no characters were removed
         String converted = StringUtils.stripNonValidXMLCharacters(data);
-        if(!data.equals(converted))
+        if(converted != data && !data.equals(converted))
         {
             logger.severe("Removed illegal characters from cell in sheet '"
                 +sheetName+"': "+data);
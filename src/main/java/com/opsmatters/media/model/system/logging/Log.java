@@ -18,6 +18,7 @@ package com.opsmatters.media.model.system.logging;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 
 import static com.opsmatters.media.model.system.logging.LogEventLevel.*;
 
@@ -29,7 +30,7 @@ import static com.opsmatters.media.model.system.logging.LogEventLevel.*;
 public class Log
 {
     private LogEventType type;   
-    private List<LogEvent> events = new ArrayList<LogEvent>();
+    private List<LogEvent> events = Collections.synchronizedList(new ArrayList<LogEvent>());
 
     /**
      * Default constructor.
@@ -151,12 +152,15 @@ public class Log
     public List<LogEvent> getEvents(LogEventLevel level)
     {
         List<LogEvent> ret = new ArrayList<LogEvent>();
-        for(LogEvent event : events)
+        synchronized(events)
         {
-            if(level != null && event.getLevel().precedence() < level.precedence())
-                continue;
+            for(LogEvent event : events)
+            {
+                if(level != null && event.getLevel().precedence() < level.precedence())
+                    continue;
 
-            ret.add(event);
+                ret.add(event);
+            }
         }
 
         return ret;
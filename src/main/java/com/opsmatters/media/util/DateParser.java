@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.time.DateTimeException;
+import java.time.temporal.TemporalAccessor;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Class that parses date strings using a list of alternative date patterns.
+ * <p>
+ * A pattern matches the start of the date string and any text after the date is ignored,
+ *  eg. "March 5, 2024 &middot; 5 min read".
+ * Patterns that don't match are skipped without throwing an exception, so an exception is only thrown
+ *  if none of the patterns match.
+ * <p>
+ * The patterns are tried in the order given, except that the pattern that last succeeded is tried first.
+ * Its result is only used if it matches at least as much of the string as the first pattern
+ *  that matches in the given order, so that a shorter pattern cannot drop the time from a longer date.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class DateParser
+{
+    private List<String> patterns;
+    private volatile int last = 0;
+
+    /**
+     * Constructor that takes a list of date patterns.
+     */
+    public DateParser(List<String> patterns)
+    {
+        this.patterns = new ArrayList<String>(patterns);
+    }
+
+    /**
+     * Returns the date patterns of the parser.
+     */
+    public List<String> getPatterns()
+    {
+        return patterns;
+    }
+
+    /**
+     * Returns the pattern that last succeeded.
+     */
+    public String getLastPattern()
+    {
+        return patterns.size() > 0 ? patterns.get(last) : null;
+    }
+
+    /**
+     * Returns the given date string in UTC as an instant.
+     */
+    public Instant toInstantUTC(String str) throws DateTimeParseException
+    {
+        Instant ret = null;
+
+        if(str != null && str.length() > 0 && !str.equals("-") && patterns.size() > 0)
+        {
+            Match match = parse(TimeUtils.preprocessDateString(str), false);
+            if(match == null)
+                throw new DateTimeParseException(String.format("Text '%s' could not be parsed using patterns: %s",
+                    str, patterns), str, 0);
+            ret = (Instant)match.value;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the given date string in UTC as millis.
+     */
+    public long toMillisUTC(String str) throws DateTimeParseException
+    {
+        Instant instant = toInstantUTC(str);
+        return instant != null ? instant.toEpochMilli() : 0L;
+    }
+
+    /**
+     * Returns the given time string as millis.
+     */
+    public long toMillisTime(String str) throws DateTimeParseException
+    {
+        if(patterns.size() == 0)
+            return 0L;
+
+        Match match = parse(TimeUtils.preprocessTimeString(str), true);
+        if(match == null)
+            throw new DateTimeParseException(String.format("Text '%s' could not be parsed using patterns: %s",
+                str, patterns), str, 0);
+        return (Long)match.value;
+    }
+
+    /**
+     * Returns the match for the given preprocessed string, or <CODE>null</CODE> if none of the patterns match.
+     * <p>
+     * The pattern that last succeeded is used if it matches the whole string,
+     *  or at least as much of it as the first pattern that matches in the given order.
+     */
+    private Match parse(String text, boolean time)
+    {
+        int memo = last;
+        Match ret = match(text, memo, time);
+        if(ret != null && ret.length == text.length())
+            return ret;
+
+        for(int i = 0; i < patterns.size(); i++)
+        {
+            Match match = i == memo ? ret : match(text, i, time);
+            if(match != null)
+            {
+                if(ret == null || match.length > ret.length)
+                    ret = match;
+                break;
+            }
+        }
+
+        if(ret != null)
+            last = ret.index;
+        return ret;
+    }
+
+    /**
+     * Returns the match of the given pattern for the given string, or <CODE>null</CODE> if it doesn't match.
+     */
+    private Match match(String text, int idx, boolean time)
+    {
+        ParsePosition pos = new ParsePosition(0);
+        TemporalAccessor dt = TimeUtils.parse(text, patterns.get(idx), pos);
+        if(dt != null)
+        {
+            Object value = time ? toMillisTime(dt) : toInstantUTC(dt);
+            if(value != null)
+                return new Match(idx, pos.getIndex(), value);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the given parsed time as millis, or <CODE>null</CODE> if it has no time.
+     */
+    private Long toMillisTime(TemporalAccessor dt)
+    {
+        try
+        {
+            return LocalTime.from(dt).toSecondOfDay()*1000L;
+        }
+        catch(DateTimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the given parsed date as an instant, or <CODE>null</CODE> if it has no date.
+     */
+    private Instant toInstantUTC(TemporalAccessor dt)
+    {
+        try
+        {
+            // Try to parse as date time
+            return LocalDateTime.from(dt).toInstant(ZoneOffset.UTC);
+        }
+        catch(DateTimeException e)
+        {
+        }
+
+        try
+        {
+            // Next try to parse as date only
+            return LocalDate.from(dt).atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        catch(DateTimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Class representing the result of a pattern that matched a date string.
+     */
+    private static class Match
+    {
+        int index;
+        int length;
+        Object value;
+
+        Match(int index, int length, Object value)
+        {
+            this.index = index;
+            this.length = length;
+            this.value = value;
+        }
+    }
+}
@@ -31,6 +31,41 @@ public class FormatUtils
 {
     private static final Logger logger = Logger.getLogger(FormatUtils.class.getName());
 
+    private static final Pattern SPACE_PATTERN = Pattern.compile(" |%20|%2[Ff]");
+    private static final Pattern THIN_SPACE_PATTERN = Pattern.compile("[\\u2000-\\u200b\\u2028\\u202F]");
+    private static final Pattern ESCAPED_PLUS_PATTERN = Pattern.compile("%2[Bb]|%26");
+    private static final Pattern ESCAPED_DOLLAR_PATTERN = Pattern.compile("%24");
+    private static final Pattern ESCAPED_OPEN_PAREN_PATTERN = Pattern.compile("%28");
+    private static final Pattern ESCAPED_CLOSE_PAREN_PATTERN = Pattern.compile("%29");
+    private static final Pattern ESCAPED_OPEN_BRACKET_PATTERN = Pattern.compile("%5[Bb]");
+    private static final Pattern ESCAPED_CLOSE_BRACKET_PATTERN = Pattern.compile("%5[Dd]");
+    private static final Pattern ESCAPED_SPECIAL_PATTERN = Pattern.compile("%22|%23|%25|%27|%2[Cc]|%3[Bb]|%3[Ff]|%3A|%7[Cc]");
+    private static final Pattern ESCAPED_PUNCTUATION_PATTERN = Pattern.compile("%[Ee]2%80%[0-9a-fA-F]{2}");
+    private static final Pattern ESCAPED_EMOJI_PATTERN = Pattern.compile("%F0%9F%[0-9a-fA-F]{2}%[0-9a-fA-F]{2}");
+    private static final Pattern ESCAPED_REGISTERED_PATTERN = Pattern.compile("%C2%AE");
+    private static final Pattern COMBINING_ACCENT_PATTERN = Pattern.compile("[\\u0300-\\u036F]");
+    private static final Pattern ESCAPED_COMBINING_ACCENT_PATTERN = Pattern.compile("%[CcEe][CcDd23]%[89AaBb][0-9A-Fa-f]");
+    private static final Pattern CYRILLIC_PATTERN = Pattern.compile("[\\u0400-\\u0467]");
+    private static final Pattern ESCAPED_CYRILLIC_PATTERN = Pattern.compile("%[Dd][01]%[89AaBb][0-9A-Fa-f]");
+    private static final Pattern QUOTES_PATTERN = Pattern.compile("'|‘|’|‚|‛|“|”|„|′|″|®|™");
+    private static final Pattern DASHES_PATTERN = Pattern.compile("‐|‑|‒|–|—|―|‖|‗|‾	");
+    private static final Pattern ELLIPSIS_PATTERN = Pattern.compile("…");
+    private static final Pattern MULTIPLE_DASHES_PATTERN = Pattern.compile("-+");
+    private static final Pattern STAR_PATTERN = Pattern.compile("\\*");
+    private static final Pattern IMAGE_SIZE_PATTERN = Pattern.compile("[-_\\.]\\d{2,4}x\\d{2,4}");
+    private static final Pattern MULTIPLIER_PATTERN = Pattern.compile("@\\dx");
+    private static final Pattern ESCAPED_MULTIPLIER_PATTERN = Pattern.compile("%40\\dx");
+    private static final Pattern HUNDREDS_MULTIPLIER_PATTERN = Pattern.compile("-\\d00x");
+    private static final Pattern ESCAPED_2D00_PATTERN = Pattern.compile("_2[dD]00_");
+    private static final Pattern EXTENSION_PROTOCOL_PATTERN = Pattern.compile("(.+)\\.(\\w+)#(.+)");
+    private static final Pattern QUERY_PATTERN = Pattern.compile("(.*)\\?(.*)");
+    private static final Pattern EXTRA_EXTENSION_PATTERN = Pattern.compile("(.+)\\.(?:phar|php|pl|py|cgi|asp|js)(\\..+)");
+    private static final Pattern URL_PARAMETERS_PATTERN = Pattern.compile("(.*)[\\?#](.*)");
+    private static final Pattern LINEFEEDS_PATTERN = Pattern.compile("[\r\n]+");
+    private static final Pattern MULTIPLE_SPACES_PATTERN = Pattern.compile("[ ]+");
+    private static final Pattern TRAILING_COLON_PATTERN = Pattern.compile("(.+):$");
+    private static final Pattern PARAGRAPH_PATTERN = Pattern.compile("<p>(.*)</p>", Pattern.DOTALL);
+
     /**
      * Private constructor as this class shouldn't be instantiated.
      */
@@ -124,70 +159,70 @@ public class FormatUtils
                 ret = ret.substring(0, pos);
 
             // Replace spaces with dashes
-            ret = ret.replaceAll(" |%20|%2[Ff]", "-");
+            ret = SPACE_PATTERN.matcher(ret).replaceAll("-");
 
             // Remove "thin" spaces
-            ret = ret.replaceAll("[\\u2000-\\u200b\\u2028\\u202F]", "");
+            ret = THIN_SPACE_PATTERN.matcher(ret).replaceAll("");
 
             // Replace escaped plus, ampersand with plus
-            ret = ret.replaceAll("%2[Bb]|%26", "+");
+            ret = ESCAPED_PLUS_PATTERN.matcher(ret).replaceAll("+");
 
             // Replace some escaped chars with original char
-            ret = ret.replaceAll("%24", "\\$");
-            ret = ret.replaceAll("%28", "(");
-            ret = ret.replaceAll("%29", ")");
-            ret = ret.replaceAll("%5[Bb]", "[");
-            ret = ret.replaceAll("%5[Dd]", "]");
+            ret = ESCAPED_DOLLAR_PATTERN.matcher(ret).replaceAll("\\$");
+            ret = ESCAPED_OPEN_PAREN_PATTERN.matcher(ret).replaceAll("(");
+            ret = ESCAPED_CLOSE_PAREN_PATTERN.matcher(ret).replaceAll(")");
+            ret = ESCAPED_OPEN_BRACKET_PATTERN.matcher(ret).replaceAll("[");
+            ret = ESCAPED_CLOSE_BRACKET_PATTERN.matcher(ret).replaceAll("]");
 
             // Remove other special characters
-            ret = ret.replaceAll("%22|%23|%25|%27|%2[Cc]|%3[Bb]|%3[Ff]|%3A|%7[Cc]", "");
+            ret = ESCAPED_SPECIAL_PATTERN.matcher(ret).replaceAll("");
 
             // Remove escape sequences
-            ret = ret.replaceAll("%[Ee]2%80%[0-9a-fA-F]{2}", ""); // %E2%80%xx
-            ret = ret.replaceAll("%F0%9F%[0-9a-fA-F]{2}%[0-9a-fA-F]{2}", ""); // %F0%9F%xx%xx - emojis
-            ret = ret.replaceAll("%C2%AE", ""); //®
+            ret = ESCAPED_PUNCTUATION_PATTERN.matcher(ret).replaceAll(""); // %E2%80%xx
+            ret = ESCAPED_EMOJI_PATTERN.matcher(ret).replaceAll(""); // %F0%9F%xx%xx - emojis
+            ret = ESCAPED_REGISTERED_PATTERN.matcher(ret).replaceAll(""); //®
 
             // Remove "combining" accent characters
-            ret = ret.replaceAll("[\\u0300-\\u036F]", "");
-            ret = ret.replaceAll("%[CcEe][CcDd23]%[89AaBb][0-9A-Fa-f]", "");
+            ret = COMBINING_ACCENT_PATTERN.matcher(ret).replaceAll("");
+            ret = ESCAPED_COMBINING_ACCENT_PATTERN.matcher(ret).replaceAll("");
 
             // Remove "cyrillic" characters
-            ret = ret.replaceAll("[\\u0400-\\u0467]", "");
-            ret = ret.replaceAll("%[Dd][01]%[89AaBb][0-9A-Fa-f]", "");
+            ret = CYRILLIC_PATTERN.matcher(ret).replaceAll("");
+            ret = ESCAPED_CYRILLIC_PATTERN.matcher(ret).replaceAll("");
 
             // Remove quotes, dashes etc
-            ret = ret.replaceAll("'|‘|’|‚|‛|“|”|„|′|″|®|™", "");
-            ret = ret.replaceAll("‐|‑|‒|–|—|―|‖|‗|‾	", "-");
-            ret = ret.replaceAll("…", "-");
-            ret = ret.replaceAll("-+", "-");
+            ret = QUOTES_PATTERN.matcher(ret).replaceAll("");
+            ret = DASHES_PATTERN.matcher(ret).replaceAll("-");
+            ret = ELLIPSIS_PATTERN.matcher(ret).replaceAll("-");
+            ret = MULTIPLE_DASHES_PATTERN.matcher(ret).replaceAll("-");
 
             // Remove illegal characters
-            ret = ret.replaceAll("\\*", "");
+            ret = STAR_PATTERN.matcher(ret).replaceAll("");
 
             // Remove image sizes
-            ret = ret.replaceAll("[-_\\.]\\d{2,4}x\\d{2,4}", "");
+            ret = IMAGE_SIZE_PATTERN.matcher(ret).replaceAll("");
 
             // Remove @?x multipler
-            ret = ret.replaceAll("@\\dx", "");
-            ret = ret.replaceAll("%40\\dx", "");
+            ret = MULTIPLIER_PATTERN.matcher(ret).replaceAll("");
+            ret = ESCAPED_MULTIPLIER_PATTERN.matcher(ret).replaceAll("");
 
             // Remove ?00x multipler
-            ret = ret.replaceAll("-\\d00x", "");
+            ret = HUNDREDS_MULTIPLIER_PATTERN.matcher(ret).replaceAll("");
 
             // Remove 2D00
-            ret = ret.replaceAll("_2[dD]00_", "_");
+            ret = ESCAPED_2D00_PATTERN.matcher(ret).replaceAll("_");
 
             // Remove #protocol after extension
-            ret = ret.replaceAll("(.+)\\.(\\w+)#(.+)", "$1\\.$2");
+            ret = EXTENSION_PROTOCOL_PATTERN.matcher(ret).replaceAll("$1\\.$2");
 
             // Remove query parameters
-            ret = ret.replaceAll("(.*)\\?(.*)", "$1");
+            ret = QUERY_PATTERN.matcher(ret).replaceAll("$1");
 
             // Remove any other file extensions included in the filename
             //   as drupal rejects these as a security issue
             if(ret.lastIndexOf(".") != -1)
             {
-                ret = ret.replaceAll("(.+)\\.(?:phar|php|pl|py|cgi|asp|js)(\\..+)", "$1$2");
+                ret = EXTRA_EXTENSION_PATTERN.matcher(ret).replaceAll("$1$2");
             }
         }
 
@@ -204,7 +239,7 @@ public class FormatUtils
         if(url != null)
         {
             // Replace any special characters in the URL
-            url = url.replaceAll(" ", "%20");
+            url = url.replace(" ", "%20");
 
             // Remove any leading "../" from the URL
             if(url.startsWith("../"))
@@ -212,7 +247,7 @@ public class FormatUtils
 
             // Remove query parameters
             if(removeParameters)
-                url = url.replaceAll("(.*)[\\?#](.*)", "$1");
+                url = URL_PARAMETERS_PATTERN.matcher(url).replaceAll("$1");
 
             // Remove trailing slash to normalise URLs
             if(url.length() > 3 && url.endsWith("/"))
@@ -251,14 +286,14 @@ public class FormatUtils
             {
                 if(ret.startsWith("<p>"))
                 {
-                    ret = Pattern.compile("<p>(.*)</p>", Pattern.DOTALL).matcher(ret).replaceAll("$1").trim();
+                    ret = PARAGRAPH_PATTERN.matcher(ret).replaceAll("$1").trim();
                 }
 
                 if(ret.length() > 0)
                 {
-                    ret = ret.replaceAll("[\r\n]+", " "); // remove LFs
-                    ret = ret.replaceAll("[ ]+", " "); // coallesce spaces
-                    ret = ret.replaceAll("(.+):$", "$1"); // remove trailing colon
+                    ret = LINEFEEDS_PATTERN.matcher(ret).replaceAll(" "); // remove LFs
+                    ret = MULTIPLE_SPACES_PATTERN.matcher(ret).replaceAll(" "); // coallesce spaces
+                    ret = TRAILING_COLON_PATTERN.matcher(ret).replaceAll("$1"); // remove trailing colon
 
                     char last = ret.charAt(ret.length()-1);
                     if(Character.isLetterOrDigit(last) // ends in letter or digit
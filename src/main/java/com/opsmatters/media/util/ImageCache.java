@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of the format and dimensions of images, keyed by url and content hash.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ImageCache
+{
+    public static final int MAX_SIZE = 2048;
+
+    private static Map<String,ImageInfo> urls = new ConcurrentHashMap<String,ImageInfo>();
+    private static Map<String,ImageInfo> hashes = new ConcurrentHashMap<String,ImageInfo>();
+
+    /**
+     * Private constructor as this class shouldn't be instantiated.
+     */
+    private ImageCache()
+    {
+    }
+
+    /**
+     * Returns the image with the given url.
+     */
+    public static ImageInfo get(String url)
+    {
+        return urls.get(url);
+    }
+
+    /**
+     * Returns the image with the given content hash.
+     */
+    public static ImageInfo getByHash(String hash)
+    {
+        return hashes.get(hash);
+    }
+
+    /**
+     * Adds the given image to the cache.
+     * <p>
+     * The images are cleared if the cache has reached its maximum size.
+     */
+    public static void put(ImageInfo info)
+    {
+        if(urls.size() >= MAX_SIZE)
+            clear();
+        urls.put(info.getUrl(), info);
+        if(info.hasHash())
+            hashes.putIfAbsent(info.getHash(), info);
+    }
+
+    /**
+     * Returns the number of cached images.
+     */
+    public static int size()
+    {
+        return urls.size();
+    }
+
+    /**
+     * Clears the cached images.
+     */
+    public static void clear()
+    {
+        urls.clear();
+        hashes.clear();
+    }
+}
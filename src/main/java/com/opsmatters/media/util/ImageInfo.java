@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.awt.Dimension;
+
+/**
+ * Class representing the format and dimensions of an image.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ImageInfo
+{
+    private String url;
+    private String format;
+    private int width = -1;
+    private int height = -1;
+    private String hash;
+
+    /**
+     * Constructor that takes the url, format and dimensions of the image.
+     */
+    public ImageInfo(String url, String format, int width, int height)
+    {
+        this.url = url;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the url of the image.
+     */
+    public String getUrl()
+    {
+        return url;
+    }
+
+    /**
+     * Returns the format name of the image.
+     */
+    public String getFormat()
+    {
+        return format;
+    }
+
+    /**
+     * Returns the width of the image (in pixels).
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Returns the height of the image (in pixels).
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Returns the dimensions of the image.
+     */
+    public Dimension getDimension()
+    {
+        return new Dimension(width, height);
+    }
+
+    /**
+     * Returns the MD5 hash of the image content, or <CODE>null</CODE> if the image was only probed.
+     */
+    public String getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Sets the MD5 hash of the image content.
+     */
+    public void setHash(String hash)
+    {
+        this.hash = hash;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the MD5 hash of the image content has been set.
+     */
+    public boolean hasHash()
+    {
+        return hash != null && hash.length() > 0;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("ImageInfo[url=%s format=%s width=%d height=%d hash=%s]",
+            url, format, width, height, hash);
+    }
+}
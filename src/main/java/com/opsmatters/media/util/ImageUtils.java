@@ -24,6 +24,13 @@ import java.io.FileNotFoundException;
 import java.net.URL;
 import java.net.HttpURLConnection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 import java.awt.Color;
 import java.awt.Image;
@@ -42,6 +49,7 @@ import javax.imageio.ImageTypeSpecifier;
 import javax.imageio.IIOException;
 import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.metadata.IIOMetadataNode;
 import org.w3c.dom.NodeList;
@@ -287,13 +295,248 @@ public class ImageUtils
 
     /**
      * Returns the dimensions of the image at the given URL.
+     * <p>
+     * The dimensions are read from the image header rather than decoding the whole image where possible.
      */
     static public Dimension getImageDimension(URL url) throws IOException
     {
-        Dimension ret = null;
-        BufferedImage image = getImage(url);
-        if(image != null)
-            ret = new Dimension(image.getWidth(), image.getHeight());
+        ImageInfo info = getImageInfo(url);
+        return info != null ? info.getDimension() : null;
+    }
+
+    /**
+     * Returns the format and dimensions of the image at the given URL, using the cache if possible.
+     */
+    static public ImageInfo getImageInfo(URL url) throws IOException
+    {
+        ImageInfo ret = ImageCache.get(url.toString());
+        if(ret == null)
+        {
+            ret = probeImage(url);
+            if(ret != null)
+                ImageCache.put(ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the format and dimensions of the image at the given URL.
+     * <p>
+     * Only the bytes up to the end of the image header are read,
+     *  unless there is no reader for the image format in which case the whole image is decoded.
+     */
+    static public ImageInfo probeImage(URL url) throws IOException
+    {
+        HttpURLConnection conn = null;
+        ImageInfo ret = null;
+        InputStream stream = null;
+        ImageInputStream input = null;
+
+        try
+        {
+            conn = (HttpURLConnection)url.openConnection();
+            conn.setRequestProperty(USER_AGENT, DEFAULT_USER_AGENT);
+            conn.setReadTimeout(DEFAULT_READ_TIMEOUT);
+            conn.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT);
+            TrustAnyTrustManager.setTrustManager(conn);
+
+            stream = conn.getInputStream();
+            input = new MemoryCacheImageInputStream(stream);
+            ret = probeImage(url.toString(), input);
+        }
+        catch(IOException e)
+        {
+            try
+            {
+                if(conn != null && conn.getErrorStream() != null)
+                    conn.getErrorStream().close();
+            }
+            catch(IOException ex)
+            {
+            }
+
+            throw e;
+        }
+        finally
+        {
+            if(input != null)
+                input.close();
+            if(stream != null)
+                stream.close();
+
+            // Disconnect so that the rest of the image isn't downloaded,
+            //  as the connection can't be reused without reading the image to the end
+            if(conn != null)
+                conn.disconnect();
+        }
+
+        // Otherwise decode the whole image
+        if(ret == null)
+        {
+            BufferedImage image = getImage(url);
+            if(image != null)
+                ret = new ImageInfo(url.toString(), null, image.getWidth(), image.getHeight());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the format and dimensions of the image in the given file.
+     * <p>
+     * Only the image header is read, unless there is no reader for the image format
+     *  in which case the whole image is decoded.
+     */
+    static public ImageInfo probeImage(String url, File file) throws IOException
+    {
+        ImageInfo ret = null;
+        ImageInputStream input = ImageIO.createImageInputStream(file);
+        if(input == null)
+            throw new IllegalArgumentException("Image stream null");
+
+        try
+        {
+            ret = probeImage(url, input);
+        }
+        finally
+        {
+            input.close();
+        }
+
+        // Otherwise decode the whole image
+        if(ret == null)
+        {
+            BufferedImage image = getImage(file);
+            if(image != null)
+                ret = new ImageInfo(url, null, image.getWidth(), image.getHeight());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the format and dimensions of the image from the header in the given stream.
+     * <p>
+     * Returns <CODE>null</CODE> if there is no reader for the image format or the header cannot be read.
+     */
+    static private ImageInfo probeImage(String url, ImageInputStream input)
+    {
+        ImageInfo ret = null;
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if(readers.hasNext())
+        {
+            ImageReader reader = readers.next();
+
+            try
+            {
+                reader.setInput(input, true, true);
+                ret = new ImageInfo(url, reader.getFormatName(), reader.getWidth(0), reader.getHeight(0));
+            }
+            catch(IOException | RuntimeException e)
+            {
+                logger.fine("Unable to read image header: url="+url+": "+e.getMessage());
+            }
+            finally
+            {
+                reader.dispose();
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Downloads the image at the given URL to the given file and returns its format and dimensions.
+     * <p>
+     * If an image with the same content has already been seen, its dimensions are used
+     *  instead of reading the file.
+     */
+    static public ImageInfo downloadImage(URL url, File file) throws IOException
+    {
+        FileUtils.downloadFile(url, file, null);
+
+        ImageInfo ret = null;
+        String hash = FileUtils.getMD5(file);
+        ImageInfo cached = hash != null ? ImageCache.getByHash(hash) : null;
+        if(cached != null)
+            ret = new ImageInfo(url.toString(), cached.getFormat(), cached.getWidth(), cached.getHeight());
+        else
+            ret = probeImage(url.toString(), file);
+
+        if(ret != null)
+        {
+            ret.setHash(hash);
+            ImageCache.put(ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Probes the images at the given URLs concurrently and returns their formats and dimensions, keyed by url.
+     * <p>
+     * Duplicate URLs are only probed once, and URLs in the cache are not probed again.
+     *  No more than the given number of images are probed at the same time.
+     *  Images that cannot be probed are left out of the results.
+     */
+    static public Map<String,ImageInfo> prefetchImages(TaskExecutor executor, Collection<String> urls, int parallelism)
+        throws InterruptedException
+    {
+        if(parallelism <= 0)
+            throw new IllegalArgumentException("Parallelism must be greater than zero: "+parallelism);
+
+        Map<String,ImageInfo> ret = new LinkedHashMap<String,ImageInfo>();
+        List<String> pending = new ArrayList<String>();
+        for(String url : new LinkedHashSet<String>(urls))
+        {
+            if(url == null || url.length() == 0)
+                continue;
+
+            ImageInfo info = ImageCache.get(url);
+            if(info != null)
+                ret.put(url, info);
+            else
+                pending.add(url);
+        }
+
+        for(int i = 0; i < pending.size(); i += parallelism)
+        {
+            TaskScope<ImageInfo> scope = executor.newScope();
+
+            try
+            {
+                for(final String url : pending.subList(i, Math.min(i+parallelism, pending.size())))
+                {
+                    scope.fork(new Callable<ImageInfo>()
+                    {
+                        public ImageInfo call() throws IOException
+                        {
+                            try
+                            {
+                                return getImageInfo(new URL(url));
+                            }
+                            catch(IOException e)
+                            {
+                                logger.warning("Unable to probe image: url="+url+": "+e.getMessage());
+                                throw e;
+                            }
+                        }
+                    });
+                }
+
+                for(ImageInfo info : scope.joinSuccessful())
+                {
+                    if(info != null)
+                        ret.put(info.getUrl(), info);
+                }
+            }
+            finally
+            {
+                scope.close();
+            }
+        }
+
         return ret;
     }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded cache of compiled regular expressions for expressions that are only known at runtime.
+ * <p>
+ * Constant expressions should be compiled once into static patterns instead.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PatternCache
+{
+    public static final int MAX_SIZE = 512;
+
+    // The patterns for each set of flags, keyed by expression
+    private static Map<Integer,Map<String,Pattern>> patterns = new ConcurrentHashMap<Integer,Map<String,Pattern>>();
+
+    /**
+     * Private constructor as this class shouldn't be instantiated.
+     */
+    private PatternCache()
+    {
+    }
+
+    /**
+     * Returns the compiled pattern for the given expression.
+     * @param expr The regular expression
+     * @return The compiled pattern
+     */
+    public static Pattern get(String expr)
+    {
+        return get(expr, 0);
+    }
+
+    /**
+     * Returns the compiled pattern for the given expression and flags.
+     * <p>
+     * The patterns for the flags are cleared if the cache has reached its maximum size.
+     * @param expr The regular expression
+     * @param flags The match flags
+     * @return The compiled pattern
+     */
+    public static Pattern get(String expr, int flags)
+    {
+        Map<String,Pattern> map = patterns.get(flags);
+        if(map == null)
+        {
+            patterns.putIfAbsent(flags, new ConcurrentHashMap<String,Pattern>());
+            map = patterns.get(flags);
+        }
+
+        Pattern ret = map.get(expr);
+        if(ret == null)
+        {
+            ret = Pattern.compile(expr, flags);
+            if(map.size() >= MAX_SIZE)
+                map.clear();
+            map.put(expr, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the given string with each match of the given expression replaced.
+     * @param str The string to be searched
+     * @param expr The regular expression
+     * @param replacement The replacement string
+     * @return The string with the matches replaced
+     */
+    public static String replaceAll(String str, String expr, String replacement)
+    {
+        return get(expr).matcher(str).replaceAll(replacement);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given string matches the given expression.
+     * @param str The string to be matched
+     * @param expr The regular expression
+     * @return <CODE>true</CODE> if the given string matches the given expression
+     */
+    public static boolean matches(String str, String expr)
+    {
+        return get(expr).matcher(str).matches();
+    }
+
+    /**
+     * Returns the number of cached patterns.
+     */
+    public static int size()
+    {
+        int ret = 0;
+        for(Map<String,Pattern> map : patterns.values())
+            ret += map.size();
+        return ret;
+    }
+
+    /**
+     * Clears the cached patterns.
+     */
+    public static void clear()
+    {
+        patterns.clear();
+    }
+}
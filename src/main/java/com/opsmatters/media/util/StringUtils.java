@@ -28,6 +28,7 @@ import java.util.logging.Logger;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 import com.opsmatters.media.model.StringMatch;
@@ -79,6 +80,19 @@ public class StringUtils
     private static final String SENTENCE_REGEX = "(.+[.!?:]) .+";
     private static final Pattern sentencePattern = Pattern.compile(SENTENCE_REGEX);
 
+    private static final Pattern LINEFEED_PATTERN = Pattern.compile("\r|\n");
+
+    // Reused buffer for conversions, not kept if it grows larger than the maximum
+    private static final int MAX_BUFFER = 65536;
+    private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder(256);
+        }
+    };
+
     /**
      * The default depth for stack traces.
      */
@@ -179,8 +193,7 @@ public class StringUtils
      */
     public static boolean getMatchResult(String str, String expr)
     {
-        Pattern pattern = Pattern.compile(expr, Pattern.DOTALL);
-        return pattern.matcher(str).matches();
+        return PatternCache.get(expr, Pattern.DOTALL).matcher(str).matches();
     }
 
     /**
@@ -345,8 +358,7 @@ public class StringUtils
     public static int getOccurrenceCount(String expr, String str)
     {
         int ret = 0;
-        Pattern p = Pattern.compile(expr);
-        Matcher m = p.matcher(str);
+        Matcher m = PatternCache.get(expr).matcher(str);
         while(m.find()) 
             ++ret;
         return ret;
@@ -361,12 +373,11 @@ public class StringUtils
      */
     public static Matcher getWildcardMatcher(String str, String expr, boolean whole)
     {
-        expr = expr.replaceAll("\\?",".?");
-        expr = expr.replaceAll("\\*",".*?");
+        expr = expr.replace("?", ".?");
+        expr = expr.replace("*", ".*?");
         if(whole)
             expr = "^"+expr+"$";
-        Pattern pattern = Pattern.compile(expr/*, Pattern.DOTALL*/);
-        return pattern.matcher(str);
+        return PatternCache.get(expr/*, Pattern.DOTALL*/).matcher(str);
     }
 
     /**
@@ -440,7 +451,7 @@ public class StringUtils
             && str.indexOf("\n") != -1 
             && str.indexOf("\r") == -1)
         {
-            str.replaceAll("\n", "\r\n");
+            str.replace("\n", "\r\n");
         }
 
         return ret;
@@ -559,6 +570,8 @@ public class StringUtils
 
     /**
      * Returns the given string with all non-ASCII characters replaced by their HTML escape sequences.
+     * <p>
+     * The string is returned unchanged if none of the characters need to be replaced.
      * @param s The string to have all non-ASCII characters replaced
      * @param isHtml <CODE>true</CODE> if the string contains HTML markup
      * @param diacritics <CODE>true</CODE> if Extended  Diacritics (256-383) should be included
@@ -566,29 +579,46 @@ public class StringUtils
      */
     public static String convertToAscii(String s, boolean isHtml, boolean diacritics)
     {
-        StringBuffer buff = new StringBuffer();
-        for(int i = 0; i < s.length(); i++)
+        int len = s.length();
+
+        // Find the first character that needs to be changed
+        int i = 0;
+        while(i < len && !needsConversion(s, i, isHtml, diacritics))
+            ++i;
+        if(i == len)
+            return s;
+
+        StringBuilder buff = getBuffer(len);
+        buff.append(s, 0, i);
+        int run = -1; // start of the current run of unchanged characters
+        for(; i < len; i++)
         {
+            if(!needsConversion(s, i, isHtml, diacritics))
+            {
+                if(run == -1)
+                    run = i;
+                continue;
+            }
+
+            if(run != -1)
+            {
+                buff.append(s, run, i);
+                run = -1;
+            }
+
             int c = (int)s.charAt(i);
-            if((c >= 32 && c < 127) // basic ASCII
-                || c == 9           // Tab
-                || c == 10)         // LF
+            if(c == 38) // ampersand followed by space
             {
-                if(isHtml && c == 38 // ampersand followed by space
-                    && ((i == s.length()-1) || (int)s.charAt(i+1) == ' '))
-                {
-                    buff.append("&amp;");
-                }
-                else
-                {
-                    buff.append((char)c);
-                }
+                buff.append("&amp;");
             }
             else if(c >= 128)
             {
                 if(isHtml)
                 {
-                    buff.append(String.format("&#%04d;", c));
+                    buff.append("&#");
+                    if(c < 1000)
+                        buff.append('0');
+                    buff.append(c).append(';');
                 }
                 else // Not HTML
                 {
@@ -602,17 +632,58 @@ public class StringUtils
                         buff.append("...");
                     else if(c == 8364)         // Replace Euro
                         buff.append("€");
-                    else if(c <= 255)          // ISO Latin 1 (128-255)
-                        buff.append((char)c);
                     else if(c <= 383)          // ISO Latin 1 Extended  Diacritics (256-383)
-                        buff.append(!diacritics ? '?' : (char)c);
+                        buff.append('?');
                 }
             }
         }
 
+        if(run != -1)
+            buff.append(s, run, len);
+
         return buff.toString();
     }
 
+    /**
+     * Returns <CODE>true</CODE> if the character at the given index needs to be converted to ASCII.
+     */
+    private static boolean needsConversion(String s, int i, boolean isHtml, boolean diacritics)
+    {
+        int c = (int)s.charAt(i);
+        if((c >= 32 && c < 127) // basic ASCII
+            || c == 9           // Tab
+            || c == 10)         // LF
+        {
+            return isHtml && c == 38 // ampersand followed by space
+                && ((i == s.length()-1) || (int)s.charAt(i+1) == ' ');
+        }
+        else if(c >= 128 && !isHtml)
+        {
+            // ISO Latin 1 (128-255) and Extended Diacritics (256-383) are kept
+            return c > 383 || (c > 255 && !diacritics);
+        }
+
+        return true; // escaped or removed
+    }
+
+    /**
+     * Returns the buffer for the current thread, cleared and with at least the given capacity.
+     */
+    private static StringBuilder getBuffer(int capacity)
+    {
+        StringBuilder ret = buffer.get();
+        if(ret.capacity() > MAX_BUFFER)
+        {
+            // Don't hold on to large buffers
+            ret = new StringBuilder(capacity+16);
+            buffer.set(ret);
+        }
+
+        ret.setLength(0);
+        ret.ensureCapacity(capacity+16);
+        return ret;
+    }
+
     /**
      * Returns the given string with all non-ASCII characters replaced by their HTML escape sequences.
      * @param s The string to have all non-ASCII characters replaced
@@ -780,24 +851,51 @@ public class StringUtils
      */
     public static String stripNonValidXMLCharacters(String in)
     {
-        StringBuffer out = new StringBuffer(); // Used to hold the output.
-        char current; // Used to reference the current character.
-
         if(in == null || ("".equals(in))) return ""; // vacancy test.
-        for(int i = 0; i < in.length(); i++)
+
+        // Return the string unchanged if all the characters are valid
+        int len = in.length();
+        int i = 0;
+        while(i < len && isValidXMLCharacter(in.charAt(i)))
+            ++i;
+        if(i == len)
+            return in;
+
+        StringBuilder out = getBuffer(len); // Used to hold the output.
+        out.append(in, 0, i);
+        int run = -1; // start of the current run of valid characters
+        for(; i < len; i++)
         {
-            current = in.charAt(i); // NOTE: No IndexOutOfBoundsException caught here; it should not happen.
-            if ((current == 0x9)
-                || (current == 0xA)
-                || (current == 0xD)
-                || ((current >= 0x20) && (current <= 0xD7FF))
-                || ((current >= 0xE000) && (current <= 0xFFFD))
-                || ((current >= 0x10000) && (current <= 0x10FFFF)))
-                out.append(current);
+            if(isValidXMLCharacter(in.charAt(i)))
+            {
+                if(run == -1)
+                    run = i;
+            }
+            else if(run != -1)
+            {
+                out.append(in, run, i);
+                run = -1;
+            }
         }
+
+        if(run != -1)
+            out.append(in, run, len);
+
         return out.toString();
     }
 
+    /**
+     * Returns <CODE>true</CODE> if the given character is a valid XML character.
+     */
+    private static boolean isValidXMLCharacter(char current)
+    {
+        return (current == 0x9)
+            || (current == 0xA)
+            || (current == 0xD)
+            || ((current >= 0x20) && (current <= 0xD7FF))
+            || ((current >= 0xE000) && (current <= 0xFFFD));
+    }
+
     /**
      * Returns the given error message with special characters removed or replaced.
      */
@@ -806,8 +904,8 @@ public class StringUtils
         String ret = str;
         if(ret != null)
         {
-            ret = ret.replaceAll("\r|\n", ""); // Remove LFs
-            ret = ret.replaceAll("\\\\", ""); // Replace backslashes
+            ret = LINEFEED_PATTERN.matcher(ret).replaceAll(""); // Remove LFs
+            ret = ret.replace("\\", ""); // Replace backslashes
 
             ret = getMessageWithout(ret, SESSION_INFO);
             ret = getMessageWithout(ret, BUILD_INFO);
@@ -924,6 +1022,14 @@ public class StringUtils
         return uuid.toString();
     }
 
+    /**
+     * Returns the SHA-256 digest of the given string as a hex string.
+     */
+    public static String getDigest(String str)
+    {
+        return str != null ? DigestUtils.sha256Hex(str) : "";
+    }
+
     /**
      * Returns a list from the given string using the given delimiter.
      */
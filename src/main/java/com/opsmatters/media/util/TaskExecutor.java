@@ -0,0 +1,426 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Class that executes blocking I/O tasks such as crawls and API calls.
+ * <p>
+ * Tasks run on virtual threads when the runtime supports them (Java 21+),
+ * otherwise on a fixed pool of platform threads.
+ * Each task is cancelled if it runs for longer than its timeout.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class TaskExecutor
+{
+    private static final Logger logger = Logger.getLogger(TaskExecutor.class.getName());
+
+    public static final int DEFAULT_PARALLELISM = 16;
+    public static final int DEFAULT_VIRTUAL_PARALLELISM = 1000;
+    public static final long DEFAULT_TIMEOUT = 60000L; // 1 min
+
+    private static TaskExecutor _default;
+    private static ScheduledThreadPoolExecutor watchdog;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private boolean virtual = false;
+    private int parallelism = 0;
+    private long timeout = DEFAULT_TIMEOUT;
+
+    static
+    {
+        // Single daemon thread that cancels tasks that have exceeded their timeout
+        watchdog = new ScheduledThreadPoolExecutor(1, newThreadFactory("task-watchdog"));
+        watchdog.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Constructor that takes the parallelism, the task timeout and whether to use virtual threads.
+     */
+    public TaskExecutor(int parallelism, long timeout, boolean useVirtual)
+    {
+        if(parallelism <= 0)
+            throw new IllegalArgumentException("Parallelism must be greater than zero: "+parallelism);
+
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+
+        if(useVirtual)
+            executor = newVirtualThreadExecutor();
+
+        if(executor != null)
+        {
+            // Virtual threads are unbounded, so limit the concurrent tasks
+            virtual = true;
+            permits = new Semaphore(parallelism);
+        }
+        else
+        {
+            executor = Executors.newFixedThreadPool(parallelism, newThreadFactory("task-executor"));
+        }
+
+        logger.info(String.format("Created task executor: virtual=%b parallelism=%d timeout=%d",
+            virtual, parallelism, timeout));
+    }
+
+    /**
+     * Constructor that takes the parallelism.
+     */
+    public TaskExecutor(int parallelism)
+    {
+        this(parallelism, DEFAULT_TIMEOUT, true);
+    }
+
+    /**
+     * Returns the shared executor, creating it if necessary.
+     */
+    public static synchronized TaskExecutor getDefault()
+    {
+        if(_default == null)
+        {
+            boolean virtual = supportsVirtualThreads();
+            _default = new TaskExecutor(virtual ? DEFAULT_VIRTUAL_PARALLELISM : DEFAULT_PARALLELISM,
+                DEFAULT_TIMEOUT, virtual);
+        }
+
+        return _default;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the runtime supports virtual threads.
+     */
+    public static boolean supportsVirtualThreads()
+    {
+        try
+        {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        }
+        catch(NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a new virtual thread per task executor, or <CODE>null</CODE> if not supported.
+     * <p>
+     * Uses reflection as the project is compiled for a release without virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor()
+    {
+        ExecutorService ret = null;
+
+        try
+        {
+            ret = (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(NoSuchMethodException e)
+        {
+            logger.info("Virtual threads not available, using platform threads");
+        }
+        catch(ReflectiveOperationException | RuntimeException e)
+        {
+            logger.warning("Unable to create virtual thread executor: "+e.getMessage());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns a factory that creates daemon threads with the given name prefix.
+     */
+    private static ThreadFactory newThreadFactory(final String prefix)
+    {
+        final AtomicInteger count = new AtomicInteger();
+        return new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread ret = new Thread(r, prefix+"-"+count.incrementAndGet());
+                ret.setDaemon(true);
+                return ret;
+            }
+        };
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the tasks are run on virtual threads.
+     */
+    public boolean isVirtual()
+    {
+        return virtual;
+    }
+
+    /**
+     * Returns the maximum number of tasks that can run concurrently.
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Returns the default task timeout (in milliseconds).
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Sets the default task timeout (in milliseconds).
+     * <p>
+     * A timeout of zero means no timeout.
+     */
+    public void setTimeout(long timeout)
+    {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Submits the given task using the given timeout (in milliseconds).
+     * <p>
+     * The timeout starts when the task starts running rather than when it was submitted.
+     */
+    public <T> Future<T> submit(Callable<T> task, long timeout)
+    {
+        TimedTask<T> ret = new TimedTask<T>(task, timeout);
+        executor.execute(ret);
+        return ret;
+    }
+
+    /**
+     * Submits the given task using the default timeout.
+     */
+    public <T> Future<T> submit(Callable<T> task)
+    {
+        return submit(task, timeout);
+    }
+
+    /**
+     * Executes the given task and waits for the result.
+     * <p>
+     * The task is cancelled if it exceeds the timeout or the calling thread is interrupted.
+     */
+    public <T> T call(Callable<T> task, long timeout)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        TaskScope<T> scope = newScope(timeout);
+
+        try
+        {
+            scope.fork(task);
+            return scope.join().get(0);
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    /**
+     * Executes the given task using the default timeout and waits for the result.
+     */
+    public <T> T call(Callable<T> task)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        return call(task, timeout);
+    }
+
+    /**
+     * Executes the given tasks concurrently and returns the results in the same order.
+     * <p>
+     * If any task fails or times out, the remaining tasks are cancelled.
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        TaskScope<T> scope = newScope(timeout);
+
+        try
+        {
+            for(Callable<T> task : tasks)
+                scope.fork(task);
+            return scope.join();
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    /**
+     * Returns a new scope for a group of tasks using the given timeout.
+     */
+    public <T> TaskScope<T> newScope(long timeout)
+    {
+        return new TaskScope<T>(this, timeout);
+    }
+
+    /**
+     * Returns a new scope for a group of tasks using the default timeout.
+     */
+    public <T> TaskScope<T> newScope()
+    {
+        return newScope(timeout);
+    }
+
+    /**
+     * Shuts down the executor and cancels any running tasks.
+     */
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the executor has been shut down.
+     */
+    public boolean isClosed()
+    {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Class that represents a task that is cancelled when it exceeds its timeout.
+     */
+    class TimedTask<T> extends FutureTask<T>
+    {
+        private long timeout;
+        private volatile boolean started = false;
+        private volatile boolean expired = false;
+
+        TimedTask(Callable<T> task, long timeout)
+        {
+            super(task);
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run()
+        {
+            if(isDone())
+                return;
+
+            if(permits != null)
+            {
+                try
+                {
+                    permits.acquire();
+                }
+                catch(InterruptedException e)
+                {
+                    cancel(false);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            ScheduledFuture<?> timer = null;
+
+            try
+            {
+                // Cancelled while waiting for a permit
+                if(isDone())
+                    return;
+
+                started = true;
+                if(timeout > 0L)
+                {
+                    timer = watchdog.schedule(new Runnable()
+                    {
+                        public void run()
+                        {
+                            expire();
+                        }
+                    }, timeout, TimeUnit.MILLISECONDS);
+                }
+                super.run();
+            }
+            finally
+            {
+                if(timer != null)
+                    timer.cancel(false);
+                if(permits != null)
+                    permits.release();
+            }
+        }
+
+        /**
+         * Cancels the task after the timeout has been exceeded.
+         */
+        private void expire()
+        {
+            if(!isDone())
+            {
+                expired = true;
+                cancel(true);
+            }
+        }
+
+        /**
+         * Cancels the task if it has not started running.
+         */
+        void cancelWaiting()
+        {
+            if(!started)
+                cancel(false);
+        }
+
+        /**
+         * Returns <CODE>true</CODE> if the task has started running.
+         */
+        boolean hasStarted()
+        {
+            return started;
+        }
+
+        /**
+         * Returns <CODE>true</CODE> if the task was cancelled because it exceeded its timeout.
+         */
+        boolean hasExpired()
+        {
+            return expired;
+        }
+
+        /**
+         * Returns the timeout of the task.
+         */
+        long getTimeout()
+        {
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing a group of tasks that are joined or cancelled together.
+ * <p>
+ * Closing the scope cancels any tasks that have not yet completed,
+ * so the tasks never outlive the code that forked them.
+ * <p>
+ * Each task is given its timeout from the time it starts running.
+ * Tasks that are still waiting to run are bounded separately by the start timeout,
+ * which by default allows for the tasks to be run in batches of the executor's parallelism.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class TaskScope<T> implements AutoCloseable
+{
+    private TaskExecutor executor;
+    private long timeout;
+    private long startTimeout = 0L;
+    private long created = System.currentTimeMillis();
+    private List<Future<T>> futures = new ArrayList<Future<T>>();
+    private boolean cancelled = false;
+
+    /**
+     * Constructor that takes an executor and a task timeout.
+     */
+    TaskScope(TaskExecutor executor, long timeout)
+    {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the timeout of each task (in milliseconds).
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Returns the time (in milliseconds) the tasks can wait to start, or zero if it scales with the tasks.
+     */
+    public long getStartTimeout()
+    {
+        return startTimeout;
+    }
+
+    /**
+     * Sets the time (in milliseconds) the tasks can wait to start, or zero if it scales with the tasks.
+     * <p>
+     * Tasks that have not started by then are cancelled.
+     */
+    public void setStartTimeout(long startTimeout)
+    {
+        this.startTimeout = startTimeout;
+    }
+
+    /**
+     * Starts the given task within this scope.
+     */
+    public synchronized Future<T> fork(Callable<T> task)
+    {
+        if(cancelled)
+            throw new IllegalStateException("Task scope has been cancelled");
+
+        Future<T> ret = executor.submit(task, timeout);
+        futures.add(ret);
+        return ret;
+    }
+
+    /**
+     * Returns the number of tasks forked within this scope.
+     */
+    public synchronized int size()
+    {
+        return futures.size();
+    }
+
+    /**
+     * Waits for all the tasks to complete and returns the results in the order the tasks were forked.
+     * <p>
+     * If a task fails, exceeds its timeout or doesn't start within the start timeout,
+     *  all the other tasks are cancelled and the error is thrown.
+     */
+    public List<T> join() throws InterruptedException, ExecutionException, TimeoutException
+    {
+        List<Future<T>> list;
+        synchronized(this)
+        {
+            list = new ArrayList<Future<T>>(futures);
+        }
+
+        long deadline = getDeadline(list.size());
+
+        List<T> ret = new ArrayList<T>(list.size());
+
+        try
+        {
+            for(Future<T> future : list)
+            {
+                try
+                {
+                    ret.add(get(future, deadline, list));
+                }
+                catch(CancellationException e)
+                {
+                    if(future instanceof TaskExecutor.TimedTask
+                        && ((TaskExecutor.TimedTask)future).hasExpired())
+                    {
+                        throw new TimeoutException(String.format("Task exceeded timeout of %dms",
+                            ((TaskExecutor.TimedTask)future).getTimeout()));
+                    }
+
+                    throw e;
+                }
+            }
+        }
+        catch(InterruptedException | ExecutionException | TimeoutException | RuntimeException e)
+        {
+            cancel();
+            throw e;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Waits for all the tasks to complete and returns the results of the successful tasks.
+     * <p>
+     * Failed or timed out tasks are skipped and do not cancel the other tasks.
+     * Any tasks that don't start within the start timeout are skipped and cancelled.
+     */
+    public List<T> joinSuccessful() throws InterruptedException
+    {
+        List<Future<T>> list;
+        synchronized(this)
+        {
+            list = new ArrayList<Future<T>>(futures);
+        }
+
+        long deadline = getDeadline(list.size());
+
+        List<T> ret = new ArrayList<T>(list.size());
+
+        try
+        {
+            for(Future<T> future : list)
+            {
+                try
+                {
+                    ret.add(get(future, deadline, list));
+                }
+                catch(ExecutionException | CancellationException e)
+                {
+                    // Skip the failed task
+                }
+                catch(TimeoutException e)
+                {
+                    // Skip the unfinished task
+                    future.cancel(true);
+                }
+            }
+        }
+        catch(InterruptedException e)
+        {
+            cancel();
+            throw e;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the time by which the given number of tasks should have started (in milliseconds),
+     *  or zero if there is no timeout.
+     * <p>
+     * Unless a start timeout has been set, the tasks are allowed one timeout for each batch
+     *  of tasks the executor can run at once, plus one for the tasks already running.
+     */
+    private long getDeadline(int count)
+    {
+        long ret = startTimeout;
+        if(ret == 0L && timeout > 0L)
+        {
+            int parallelism = executor.getParallelism();
+            ret = timeout*(((count+parallelism-1)/parallelism)+1);
+        }
+
+        return ret > 0L ? created+ret : 0L;
+    }
+
+    /**
+     * Waits for the given task to complete.
+     * <p>
+     * Once the deadline has passed, the tasks in the given list that have not started are cancelled,
+     *  and the tasks that have started are bounded by their own timeout.
+     */
+    private T get(Future<T> future, long deadline, List<Future<T>> list)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        if(deadline > 0L)
+        {
+            try
+            {
+                long remaining = deadline-System.currentTimeMillis();
+                return future.get(Math.max(remaining, 0L), TimeUnit.MILLISECONDS);
+            }
+            catch(TimeoutException e)
+            {
+                cancelWaiting(list);
+            }
+        }
+
+        if(future.isCancelled() && !hasStarted(future))
+            throw new TimeoutException(String.format("Task did not start within %dms", deadline-created));
+
+        return future.get();
+    }
+
+    /**
+     * Cancels the tasks in the given list that have not started running.
+     */
+    private void cancelWaiting(List<Future<T>> list)
+    {
+        for(Future<T> future : list)
+        {
+            if(future instanceof TaskExecutor.TimedTask)
+                ((TaskExecutor.TimedTask)future).cancelWaiting();
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given task has started running.
+     */
+    private boolean hasStarted(Future<T> future)
+    {
+        return !(future instanceof TaskExecutor.TimedTask) || ((TaskExecutor.TimedTask)future).hasStarted();
+    }
+
+    /**
+     * Cancels all the tasks that have not yet completed.
+     */
+    public synchronized void cancel()
+    {
+        cancelled = true;
+        for(Future<T> future : futures)
+        {
+            if(!future.isDone())
+                future.cancel(true);
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if this scope has been cancelled.
+     */
+    public synchronized boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Cancels any tasks that have not yet completed.
+     */
+    @Override
+    public void close()
+    {
+        cancel();
+    }
+}
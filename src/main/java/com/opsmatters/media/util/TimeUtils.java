@@ -24,6 +24,7 @@ import java.util.Locale;
 import java.util.Date;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.text.DecimalFormat;
 import java.text.ParsePosition;
 import java.time.Instant;
@@ -79,6 +80,20 @@ public class TimeUtils
      */
     private static final ConcurrentMap<Locale, int[]> localeData = new ConcurrentHashMap(3);
 
+    /**
+     * The cache of date formatters used for parsing, keyed by pattern.
+     */
+    private static final ConcurrentMap<String, DateTimeFormatter> parseFormatters = new ConcurrentHashMap<String, DateTimeFormatter>();
+
+    /**
+     * The cache of date formatters used for output, keyed by pattern.
+     */
+    private static final ConcurrentMap<String, DateTimeFormatter> formatters = new ConcurrentHashMap<String, DateTimeFormatter>();
+
+    private static final Pattern ORDINAL_PATTERN = Pattern.compile("(?<=\\d)( ?st| ?nd| ?rd| ?th)");
+    private static final Pattern SEPT_PATTERN = Pattern.compile("Sept( |\\.)");
+    private static final Pattern AMPM_PATTERN = Pattern.compile("([AaPp])\\.([Mm])\\.?");
+
     /**
      * The name of the BST time zone.
      */
@@ -564,7 +579,7 @@ public class TimeUtils
 
         if(dt != null && dt.toEpochMilli() > 0L)
         {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            DateTimeFormatter formatter = getOutputFormatter(pattern);
             ret = LocalDateTime.ofInstant(dt, ZoneOffset.UTC).format(formatter);
         }
 
@@ -580,7 +595,7 @@ public class TimeUtils
 
         if(dt != null && dt.toEpochMilli() > 0L)
         {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            DateTimeFormatter formatter = getOutputFormatter(pattern);
             ret = dt.atZone(ZoneId.of(timezone)).format(formatter);
         }
 
@@ -658,23 +673,56 @@ public class TimeUtils
      */
     private static DateTimeFormatter getFormatter(String pattern)
     {
-        DateTimeFormatter formatter = null;
+        DateTimeFormatter formatter = parseFormatters.get(pattern);
 
-        if(pattern.startsWith(Formats.ISO8601))
+        if(formatter == null)
         {
-            formatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+            if(pattern.startsWith(Formats.ISO8601))
+            {
+                formatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+            }
+            else
+            {
+                formatter = new DateTimeFormatterBuilder()
+                    .parseCaseInsensitive()
+                    .appendPattern(pattern)
+                    .toFormatter();
+            }
+
+            parseFormatters.put(pattern, formatter);
         }
-        else
+
+        return formatter;
+    }
+
+    /**
+     * Returns the formatter used to output dates with the given pattern.
+     */
+    private static DateTimeFormatter getOutputFormatter(String pattern)
+    {
+        DateTimeFormatter formatter = formatters.get(pattern);
+
+        if(formatter == null)
         {
-            formatter = new DateTimeFormatterBuilder()
-                .parseCaseInsensitive()
-                .appendPattern(pattern)
-                .toFormatter();
+            formatter = DateTimeFormatter.ofPattern(pattern);
+            formatters.put(pattern, formatter);
         }
 
         return formatter;
     }
 
+    /**
+     * Parses the start of the given preprocessed string using the given pattern.
+     * <p>
+     * Any text after the date is ignored, and the given position is left at the end of the date.
+     * Returns <CODE>null</CODE> instead of throwing an exception if the string does not parse.
+     */
+    static TemporalAccessor parse(String str, String pattern, ParsePosition pos)
+    {
+        Object ret = getFormatter(pattern).toFormat().parseObject(str, pos);
+        return pos.getErrorIndex() < 0 ? (TemporalAccessor)ret : null;
+    }
+
     /**
      * Returns the given time string in ISO format as millis.
      */
@@ -717,7 +765,7 @@ public class TimeUtils
      * @param s The date to be parsed
      * @return The given date string prepared for parsing
      */
-    static private String preprocessDateString(String s)
+    static String preprocessDateString(String s)
     {
         String ret = s;
 
@@ -726,10 +774,10 @@ public class TimeUtils
             ret = ret.trim();
 
             // Remove ordinal numbers as they can't be parsed
-            ret = ret.replaceAll("(?<=\\d)( ?st| ?nd| ?rd| ?th)", "");
+            ret = ORDINAL_PATTERN.matcher(ret).replaceAll("");
 
             // Replace "Sept" as it doesnt parse
-            ret = ret.replaceAll("Sept( |\\.)", "Sep$1");
+            ret = SEPT_PATTERN.matcher(ret).replaceAll("Sep$1");
         }
 
         return ret;
@@ -740,7 +788,7 @@ public class TimeUtils
      * @param s The time to be parsed
      * @return The given time string prepared for parsing
      */
-    static private String preprocessTimeString(String s)
+    static String preprocessTimeString(String s)
     {
         String ret = s;
 
@@ -749,7 +797,7 @@ public class TimeUtils
             ret = ret.trim();
 
             // Replace "a.m" as it doesnt parse
-            ret = ret.replaceAll("([AaPp])\\.([Mm])\\.?", "$1$2");
+            ret = AMPM_PATTERN.matcher(ret).replaceAll("$1$2");
         }
 
         return ret;
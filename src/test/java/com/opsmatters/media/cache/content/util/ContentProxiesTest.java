@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.cache.content.util;
+
+import java.util.List;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.junit.After;
+import com.opsmatters.media.model.content.util.ContentProxy;
+import com.opsmatters.media.model.content.util.ProxyStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the selection and status changes of the content proxies.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ContentProxiesTest
+{
+    private static int count = 0;
+
+    @After
+    public void tearDown()
+    {
+        ContentProxies.clear();
+        ContentProxies.getStatusChanges();
+    }
+
+    /**
+     * Returns a new active proxy with a unique id.
+     */
+    private ContentProxy newProxy()
+    {
+        ContentProxy ret = new ContentProxy();
+        ret.setId("proxy-test-"+(++count));
+        ret.setHost("10.0.0."+count);
+        ret.setStatus(ProxyStatus.ACTIVE);
+        return ret;
+    }
+
+    /**
+     * Records enough failures to make the given proxy unhealthy.
+     */
+    private void fail(ContentProxy proxy)
+    {
+        for(int i = 0; i < ProxyHealth.MIN_SAMPLES; i++)
+            ContentProxies.failure(proxy);
+    }
+
+    @Test
+    public void testStatusChanges()
+    {
+        ContentProxy proxy = newProxy();
+        List<ContentProxy> proxies = new ArrayList<ContentProxy>();
+        proxies.add(proxy);
+        ContentProxies.load(proxies);
+
+        fail(proxy);
+        assertTrue(proxy.isUnhealthy());
+
+        List<ContentProxy> changes = ContentProxies.getStatusChanges();
+        assertEquals(1, changes.size());
+        assertSame(proxy, changes.get(0));
+
+        // The changes are cleared once drained
+        assertEquals(0, ContentProxies.getStatusChanges().size());
+    }
+
+    @Test
+    public void testAddStatusChanges()
+    {
+        ContentProxy proxy = newProxy();
+        List<ContentProxy> proxies = new ArrayList<ContentProxy>();
+        proxies.add(proxy);
+        ContentProxies.load(proxies);
+
+        fail(proxy);
+        List<ContentProxy> changes = ContentProxies.getStatusChanges();
+
+        // The changes are kept for the next save after a failed save
+        ContentProxies.addStatusChanges(changes);
+        assertEquals(1, ContentProxies.getStatusChanges().size());
+        assertEquals(0, ContentProxies.getStatusChanges().size());
+    }
+
+    @Test
+    public void testDisabledProxyUnchanged()
+    {
+        ContentProxy proxy = newProxy();
+        proxy.setStatus(ProxyStatus.DISABLED);
+
+        fail(proxy);
+        assertEquals(ProxyStatus.DISABLED, proxy.getStatus());
+        assertEquals(0, ContentProxies.getStatusChanges().size());
+    }
+
+    @Test
+    public void testNextSkipsUnhealthy()
+    {
+        ContentProxy bad = newProxy();
+        ContentProxy good = newProxy();
+        List<ContentProxy> proxies = new ArrayList<ContentProxy>();
+        proxies.add(bad);
+        proxies.add(good);
+        ContentProxies.load(proxies);
+
+        fail(bad);
+        for(int i = 0; i < 4; i++)
+            assertSame(good, ContentProxies.next());
+        assertSame(good, ContentProxies.next("example.com"));
+    }
+
+    @Test
+    public void testNextBestScore()
+    {
+        ContentProxy worse = newProxy();
+        ContentProxy better = newProxy();
+        List<ContentProxy> proxies = new ArrayList<ContentProxy>();
+        proxies.add(worse);
+        proxies.add(better);
+        ContentProxies.load(proxies);
+
+        fail(worse);
+        ContentProxies.failure(worse);
+        fail(better);
+        assertFalse(ContentProxies.getHealth(better).isAvailable());
+
+        // No proxy is available, so the one with the lowest error rate is used
+        for(int i = 0; i < 4; i++)
+            assertSame(better, ContentProxies.next());
+    }
+}
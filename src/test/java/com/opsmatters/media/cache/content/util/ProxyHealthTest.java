@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.cache.content.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the moving averages and availability of a content proxy.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ProxyHealthTest
+{
+    private static final double DELTA = 0.0001d;
+
+    @Test
+    public void testLatencyAverage()
+    {
+        ProxyHealth health = new ProxyHealth();
+        health.success(100L);
+        assertEquals(20.0d, health.getLatency(), DELTA);
+        health.success(100L);
+        assertEquals(36.0d, health.getLatency(), DELTA);
+        health.success(1000L);
+        assertEquals(228.8d, health.getLatency(), DELTA);
+        assertEquals(0.0d, health.getErrorRate(), DELTA);
+        assertEquals(3, health.getSamples());
+    }
+
+    @Test
+    public void testErrorRateAverage()
+    {
+        ProxyHealth health = new ProxyHealth();
+        health.failure();
+        assertEquals(0.2d, health.getErrorRate(), DELTA);
+        health.failure();
+        assertEquals(0.36d, health.getErrorRate(), DELTA);
+        health.success(100L);
+        assertEquals(0.288d, health.getErrorRate(), DELTA);
+
+        // Failures don't change the latency
+        assertEquals(20.0d, health.getLatency(), DELTA);
+    }
+
+    @Test
+    public void testHealthyUntilMinSamples()
+    {
+        ProxyHealth health = new ProxyHealth();
+        for(int i = 0; i < ProxyHealth.MIN_SAMPLES-1; i++)
+            health.failure();
+        assertTrue(health.isHealthy());
+        assertTrue(health.isAvailable());
+
+        health.failure();
+        assertFalse(health.isHealthy());
+        assertFalse(health.isAvailable());
+    }
+
+    @Test
+    public void testUnhealthyLatency()
+    {
+        ProxyHealth health = new ProxyHealth();
+        for(int i = 0; i < ProxyHealth.MIN_SAMPLES; i++)
+            health.success(60000L);
+        assertTrue(health.getLatency() > ProxyHealth.MAX_LATENCY);
+        assertFalse(health.isHealthy());
+        assertFalse(health.isAvailable());
+    }
+
+    @Test
+    public void testRetryInterval()
+    {
+        ProxyHealth health = new ProxyHealth();
+        for(int i = 0; i < ProxyHealth.MIN_SAMPLES; i++)
+            health.failure();
+        long now = System.currentTimeMillis();
+        assertFalse(health.isAvailable(now));
+        assertFalse(health.isAvailable(now+ProxyHealth.RETRY_INTERVAL/2));
+        assertTrue(health.isAvailable(now+ProxyHealth.RETRY_INTERVAL+1000L));
+
+        // A retry that fails again restarts the interval
+        health.failure();
+        now = System.currentTimeMillis();
+        assertFalse(health.isAvailable(now+ProxyHealth.RETRY_INTERVAL/2));
+    }
+
+    @Test
+    public void testRecovery()
+    {
+        ProxyHealth health = new ProxyHealth();
+        for(int i = 0; i < ProxyHealth.MIN_SAMPLES; i++)
+            health.failure();
+        assertFalse(health.isAvailable());
+
+        while(!health.isHealthy())
+            health.success(100L);
+        assertTrue(health.getErrorRate() < ProxyHealth.MAX_ERROR_RATE);
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void testScore()
+    {
+        ProxyHealth fast = new ProxyHealth();
+        fast.success(100L);
+        ProxyHealth slow = new ProxyHealth();
+        slow.success(2000L);
+        ProxyHealth failing = new ProxyHealth();
+        failing.failure();
+        assertTrue(fast.getScore() < slow.getScore());
+        assertTrue(slow.getScore() < failing.getScore());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.crawler.parser;
+
+import java.util.ArrayList;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+import com.opsmatters.media.model.content.crawler.field.FieldExclude;
+import com.opsmatters.media.model.content.crawler.field.FieldFilter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the formatted body and summary of an article.
+ * <p>
+ * The expected values are the output of the parser before it was changed to a single walk of the node tree.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class BodyParserTest
+{
+    /**
+     * Returns a parser without excludes or filters.
+     */
+    private BodyParser newParser()
+    {
+        return new BodyParser(new ArrayList<FieldExclude>(), new ArrayList<FieldFilter>(), false);
+    }
+
+    /**
+     * Checks the body and summary of the given HTML for both the string and node entry points.
+     */
+    private void check(String html, String body, String summary)
+    {
+        BodyParser parser = newParser();
+        parser.parseHtml(html);
+        assertEquals(body, parser.formatBody());
+        assertEquals(summary, parser.formatSummary(20, 200));
+
+        parser = newParser();
+        parser.parseHtml(Jsoup.parse(html).body());
+        assertEquals(body, parser.formatBody());
+        assertEquals(summary, parser.formatSummary(20, 200));
+    }
+
+    @Test
+    public void testParagraphs()
+    {
+        check("<p>First paragraph.</p><p>Second paragraph with <a href=\"https://example.com\">a link</a>.</p>",
+            "<p>First paragraph.</p>\n<p>Second paragraph with a link.</p>",
+            "First paragraph. Second paragraph with a link.");
+        check("<article><section><p>Deeply</p><div><p>nested <b>content</b></p></div></section></article>",
+            "<p>Deeply</p>\n<p>nested content</p>",
+            "Deeply nested content");
+    }
+
+    @Test
+    public void testBreaks()
+    {
+        check("<div><p>Line one<br>Line two<br/>Line three</p></div>",
+            "<p>Line one\n<br> Line two\n<br> Line three</p>",
+            "Line one Line two Line three");
+    }
+
+    @Test
+    public void testSpaces()
+    {
+        check("<h2>Heading</h2><p>Some text&nbsp;with&nbsp;non-breaking spaces .</p>"
+            +"<h3>Sub heading</h3><p>More   text here  !</p>",
+            "<h2>Heading</h2>\n<p>Some text with non-breaking spaces.</p>\n<h3>Sub heading</h3>\n<p>More text here!</p>",
+            "Some text with non-breaking spaces.");
+    }
+
+    @Test
+    public void testLists()
+    {
+        check("<ul><li>First item</li><li>Second item</li></ul><p>After the list.</p>",
+            "<p><ul>\n<li>First item\n<li>Second item\n</ul></p>\n<p>After the list.</p>",
+            "After the list.");
+        check("<ol><li>One</li><li>Two</li></ol>",
+            "<p><ol>\n<li>One\n<li>Two\n</ol></p>",
+            "");
+    }
+
+    @Test
+    public void testInlineElements()
+    {
+        check("<div>Text directly in a div<div>Nested div text</div></div><p><strong>Bold paragraph</strong></p>",
+            "<p>Text directly in a div Nested div text</p>\n<strong>Bold paragraph</strong>",
+            "Text directly in a div Nested div text");
+        check("<p>Text with <em>emphasis</em> and <span>span</span> inline elements, plus <code>code</code>.</p>",
+            "<p>Text with emphasis and span inline elements, plus code.</p>",
+            "Text with emphasis and span inline elements, plus code.");
+        check("<table><tr><td>Cell one</td><td>Cell two</td></tr></table><p>After the table.</p>",
+            "<p>Cell oneCell two</p>\n<p>After the table.</p>",
+            "After the table.");
+    }
+
+    @Test
+    public void testUrls()
+    {
+        check("<p>Visit https://example.com/page for details.</p><blockquote>A quote here.</blockquote>",
+            "<p>Visit <a href=\"https://example.com/page\" target=\"_blank\" rel=\"nofollow\">https://example.com/page</a>"
+                +" for details.</p>\n<p>A quote here.</p>",
+            "");
+    }
+
+    @Test
+    public void testDocumentUnchanged()
+    {
+        Document doc = Jsoup.parse("<div><p>Line one<br>Line two</p><ul><li>Item</li></ul></div>");
+        String html = doc.body().html();
+        newParser().parseHtml(doc.body());
+        assertEquals(html, doc.body().html());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.db.dao.content;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the index of the titles and ids of the stored content items.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ContentIndexTest
+{
+    /**
+     * Returns an index loaded with the given titles and ids for site "ss" and organisation "AAA".
+     */
+    private ContentIndex newIndex(String[][] items)
+    {
+        ContentIndex ret = new ContentIndex();
+        ContentIndex.Builder builder = ret.load("ss", "AAA", items.length);
+        for(String[] item : items)
+            builder.add(item[0], item[1]);
+        builder.build();
+        return ret;
+    }
+
+    @Test
+    public void testNotLoaded()
+    {
+        ContentIndex index = new ContentIndex();
+        assertFalse(index.isLoaded("ss", "AAA"));
+        assertTrue(index.mightContainTitle("ss", "AAA", "Anything"));
+        assertTrue(index.mightContainId("ss", "AAA", "https://example.com/anything"));
+
+        // Items aren't added for an organisation that hasn't been loaded
+        index.add("ss", "AAA", "Stored Title", null);
+        assertFalse(index.isLoaded("ss", "AAA"));
+    }
+
+    @Test
+    public void testLoaded()
+    {
+        ContentIndex index = newIndex(new String[][] {{"Stored Title", "https://example.com/stored"}});
+        assertTrue(index.isLoaded("ss", "AAA"));
+        assertTrue(index.mightContainTitle("ss", "AAA", "Stored Title"));
+        assertTrue(index.mightContainId("ss", "AAA", "https://example.com/stored"));
+        assertFalse(index.mightContainTitle("ss", "AAA", "Other Title"));
+        assertFalse(index.mightContainId("ss", "AAA", "https://example.com/other"));
+
+        // Titles and ids are kept apart
+        assertFalse(index.mightContainId("ss", "AAA", "Stored Title"));
+
+        // Other organisations are still reported as found
+        assertTrue(index.mightContainTitle("ss", "BBB", "Other Title"));
+    }
+
+    @Test
+    public void testNormalized()
+    {
+        ContentIndex index = newIndex(new String[][] {{"Café Notes: Part 1", null}});
+        assertTrue(index.mightContainTitle("ss", "AAA", "cafe notes - part 1"));
+        assertTrue(index.mightContainTitle("ss", "AAA", "CAFE NOTES PART 1"));
+        assertFalse(index.mightContainTitle("ss", "AAA", "Cafe Notes Part 2"));
+    }
+
+    @Test
+    public void testAdd()
+    {
+        ContentIndex index = newIndex(new String[0][]);
+        assertFalse(index.mightContainTitle("ss", "AAA", "New Title"));
+        index.add("ss", "AAA", "New Title", "https://example.com/new");
+        assertTrue(index.mightContainTitle("ss", "AAA", "New Title"));
+        assertTrue(index.mightContainId("ss", "AAA", "https://example.com/new"));
+    }
+
+    @Test
+    public void testReload()
+    {
+        ContentIndex index = newIndex(new String[][] {{"Old Title", null}});
+
+        // The existing filter is used until the new one is built
+        ContentIndex.Builder builder = index.load("ss", "AAA", 1);
+        builder.add("Amended Title", null);
+        assertTrue(index.mightContainTitle("ss", "AAA", "Old Title"));
+        assertFalse(index.mightContainTitle("ss", "AAA", "Amended Title"));
+
+        builder.build();
+        assertFalse(index.mightContainTitle("ss", "AAA", "Old Title"));
+        assertTrue(index.mightContainTitle("ss", "AAA", "Amended Title"));
+    }
+
+    @Test
+    public void testClear()
+    {
+        ContentIndex index = newIndex(new String[][] {{"Stored Title", null}});
+        index.clear();
+        assertFalse(index.isLoaded("ss", "AAA"));
+        assertTrue(index.mightContainTitle("ss", "AAA", "Other Title"));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.handler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the checks and fixes of a HTML document.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class HtmlCleanerTest
+{
+    @Test
+    public void testUnnecessaryAttributes()
+    {
+        String before = "<p data-id=\"1\" dir=\"ltr\">Some text</p><h2 data-x=\"y\">Heading</h2>";
+        assertTrue(HtmlCleaner.hasUnnecessaryAttribute(before));
+        String after = HtmlCleaner.removeUnnecessaryAttributes(before);
+        assertEquals("<p>Some text</p><h2>Heading</h2>", after);
+        assertFalse(HtmlCleaner.hasUnnecessaryAttribute(after));
+    }
+
+    @Test
+    public void testBadExternalSpacingLinks()
+    {
+        String before = "<p>Text<a href=\"https://a.com/x\">link</a>spacing</p>";
+        assertTrue(HtmlCleaner.hasBadExternalSpacingLink(before));
+        String after = HtmlCleaner.fixBadExternalSpacingLinks(before);
+        assertEquals("<p>Text <a href=\"https://a.com/x\">link</a> spacing</p>", after);
+        assertFalse(HtmlCleaner.hasBadExternalSpacingLink(after));
+    }
+
+    @Test
+    public void testFragmentedLists()
+    {
+        String before = "<ul><li>a</li></ul>\n<ul><li>b</li></ul>";
+        assertTrue(HtmlCleaner.hasFragmentedList(before));
+        assertEquals("<ul><li>a</li><li>b</li></ul>", HtmlCleaner.fixFragmentedLists(before));
+    }
+
+    @Test
+    public void testBadProtocolLinks()
+    {
+        String before = "<p><a href=\"http://x.com\">link</a></p>";
+        assertTrue(HtmlCleaner.hasBadProtocolLink(before));
+        assertEquals("<p><a href=\"https://x.com\">link</a></p>", HtmlCleaner.fixBadProtocolLinks(before));
+    }
+
+    @Test
+    public void testReduceHeadings()
+    {
+        String before = "<h1>Title</h1><h2>Section</h2>";
+        assertTrue(HtmlCleaner.needsReduceHeadings(before));
+        String after = HtmlCleaner.reduceHeadings(before);
+        assertFalse(HtmlCleaner.needsReduceHeadings(after));
+    }
+
+    @Test
+    public void testMissingTagsLeaveDocumentUnchanged()
+    {
+        String doc = "just text with no tags &nbsp; here";
+        assertFalse(HtmlCleaner.hasUnnecessaryAttribute(doc));
+        assertFalse(HtmlCleaner.hasUnnecessarySpacing(doc));
+        assertFalse(HtmlCleaner.hasExtraLineBreaks(doc));
+        assertFalse(HtmlCleaner.hasEmptyParagraph(doc));
+        assertEquals(doc, HtmlCleaner.removeUnnecessaryAttributes(doc));
+        assertEquals(doc, HtmlCleaner.removeUnnecessarySpacing(doc));
+        assertEquals(doc, HtmlCleaner.fixExtraLineBreaks(doc));
+        assertEquals(doc, HtmlCleaner.removeEmptyParagraphs(doc));
+        assertEquals(doc, HtmlCleaner.addImageWrapperClass(doc));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.handler;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.BitSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the single scan of a text for the suspect words.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class SuspectWordMatcherTest
+{
+    /**
+     * Returns a matcher for the given words.
+     */
+    private SuspectWordMatcher newMatcher(String... words)
+    {
+        List<SuspectWord> list = new ArrayList<SuspectWord>();
+        for(String word : words)
+            list.add(new SuspectWord(word));
+        return new SuspectWordMatcher(list);
+    }
+
+    /**
+     * Checks that the matcher finds the same words as the pattern of each word in the given texts.
+     */
+    private void checkPatterns(SuspectWordMatcher matcher, String... texts)
+    {
+        for(String text : texts)
+        {
+            BitSet found = matcher.find(text);
+            for(int i = 0; i < matcher.size(); i++)
+            {
+                boolean expected = matcher.getWord(i).getPattern().matcher(text).find();
+                assertEquals(matcher.getWord(i)+" in \""+text+"\"", expected, found.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testWordBoundaries()
+    {
+        SuspectWordMatcher matcher = newMatcher("bet", "casino");
+        assertTrue(matcher.find("place a bet now").get(0));
+        assertTrue(matcher.find("bet").get(0));
+        assertTrue(matcher.find("bet-casino").get(1));
+        assertFalse(matcher.find("alphabet better").get(0));
+        assertFalse(matcher.find("casinos").get(1));
+        assertFalse(matcher.find("bet_").get(0));
+    }
+
+    @Test
+    public void testOverlappingWords()
+    {
+        SuspectWordMatcher matcher = newMatcher("he", "she", "hers", "his");
+        BitSet found = matcher.find("ushers");
+        assertEquals(0, found.cardinality());
+        found = matcher.find("she said hers was his");
+        assertFalse(found.get(0));
+        assertTrue(found.get(1));
+        assertTrue(found.get(2));
+        assertTrue(found.get(3));
+        checkPatterns(matcher, "he she hers", "shehers", "a he b", "his-hers");
+    }
+
+    @Test
+    public void testExpressions()
+    {
+        SuspectWordMatcher matcher = newMatcher("loan", "pay.?day", "crypto(currency)?", "free");
+        BitSet found = matcher.find("get a payday loan in cryptocurrency");
+        assertTrue(found.get(0));
+        assertTrue(found.get(1));
+        assertTrue(found.get(2));
+        assertFalse(found.get(3));
+        checkPatterns(matcher, "pay day", "pay-day loans", "crypto free", "cryptocurrencies", "freeloan");
+    }
+
+    @Test
+    public void testMultipleTexts()
+    {
+        SuspectWordMatcher matcher = newMatcher("casino", "bet");
+        BitSet found = matcher.find("https://example.com/casino", "place a bet");
+        assertEquals(2, found.cardinality());
+    }
+
+    @Test
+    public void testNoWords()
+    {
+        SuspectWordMatcher matcher = newMatcher();
+        assertEquals(0, matcher.size());
+        assertEquals(0, matcher.find("any text").cardinality());
+
+        matcher = newMatcher("", "bet");
+        assertEquals(2, matcher.size());
+        assertFalse(matcher.find("a bet").get(0));
+        assertTrue(matcher.find("a bet").get(1));
+    }
+
+    @Test
+    public void testSameAsPatterns()
+    {
+        SuspectWordMatcher matcher = newMatcher("viagra", "bet", "bets", "poker", "online poker",
+            "win.*cash", "essay", "(buy|cheap) pills", "loans?");
+        checkPatterns(matcher,
+            "",
+            "online poker and bets",
+            "betting on poker",
+            "win big cash prizes",
+            "write my essay cheaply",
+            "cheap pills and a loan",
+            "viagra_online is not a word boundary",
+            "https://example.com/essay-writing?bet=1",
+            "title=\"buy pills online\" href=\"/loans\"");
+    }
+
+    @Test
+    public void testMessages()
+    {
+        List<String> words = new ArrayList<String>();
+        words.add("casino");
+        words.add("bet");
+        HtmlCleaner.setSuspectWords(words);
+        try
+        {
+            List<String> messages = HtmlCleaner.getSuspectWords(
+                "<p><a href=\"https://example.com/bet\">Casino games</a> and <a href=\"/casino\">more</a></p>");
+            assertEquals(2, messages.size());
+            assertEquals("suspect word: casino", messages.get(0));
+            assertEquals("suspect word: bet", messages.get(1));
+        }
+        finally
+        {
+            HtmlCleaner.setSuspectWords(new ArrayList<String>());
+        }
+    }
+}
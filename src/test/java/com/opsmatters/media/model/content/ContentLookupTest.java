@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.content;
+
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+import java.sql.SQLException;
+import org.junit.Test;
+import com.opsmatters.media.model.content.post.RoundupPost;
+import com.opsmatters.media.model.organisation.OrganisationSite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the organisations skipped by a content lookup.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ContentLookupTest
+{
+    /**
+     * Lookup that records the queries and the organisations checked against the table.
+     */
+    private static class TestLookup extends ContentLookup<RoundupPost>
+    {
+        private List<String> queries = new ArrayList<String>();
+        private List<String> checks = new ArrayList<String>();
+        private RoundupPost stored;
+        private String storedCode;
+
+        @Override
+        protected RoundupPost getByTitle(String siteId, String code, String title)
+        {
+            queries.add(code);
+            return code.equals(storedCode) ? stored : null;
+        }
+
+        @Override
+        protected RoundupPost getById(String siteId, String code, String id)
+        {
+            queries.add(code);
+            return code.equals(storedCode) ? stored : null;
+        }
+
+        @Override
+        protected boolean isMissingTitle(String siteId, String code, String title, Set<String> verified)
+            throws SQLException
+        {
+            if(verified.add(siteId+":"+code))
+                checks.add(code);
+            return !code.equals(storedCode);
+        }
+    }
+
+    /**
+     * Returns the organisations with the given codes.
+     */
+    private List<OrganisationSite> getOrganisations(String... codes)
+    {
+        List<OrganisationSite> ret = new ArrayList<OrganisationSite>();
+        for(String code : codes)
+        {
+            OrganisationSite organisation = new OrganisationSite();
+            organisation.setSiteId("ss");
+            organisation.setCode(code);
+            ret.add(organisation);
+        }
+
+        return ret;
+    }
+
+    @Test
+    public void testMissingSkipped() throws SQLException
+    {
+        TestLookup lookup = new TestLookup();
+        lookup.stored = new RoundupPost();
+        lookup.storedCode = "BBB";
+        lookup.setOrganisations(getOrganisations("AAA", "BBB"));
+
+        assertSame(lookup.stored, lookup.getByTitle("Stored Title"));
+        assertEquals("[BBB]", lookup.queries.toString());
+
+        // The ids aren't checked, so every organisation is queried
+        lookup.queries.clear();
+        assertSame(lookup.stored, lookup.getById("https://example.com/stored"));
+        assertEquals("[AAA, BBB]", lookup.queries.toString());
+    }
+
+    @Test
+    public void testVerifiedOnce() throws SQLException
+    {
+        TestLookup lookup = new TestLookup();
+        lookup.setOrganisations(getOrganisations("AAA", "BBB"));
+        assertNull(lookup.getByTitle("Title 1"));
+        assertNull(lookup.getByTitle("Title 2"));
+        assertEquals("[AAA, BBB]", lookup.checks.toString());
+        assertEquals(0, lookup.queries.size());
+
+        // The organisations are checked again after they are set
+        lookup.setOrganisations(getOrganisations("AAA"));
+        assertNull(lookup.getByTitle("Title 3"));
+        assertEquals("[AAA, BBB, AAA]", lookup.checks.toString());
+    }
+
+    @Test
+    public void testWithOrganisations() throws SQLException
+    {
+        TestLookup lookup = new TestLookup();
+        ContentLookup<RoundupPost> first = lookup.withOrganisations(getOrganisations("AAA"));
+        assertNull(first.getByTitle("Title 1"));
+        assertNull(first.getByTitle("Title 2"));
+        assertEquals("[AAA]", lookup.checks.toString());
+
+        // Each copy checks the organisations against the table itself
+        ContentLookup<RoundupPost> second = lookup.withOrganisations(getOrganisations("AAA"));
+        assertNull(second.getByTitle("Title 1"));
+        assertEquals("[AAA, AAA]", lookup.checks.toString());
+        assertEquals(0, lookup.queries.size());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.content.crawler;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for matching keywords against content titles.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class KeywordMatcherTest
+{
+    @Test
+    public void testParse()
+    {
+        assertEquals(Arrays.asList("kubernetes", "service mesh"), KeywordMatcher.parse(" Kubernetes, ,Service Mesh "));
+        assertEquals(new ArrayList<String>(), KeywordMatcher.parse(null));
+    }
+
+    @Test
+    public void testContains()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("kube,observ", KeywordMatch.CONTAINS);
+        assertTrue(matcher.matches("Running Kubernetes at scale"));
+        assertTrue(matcher.matches("The Three Pillars of Observability"));
+        assertFalse(matcher.matches("Serverless functions"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testWord()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("log,service mesh", KeywordMatch.WORD);
+        assertTrue(matcher.matches("Log management basics"));
+        assertTrue(matcher.matches("Structured log-based alerting"));
+        assertTrue(matcher.matches("Choosing a Service Mesh"));
+        assertFalse(matcher.matches("Our engineering blog"));
+        assertFalse(matcher.matches("Logging pipelines"));
+        assertFalse(matcher.matches("Service meshes compared"));
+    }
+
+    @Test
+    public void testStem()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("monitoring,deploy", KeywordMatch.STEM);
+        assertTrue(matcher.matches("How we monitor our APIs"));
+        assertTrue(matcher.matches("Monitored services"));
+        assertTrue(matcher.matches("Continuous monitoring"));
+        assertTrue(matcher.matches("Deploying to production"));
+        assertTrue(matcher.matches("Deployed in minutes"));
+        assertFalse(matcher.matches("Redeploying to production"));
+        assertFalse(matcher.matches("Monitorless architectures"));
+    }
+
+    @Test
+    public void testStemWithDoubleLetterEnding()
+    {
+        // The stem of these keywords cuts into the word, eg. "proces"
+        KeywordMatcher matcher = KeywordMatcher.get("process,access,business", KeywordMatch.STEM);
+        assertTrue(matcher.matches("Processing events"));
+        assertTrue(matcher.matches("Batch processes"));
+        assertTrue(matcher.matches("The process"));
+        assertTrue(matcher.matches("Accessing the API"));
+        assertTrue(matcher.matches("Access denied"));
+        assertTrue(matcher.matches("Small businesses"));
+        assertFalse(matcher.matches("Reprocessing events"));
+        assertFalse(matcher.matches("Processor design"));
+    }
+
+    @Test
+    public void testStemMultipleWords()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("service mesh", KeywordMatch.STEM);
+        assertTrue(matcher.matches("Service meshes compared"));
+        assertFalse(matcher.matches("Service meshwork"));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("", KeywordMatch.STEM);
+        assertFalse(matcher.matches("Anything"));
+    }
+
+    @Test
+    public void testShared()
+    {
+        KeywordMatcher matcher = KeywordMatcher.get("alpha,beta", KeywordMatch.WORD);
+        assertSame(matcher, KeywordMatcher.get(Arrays.asList("alpha", "beta"), KeywordMatch.WORD));
+        assertSame(KeywordMatcher.get("alpha", null), KeywordMatcher.get("alpha", KeywordMatch.CONTAINS));
+    }
+}
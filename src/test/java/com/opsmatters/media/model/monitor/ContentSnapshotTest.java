@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.time.Instant;
+import org.json.JSONObject;
+import org.junit.Test;
+import com.opsmatters.media.model.content.ContentType;
+import com.opsmatters.media.model.content.post.RoundupPostDetails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that the typed content snapshot gives the same JSON as the previous JSONObject snapshot.
+ * <p>
+ * The expected values were produced by the previous version of the class.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ContentSnapshotTest
+{
+    private static final String ROUNDUPS = "{\"roundups\":["
+        +"{\"title\":\"First post\",\"published-date\":\"2026-10-01 09:00:00\",\"url\":\"https://example.com/first\"},"
+        +"{\"title\":\"Second post\",\"url\":\"https://example.com/second\"},"
+        +"{\"title\":\"Third post\",\"published-date\":\"2026-10-03 10:30:00\",\"url\":\"https://example.com/third\","
+        +"\"last-url\":\"https://example.com/old-third\"}],\"count\":3}";
+
+    private static final String LATEST = "{\"roundups\":["
+        +"{\"title\":\"New post\",\"published-date\":\"2026-10-04 08:00:00\",\"url\":\"https://example.com/new\"},"
+        +"{\"title\":\"First post\",\"published-date\":\"2026-10-01 09:00:00\",\"url\":\"https://example.com/first\"},"
+        +"{\"title\":\"Second post\",\"url\":\"https://example.com/second-moved\"},"
+        +"{\"title\":\"Third post renamed\",\"published-date\":\"2026-10-03 10:30:00\",\"url\":\"https://example.com/third\"}],"
+        +"\"count\":4}";
+
+    private static final String VIDEOS = "{\"videos\":["
+        +"{\"title\":\"A video\",\"published-date\":\"2026-09-30 12:00:00\",\"video-id\":\"abc123\"},"
+        +"{\"title\":\"Another video\",\"published-date\":\"2026-09-29 12:00:00\",\"video-id\":\"def456\"}],\"count\":2}";
+
+    private static final String EVENTS = "{\"events\":["
+        +"{\"title\":\"A webinar\",\"start-date\":\"2026-11-05 16:00:00\",\"url\":\"https://example.com/webinar\"}],\"count\":1}";
+
+    private static final String MESSAGE = "{\"roundups\":[\"Page not found\"]}";
+
+    /**
+     * Checks that the snapshot gives the same JSON as the given JSON string.
+     */
+    private void checkJson(String expected, ContentSnapshot snapshot)
+    {
+        assertEquals(new JSONObject(expected).toString(), snapshot.toString());
+    }
+
+    @Test
+    public void testParse()
+    {
+        for(String json : new String[] {ROUNDUPS, LATEST, VIDEOS, EVENTS, MESSAGE})
+        {
+            ContentSnapshot snapshot = new ContentSnapshot(json);
+            checkJson(json, snapshot);
+            checkJson(json, new ContentSnapshot(new JSONObject(json)));
+            checkJson(json, new ContentSnapshot(snapshot));
+            assertEquals(snapshot.toString(), snapshot.toJson().toString());
+        }
+    }
+
+    @Test
+    public void testAttributes()
+    {
+        ContentSnapshot snapshot = new ContentSnapshot(ROUNDUPS);
+        assertEquals(ContentType.ROUNDUP, snapshot.getContentType());
+        assertEquals(3, snapshot.getCount());
+        assertTrue(snapshot.containsItems());
+        assertFalse(snapshot.isEmpty());
+        assertEquals("Second post", snapshot.getTitle(1));
+        assertEquals("", snapshot.getDate(1));
+        assertEquals("https://example.com/third", snapshot.getId(2));
+        assertEquals(2, snapshot.indexOfTitle("Third post"));
+        assertEquals(-1, snapshot.indexOfTitle("Missing post"));
+
+        snapshot = new ContentSnapshot(VIDEOS);
+        assertEquals(ContentType.VIDEO, snapshot.getContentType());
+        assertEquals(1, snapshot.indexOfId("def456"));
+
+        snapshot = new ContentSnapshot(EVENTS);
+        assertEquals(ContentType.EVENT, snapshot.getContentType());
+        assertEquals("2026-11-05 16:00:00", snapshot.getDate(0));
+
+        snapshot = new ContentSnapshot(MESSAGE);
+        assertEquals(ContentType.ROUNDUP, snapshot.getContentType());
+        assertEquals(-1, snapshot.getCount());
+        assertFalse(snapshot.containsItems());
+    }
+
+    @Test
+    public void testConstructors()
+    {
+        checkJson("{\"roundups\":[],\"count\":0}", new ContentSnapshot(ContentType.ROUNDUP));
+        checkJson("{\"videos\":[\"Channel not found\"]}", new ContentSnapshot(ContentType.VIDEO, "Channel not found"));
+
+        List<RoundupPostDetails> teasers = new ArrayList<RoundupPostDetails>();
+        RoundupPostDetails teaser = new RoundupPostDetails("https://example.com/first", false);
+        teaser.setTitle("First post");
+        teaser.setPublishedDate(Instant.parse("2026-10-01T09:00:00Z"));
+        teasers.add(teaser);
+        teaser = new RoundupPostDetails("https://example.com/second", false);
+        teaser.setTitle("Second post");
+        teasers.add(teaser);
+        checkJson("{\"roundups\":["
+            +"{\"title\":\"First post\",\"published-date\":\"2026-10-01 09:00:00\",\"url\":\"https://example.com/first\"},"
+            +"{\"title\":\"Second post\",\"url\":\"https://example.com/second\"}],\"count\":2}",
+            new ContentSnapshot(ContentType.ROUNDUP, teasers));
+    }
+
+    @Test
+    public void testEquals()
+    {
+        ContentSnapshot snapshot = new ContentSnapshot(ROUNDUPS);
+        ContentSnapshot other = new ContentSnapshot(new JSONObject(ROUNDUPS));
+        assertEquals(snapshot, other);
+        assertEquals(snapshot.hashCode(), other.hashCode());
+        assertEquals(snapshot.getDigest(), other.getDigest());
+        assertNotEquals(snapshot, new ContentSnapshot(LATEST));
+        assertNotEquals(snapshot, new ContentSnapshot(MESSAGE));
+    }
+
+    @Test
+    public void testFormat()
+    {
+        assertEquals("title=First post\npublished-date=2026-10-01 09:00:00\nurl=https://example.com/first\n"
+            +"\ntitle=Second post\npublished-date=\nurl=https://example.com/second\n"
+            +"\nlast-url=https://example.com/old-third\ntitle=Third post\npublished-date=2026-10-03 10:30:00\nurl=https://example.com/third\n",
+            new ContentSnapshot(ROUNDUPS).format());
+        assertEquals("title=A video\npublished-date=2026-09-30 12:00:00\nvideo-id=abc123\n"
+            +"\ntitle=Another video\npublished-date=2026-09-29 12:00:00\nvideo-id=def456\n",
+            new ContentSnapshot(VIDEOS).format());
+        assertEquals("start-date=2026-11-05 16:00:00\ntitle=A webinar\nurl=https://example.com/webinar\n",
+            new ContentSnapshot(EVENTS).format());
+    }
+
+    @Test
+    public void testCompare() throws Exception
+    {
+        checkJson("{\"roundups\":["
+            +"{\"title\":\"New post\",\"published-date\":\"2026-10-04 08:00:00\",\"url\":\"https://example.com/new\"},"
+            +"{\"title\":\"Third post renamed\",\"published-date\":\"2026-10-03 10:30:00\",\"url\":\"https://example.com/third\"},"
+            +"{\"title\":\"Second post\",\"url\":\"https://example.com/second-moved\"}],\"count\":3}",
+            ContentSnapshot.compare("TST", new ContentSnapshot(ROUNDUPS), new ContentSnapshot(LATEST), null, false, false));
+        checkJson("{\"roundups\":["
+            +"{\"last-url\":\"https://example.com/old-third\",\"title\":\"Third post\",\"published-date\":\"2026-10-03 10:30:00\","
+            +"\"url\":\"https://example.com/third\"},"
+            +"{\"title\":\"Second post\",\"url\":\"https://example.com/second\"}],\"count\":2}",
+            ContentSnapshot.compare("TST", new ContentSnapshot(LATEST), new ContentSnapshot(ROUNDUPS), null, false, false));
+        checkJson("{\"roundups\":[],\"count\":0}",
+            ContentSnapshot.compare("TST", new ContentSnapshot(ROUNDUPS), new ContentSnapshot(ROUNDUPS), null, false, false));
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testDecrease() throws Exception
+    {
+        ContentSnapshot.compare("TST", new ContentSnapshot(LATEST), new ContentSnapshot(EVENTS.replace("events", "roundups")),
+            null, true, false);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the adaptive interval of a content monitor.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class MonitorScheduleTest
+{
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    /**
+     * Returns an adaptive monitor created the given number of days ago.
+     */
+    private ContentMonitor getMonitor(int days)
+    {
+        ContentMonitor ret = new ContentMonitor();
+        ret.setCreatedDate(NOW.minus(days, ChronoUnit.DAYS));
+        ret.setAdaptive(true);
+        return ret;
+    }
+
+    /**
+     * Returns the given number of changes, one every given number of hours back from now.
+     */
+    private List<Instant> getChanges(int count, int hours)
+    {
+        List<Instant> ret = new ArrayList<Instant>();
+        for(int i = 0; i < count; i++)
+            ret.add(NOW.minus(i*hours, ChronoUnit.HOURS));
+        return ret;
+    }
+
+    @Test
+    public void testNotAdaptive()
+    {
+        ContentMonitor monitor = getMonitor(365);
+        monitor.setAdaptive(false);
+        monitor.setInterval(60);
+        assertFalse(new MonitorSchedule().update(monitor, getChanges(10, 24), NOW));
+        assertEquals(60, monitor.getInterval());
+    }
+
+    @Test
+    public void testNewMonitor()
+    {
+        ContentMonitor monitor = getMonitor(0);
+        monitor.setCreatedDate(NOW.minus(12, ChronoUnit.HOURS));
+        monitor.setInterval(60);
+        assertFalse(new MonitorSchedule().update(monitor, getChanges(10, 1), NOW));
+        assertEquals(60, monitor.getInterval());
+    }
+
+    @Test
+    public void testChanges()
+    {
+        // 90 changes in 90 days gives 4 checks a day
+        ContentMonitor monitor = getMonitor(365);
+        MonitorSchedule schedule = new MonitorSchedule();
+        assertTrue(schedule.update(monitor, getChanges(90, 24), NOW));
+        assertEquals(360, monitor.getInterval());
+        assertEquals("90 changes in 90 days", monitor.getIntervalReason());
+        assertFalse(schedule.update(monitor, getChanges(90, 24), NOW));
+
+        // Changes before the history are ignored
+        monitor = getMonitor(365);
+        assertTrue(schedule.update(monitor, getChanges(180, 24), NOW));
+        assertEquals(360, monitor.getInterval());
+
+        // Only the history since the monitor was created is used
+        monitor = getMonitor(10);
+        assertTrue(schedule.update(monitor, getChanges(20, 24), NOW));
+        assertEquals(360, monitor.getInterval());
+        assertEquals("10 changes in 10 days", monitor.getIntervalReason());
+    }
+
+    @Test
+    public void testBounds()
+    {
+        MonitorSchedule schedule = new MonitorSchedule();
+        ContentMonitor monitor = getMonitor(365);
+        assertTrue(schedule.update(monitor, getChanges(3000, 1), NOW));
+        assertEquals(MonitorSchedule.DEFAULT_MIN_INTERVAL, monitor.getInterval());
+
+        monitor = getMonitor(365);
+        assertTrue(schedule.update(monitor, Collections.<Instant>emptyList(), NOW));
+        assertEquals(MonitorSchedule.DEFAULT_MAX_INTERVAL, monitor.getInterval());
+        assertEquals("No changes in 90 days", monitor.getIntervalReason());
+
+        schedule = new MonitorSchedule(30, 720);
+        monitor = getMonitor(365);
+        assertTrue(schedule.update(monitor, getChanges(3000, 1), NOW));
+        assertEquals(30, monitor.getInterval());
+        assertTrue(schedule.update(monitor, Collections.<Instant>emptyList(), NOW));
+        assertEquals(60, monitor.getInterval());
+    }
+
+    @Test
+    public void testGrowth()
+    {
+        // The interval is shortened at once
+        MonitorSchedule schedule = new MonitorSchedule();
+        ContentMonitor monitor = getMonitor(365);
+        monitor.setInterval(1440);
+        assertTrue(schedule.update(monitor, getChanges(90, 24), NOW));
+        assertEquals(360, monitor.getInterval());
+
+        // The interval is only doubled on each update
+        assertTrue(schedule.update(monitor, Collections.<Instant>emptyList(), NOW));
+        assertEquals(720, monitor.getInterval());
+        assertEquals("No changes in 90 days, increasing", monitor.getIntervalReason());
+        assertTrue(schedule.update(monitor, Collections.<Instant>emptyList(), NOW));
+        assertEquals(1440, monitor.getInterval());
+        assertEquals("No changes in 90 days", monitor.getIntervalReason());
+        assertFalse(schedule.update(monitor, Collections.<Instant>emptyList(), NOW));
+    }
+
+    @Test
+    public void testExecutionTime()
+    {
+        // A check taking 1 minute is run at most every 50 minutes
+        ContentMonitor monitor = getMonitor(365);
+        monitor.setExecutionTime(60000L);
+        assertTrue(new MonitorSchedule().update(monitor, getChanges(3000, 1), NOW));
+        assertEquals(50, monitor.getInterval());
+        assertEquals("Execution time of 60s", monitor.getIntervalReason());
+    }
+
+    @Test
+    public void testDue()
+    {
+        ContentMonitor monitor = getMonitor(365);
+        monitor.setInterval(60);
+        assertTrue(monitor.isDue(NOW));
+
+        monitor.setExecutedDate(NOW.minus(30, ChronoUnit.MINUTES));
+        assertFalse(monitor.isDue(NOW));
+        monitor.setExecutedDate(NOW.minus(60, ChronoUnit.MINUTES));
+        assertTrue(monitor.isDue(NOW));
+
+        monitor.setInterval(0);
+        monitor.setExecutedDate(NOW);
+        assertTrue(monitor.isDue(NOW));
+    }
+}
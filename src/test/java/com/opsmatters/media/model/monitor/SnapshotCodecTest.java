@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import java.util.List;
+import java.util.ArrayList;
+import org.json.JSONObject;
+import org.junit.Test;
+import com.opsmatters.media.model.content.ContentType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that snapshots are decoded to the same JSON that was encoded.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class SnapshotCodecTest
+{
+    /**
+     * Returns a roundup snapshot with the given number of items, starting with the given item.
+     */
+    private String getSnapshot(int first, int count)
+    {
+        List<JSONObject> items = new ArrayList<JSONObject>();
+        for(int i = first; i < first+count; i++)
+        {
+            JSONObject item = new JSONObject();
+            item.put("title", "Post number "+i);
+            item.put("published-date", String.format("2026-10-%02d 09:00:00", (i%28)+1));
+            item.put("url", "https://example.com/blog/post-number-"+i);
+            items.add(item);
+        }
+
+        return new ContentSnapshot(items, ContentType.ROUNDUP).toString();
+    }
+
+    @Test
+    public void testKeyframe()
+    {
+        String snapshot = getSnapshot(0, 20);
+        String encoded = SnapshotCodec.encode(snapshot);
+        assertTrue(SnapshotCodec.isEncoded(encoded));
+        assertTrue(encoded.length() < snapshot.length());
+        assertEquals(snapshot, SnapshotCodec.decode(encoded));
+        assertEquals(encoded, SnapshotCodec.encode(encoded));
+    }
+
+    @Test
+    public void testDelta()
+    {
+        String before = getSnapshot(0, 20);
+        String after = getSnapshot(2, 20);
+        String diff = getSnapshot(20, 2);
+        String encodedAfter = SnapshotCodec.encode(after, before);
+        String encodedDiff = SnapshotCodec.encode(diff, after);
+        assertTrue(SnapshotCodec.isEncoded(encodedAfter));
+        assertTrue(SnapshotCodec.isEncoded(encodedDiff));
+        assertTrue(encodedAfter.length() < SnapshotCodec.encode(after).length());
+
+        String decodedBefore = SnapshotCodec.decode(SnapshotCodec.encode(before));
+        String decodedAfter = SnapshotCodec.decode(encodedAfter, decodedBefore);
+        assertEquals(after, decodedAfter);
+        assertEquals(diff, SnapshotCodec.decode(encodedDiff, decodedAfter));
+    }
+
+    @Test
+    public void testSmallDelta()
+    {
+        String before = getSnapshot(0, 1);
+        String after = getSnapshot(0, 1);
+        String encoded = SnapshotCodec.encode(after, before);
+        assertTrue(SnapshotCodec.isEncoded(encoded));
+        assertEquals(after, SnapshotCodec.decode(encoded, before));
+    }
+
+    @Test
+    public void testPlain()
+    {
+        String snapshot = "{\"roundups\":[],\"count\":0}";
+        assertEquals(snapshot, SnapshotCodec.encode(snapshot));
+        assertFalse(SnapshotCodec.isEncoded(snapshot));
+        assertEquals(snapshot, SnapshotCodec.decode(snapshot));
+        assertEquals(snapshot, SnapshotCodec.decode(snapshot, getSnapshot(0, 5)));
+        assertEquals(null, SnapshotCodec.encode(null));
+        assertEquals("", SnapshotCodec.encode("", snapshot));
+        assertEquals(null, SnapshotCodec.decode(null));
+    }
+
+    @Test
+    public void testNoDelta()
+    {
+        // A message has no items
+        String before = getSnapshot(0, 20);
+        String message = new ContentSnapshot(ContentType.ROUNDUP, "Page not found").toString();
+        assertEquals(message, SnapshotCodec.decode(SnapshotCodec.encode(message, before), before));
+
+        // The types of the snapshots are different
+        String videos = new ContentSnapshot(ContentType.VIDEO).toString();
+        String encoded = SnapshotCodec.encode(before, videos);
+        assertEquals(SnapshotCodec.encode(before), encoded);
+        assertEquals(before, SnapshotCodec.decode(encoded));
+
+        // The snapshot is not in the form the delta would reproduce
+        String after = getSnapshot(2, 20).replace(",", ", ");
+        encoded = SnapshotCodec.encode(after, before);
+        assertEquals(SnapshotCodec.encode(after), encoded);
+        assertEquals(after, SnapshotCodec.decode(encoded, before));
+
+        // The base snapshot is not valid JSON
+        encoded = SnapshotCodec.encode(before, "Page not found");
+        assertEquals(before, SnapshotCodec.decode(encoded));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testMissingBase()
+    {
+        String before = getSnapshot(0, 20);
+        SnapshotCodec.decode(SnapshotCodec.encode(getSnapshot(2, 20), before));
+    }
+}
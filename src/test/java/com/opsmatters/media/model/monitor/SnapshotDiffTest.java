@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.model.monitor;
+
+import org.json.JSONObject;
+import org.json.JSONArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the % difference between two snapshots.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class SnapshotDiffTest
+{
+    /**
+     * Returns a snapshot with an item for each of the given titles.
+     */
+    private String getSnapshot(String... titles)
+    {
+        JSONArray items = new JSONArray();
+        for(String title : titles)
+        {
+            JSONObject item = new JSONObject();
+            item.put("title", title);
+            item.put("url", "https://example.com/"+title.toLowerCase().replace(' ', '-'));
+            item.put("publishedDate", "2026-10-01");
+            items.put(item);
+        }
+
+        JSONObject ret = new JSONObject();
+        ret.put("items", items);
+        return ret.toString();
+    }
+
+    /**
+     * Checks that the difference is within the given number of points of the character comparison.
+     */
+    private void checkTextDifference(String before, String after, int points)
+    {
+        int percent = SnapshotDiff.getDifferencePercent(before, after);
+        int text = SnapshotDiff.getTextDifferencePercent(before, after);
+        assertTrue(String.format("difference=%d text=%d", percent, text), Math.abs(percent-text) <= points);
+    }
+
+    @Test
+    public void testUnchanged()
+    {
+        String snapshot = getSnapshot("First post", "Second post");
+        assertEquals(0, SnapshotDiff.getDifferencePercent(snapshot, snapshot));
+        assertEquals(0, SnapshotDiff.getDifferencePercent(snapshot, getSnapshot("First post", "Second post")));
+    }
+
+    @Test
+    public void testReordered()
+    {
+        // Reordering the items is no longer counted as a difference
+        assertEquals(0, SnapshotDiff.getDifferencePercent(
+            getSnapshot("First post", "Second post", "Third post"),
+            getSnapshot("Third post", "First post", "Second post")));
+    }
+
+    @Test
+    public void testItemAdded()
+    {
+        String before = getSnapshot("First post", "Second post", "Third post", "Fourth post");
+        String after = getSnapshot("New post", "First post", "Second post", "Third post", "Fourth post");
+        int percent = SnapshotDiff.getDifferencePercent(before, after);
+        assertTrue(percent > 0 && percent < 30);
+        checkTextDifference(before, after, 5);
+    }
+
+    @Test
+    public void testItemReplaced()
+    {
+        String before = getSnapshot("First post", "Second post", "Third post", "Fourth post");
+        String after = getSnapshot("Replacement post", "Second post", "Third post", "Fourth post");
+        int percent = SnapshotDiff.getDifferencePercent(before, after);
+        assertTrue(percent > 0 && percent < 25);
+        checkTextDifference(before, after, 5);
+    }
+
+    @Test
+    public void testItemsRemoved()
+    {
+        String before = getSnapshot("First post", "Second post", "Third post", "Fourth post");
+        String after = getSnapshot("First post", "Second post");
+        int percent = SnapshotDiff.getDifferencePercent(before, after);
+        assertTrue(percent >= 45 && percent <= 55);
+        checkTextDifference(before, after, 5);
+    }
+
+    @Test
+    public void testAllReplaced()
+    {
+        String before = getSnapshot("First post", "Second post");
+        String after = getSnapshot("Unrelated article", "Another story");
+        checkTextDifference(before, after, 10);
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        assertEquals(100, SnapshotDiff.getDifferencePercent(getSnapshot(), getSnapshot("First post")));
+        assertEquals(100, SnapshotDiff.getDifferencePercent(getSnapshot("First post"), getSnapshot()));
+    }
+
+    @Test
+    public void testText()
+    {
+        // Snapshots without a list of items are compared as text
+        String before = "{\"title\":\"Page title\"}";
+        String after = "{\"title\":\"Page name\"}";
+        assertEquals(SnapshotDiff.getTextDifferencePercent(before, after),
+            SnapshotDiff.getDifferencePercent(before, after));
+        assertEquals(SnapshotDiff.getTextDifferencePercent("not json", "not JSON"),
+            SnapshotDiff.getDifferencePercent("not json", "not JSON"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.Arrays;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for parsing dates using a list of alternative date patterns.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class DateParserTest
+{
+    @Test
+    public void testTrailingText()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MMMM d, yyyy", "MMM d, yyyy"));
+        assertEquals(Instant.parse("2024-03-05T00:00:00Z"), parser.toInstantUTC("March 5, 2024 · 5 min read"));
+        assertEquals(Instant.parse("2024-06-03T00:00:00Z"), parser.toInstantUTC("Jun 3, 2024 by Jane"));
+    }
+
+    @Test
+    public void testOrdinals()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MMMM d, yyyy"));
+        assertEquals(Instant.parse("2024-06-03T00:00:00Z"), parser.toInstantUTC("June 3rd, 2024"));
+        assertEquals(Instant.parse("2024-06-21T00:00:00Z"), parser.toInstantUTC("June 21st, 2024"));
+    }
+
+    @Test
+    public void testConfigOrder()
+    {
+        DateParser parser = new DateParser(Arrays.asList("yyyy-MM-dd HH:mm", "yyyy-MM-dd"));
+        assertEquals(Instant.parse("2024-06-03T10:15:00Z"), parser.toInstantUTC("2024-06-03 10:15"));
+        assertEquals("yyyy-MM-dd HH:mm", parser.getLastPattern());
+        assertEquals(Instant.parse("2024-06-03T00:00:00Z"), parser.toInstantUTC("2024-06-03"));
+        assertEquals("yyyy-MM-dd", parser.getLastPattern());
+    }
+
+    @Test
+    public void testLastPatternDoesNotDropTime()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MMM d, yyyy h:mm a", "MMM d, yyyy"));
+        assertEquals(Instant.parse("2024-06-03T00:00:00Z"), parser.toInstantUTC("Jun 3, 2024"));
+        assertEquals("MMM d, yyyy", parser.getLastPattern());
+
+        // The last pattern also matches the start, but the first pattern matches more
+        assertEquals(Instant.parse("2024-06-04T17:30:00Z"), parser.toInstantUTC("Jun 4, 2024 5:30 PM"));
+        assertEquals("MMM d, yyyy h:mm a", parser.getLastPattern());
+        assertEquals(Instant.parse("2024-06-05T09:05:00Z"), parser.toInstantUTC("Jun 5, 2024 9:05 AM by Jane"));
+    }
+
+    @Test
+    public void testLastPatternTriedFirst()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MM/dd/yyyy", "dd/MM/yyyy"));
+        assertEquals(Instant.parse("2024-05-13T00:00:00Z"), parser.toInstantUTC("13/05/2024"));
+        assertEquals("dd/MM/yyyy", parser.getLastPattern());
+
+        // Both patterns match the whole string, so the last pattern is used
+        assertEquals(Instant.parse("2024-05-03T00:00:00Z"), parser.toInstantUTC("03/05/2024"));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MMM d, yyyy"));
+        assertNull(parser.toInstantUTC(null));
+        assertNull(parser.toInstantUTC(""));
+        assertNull(parser.toInstantUTC("-"));
+    }
+
+    @Test(expected=DateTimeParseException.class)
+    public void testNoMatch()
+    {
+        DateParser parser = new DateParser(Arrays.asList("MMM d, yyyy", "yyyy-MM-dd"));
+        parser.toInstantUTC("Posted yesterday");
+    }
+
+    @Test
+    public void testTime()
+    {
+        DateParser parser = new DateParser(Arrays.asList("h:mm a", "H:mm"));
+        assertEquals(17*3600000L+30*60000L, parser.toMillisTime("5:30 p.m."));
+        assertEquals(14*3600000L, parser.toMillisTime("14:00"));
+        assertEquals("H:mm", parser.getLastPattern());
+        assertEquals(9*3600000L, parser.toMillisTime("9:00 AM EST"));
+        assertEquals(21*3600000L, parser.toMillisTime("9:00 PM"));
+    }
+}
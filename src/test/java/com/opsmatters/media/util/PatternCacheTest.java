@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.regex.Pattern;
+import org.junit.Test;
+import org.junit.Before;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the cache of compiled regular expressions.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PatternCacheTest
+{
+    @Before
+    public void setUp()
+    {
+        PatternCache.clear();
+    }
+
+    @Test
+    public void testSamePattern()
+    {
+        Pattern pattern = PatternCache.get("a+b");
+        assertSame(pattern, PatternCache.get("a+b"));
+        assertSame(pattern, PatternCache.get("a+b", 0));
+        assertEquals(1, PatternCache.size());
+    }
+
+    @Test
+    public void testFlags()
+    {
+        Pattern plain = PatternCache.get("a.b");
+        Pattern dotall = PatternCache.get("a.b", Pattern.DOTALL);
+        assertNotSame(plain, dotall);
+        assertEquals(0, plain.flags());
+        assertEquals(Pattern.DOTALL, dotall.flags());
+        assertFalse(plain.matcher("a\nb").matches());
+        assertTrue(dotall.matcher("a\nb").matches());
+        assertEquals(2, PatternCache.size());
+    }
+
+    @Test
+    public void testMaxSize()
+    {
+        for(int i = 0; i < PatternCache.MAX_SIZE; i++)
+            PatternCache.get("x"+i);
+        assertEquals(PatternCache.MAX_SIZE, PatternCache.size());
+
+        // The patterns are cleared when the cache is full
+        Pattern pattern = PatternCache.get("y");
+        assertEquals(1, PatternCache.size());
+        assertSame(pattern, PatternCache.get("y"));
+
+        // The patterns for other flags are kept
+        PatternCache.clear();
+        PatternCache.get("z", Pattern.DOTALL);
+        for(int i = 0; i <= PatternCache.MAX_SIZE; i++)
+            PatternCache.get("x"+i);
+        assertEquals(2, PatternCache.size());
+    }
+
+    @Test
+    public void testReplaceAll()
+    {
+        assertEquals("a-b-c", PatternCache.replaceAll("a  b c", "\\s+", "-"));
+        assertEquals("x1y", PatternCache.replaceAll("x(1)y", "[()]", ""));
+    }
+
+    @Test
+    public void testMatches()
+    {
+        assertTrue(PatternCache.matches("2026-10-18", "\\d{4}-\\d{2}-\\d{2}"));
+        assertFalse(PatternCache.matches("2026-10-18T", "\\d{4}-\\d{2}-\\d{2}"));
+    }
+
+    @Test
+    public void testStringUtils()
+    {
+        // StringUtils compiles its runtime expressions through the cache
+        assertTrue(StringUtils.getMatchResult("line1\nline2", "line1.line2"));
+        assertEquals(3, StringUtils.getOccurrenceCount("ab", "abcabcab"));
+        assertEquals(2, PatternCache.size());
+    }
+}
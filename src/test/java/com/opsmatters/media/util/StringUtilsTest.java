@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the conversion of strings to ASCII and the removal of invalid XML characters.
+ * <p>
+ * The expected values are the output of the conversions before clean strings were returned unchanged.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class StringUtilsTest
+{
+    /**
+     * Checks the conversion of the given string to ASCII with and without diacritics.
+     */
+    private void checkAscii(String str, String html, String text)
+    {
+        assertEquals(html, StringUtils.convertToAscii(str, true, true));
+        assertEquals(html, StringUtils.convertToAscii(str, true, false));
+        assertEquals(text, StringUtils.convertToAscii(str, false, true));
+        assertEquals(text, StringUtils.convertToAscii(str, false, false));
+    }
+
+    @Test
+    public void testCleanStringUnchanged()
+    {
+        String str = "Plain ASCII text with a tab\tand a linefeed\n";
+        assertSame(str, StringUtils.convertToAscii(str, true, true));
+        assertSame(str, StringUtils.convertToAscii(str, false, false));
+        assertSame(str, StringUtils.stripNonValidXMLCharacters(str));
+
+        str = "Café & crème";
+        assertSame(str, StringUtils.convertToAscii(str, false, true));
+        assertSame(str, StringUtils.stripNonValidXMLCharacters(str));
+    }
+
+    @Test
+    public void testLatin1()
+    {
+        checkAscii("Café crème", "Caf&#0233; cr&#0232;me", "Café crème");
+        checkAscii("\u00a0nbsp", "&#0160;nbsp", "\u00a0nbsp");
+    }
+
+    @Test
+    public void testDiacritics()
+    {
+        String str = "Łódź";
+        assertEquals("&#0321;&#0243;d&#0378;", StringUtils.convertToAscii(str, true, true));
+        assertEquals("Łódź", StringUtils.convertToAscii(str, false, true));
+        assertEquals("?ód?", StringUtils.convertToAscii(str, false, false));
+    }
+
+    @Test
+    public void testAmpersands()
+    {
+        checkAscii("Fish & chips", "Fish &amp; chips", "Fish & chips");
+        checkAscii("A&B", "A&B", "A&B");
+        checkAscii("end &", "end &amp;", "end &");
+        checkAscii("Tom&Jerry & co", "Tom&Jerry &amp; co", "Tom&Jerry & co");
+    }
+
+    @Test
+    public void testPunctuation()
+    {
+        checkAscii("“Quoted” ‘text’",
+            "&#8220;Quoted&#8221; &#8216;text&#8217;", "\"Quoted\" 'text'");
+        checkAscii("Dash – and — em", "Dash &#8211; and &#8212; em", "Dash - and - em");
+        checkAscii("Wait…", "Wait&#8230;", "Wait...");
+        checkAscii("Price €5", "Price &#8364;5", "Price €5");
+    }
+
+    @Test
+    public void testOtherCharacters()
+    {
+        checkAscii("中文", "&#20013;&#25991;", "");
+        checkAscii("Emoji 😀", "Emoji &#55357;&#56832;", "Emoji ");
+        checkAscii("Control\u0001char\r\n", "Controlchar\n", "Controlchar\n");
+    }
+
+    @Test
+    public void testStripNonValidXMLCharacters()
+    {
+        assertEquals("", StringUtils.stripNonValidXMLCharacters(null));
+        assertEquals("", StringUtils.stripNonValidXMLCharacters(""));
+        assertEquals("Controlchar\r\n", StringUtils.stripNonValidXMLCharacters("Control\u0001char\r\n"));
+        assertEquals("Emoji ", StringUtils.stripNonValidXMLCharacters("Emoji 😀"));
+        assertEquals("“Quoted”", StringUtils.stripNonValidXMLCharacters("“Quoted”"));
+    }
+
+    @Test
+    public void testLongString()
+    {
+        StringBuilder str = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for(int i = 0; i < 20000; i++)
+        {
+            str.append("abcé ");
+            expected.append("abc&#0233; ");
+        }
+
+        assertEquals(expected.toString(), StringUtils.convertToAscii(str.toString(), true, true));
+
+        // The buffer is still usable after a conversion larger than the buffer kept
+        assertEquals("&#0233;", StringUtils.convertToAscii("é", true, true));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.opsmatters.media.util;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the joining and cancelling of the tasks in a scope.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class TaskScopeTest
+{
+    private TaskExecutor executor;
+
+    @After
+    public void tearDown()
+    {
+        if(executor != null)
+            executor.close();
+    }
+
+    /**
+     * Returns a task that returns the given value after the given delay.
+     */
+    private static Callable<String> task(final String value, final long delay)
+    {
+        return new Callable<String>()
+        {
+            public String call() throws Exception
+            {
+                Thread.sleep(delay);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a task that fails after the given delay.
+     */
+    private static Callable<String> failure(final long delay)
+    {
+        return new Callable<String>()
+        {
+            public String call() throws Exception
+            {
+                Thread.sleep(delay);
+                throw new IllegalStateException("failed");
+            }
+        };
+    }
+
+    @Test
+    public void testResultsInForkOrder() throws Exception
+    {
+        executor = new TaskExecutor(4, 5000L, false);
+        List<String> results = executor.invokeAll(Arrays.asList(task("a", 150L), task("b", 10L),
+            task("c", 80L), task("d", 0L)));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), results);
+    }
+
+    @Test
+    public void testTaskTimeout() throws Exception
+    {
+        executor = new TaskExecutor(2, 100L, false);
+        TaskScope<String> scope = executor.newScope();
+        Future<String> slow = scope.fork(task("slow", 5000L));
+        Future<String> other = scope.fork(task("other", 5000L));
+
+        try
+        {
+            scope.join();
+            fail("Expected the task to time out");
+        }
+        catch(TimeoutException e)
+        {
+            assertTrue(slow.isCancelled());
+            assertTrue(other.isDone());
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    @Test
+    public void testFailureCancelsOtherTasks() throws Exception
+    {
+        executor = new TaskExecutor(2, 5000L, false);
+        TaskScope<String> scope = executor.newScope();
+        scope.fork(failure(10L));
+        Future<String> other = scope.fork(task("other", 5000L));
+
+        try
+        {
+            scope.join();
+            fail("Expected the task to fail");
+        }
+        catch(ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertTrue(other.isCancelled());
+            assertTrue(scope.isCancelled());
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    @Test
+    public void testCloseCancelsTasks() throws Exception
+    {
+        executor = new TaskExecutor(1, 5000L, false);
+        TaskScope<String> scope = executor.newScope();
+        Future<String> running = scope.fork(task("running", 5000L));
+        Future<String> queued = scope.fork(task("queued", 0L));
+        scope.close();
+
+        assertTrue(running.isCancelled());
+        assertTrue(queued.isCancelled());
+
+        try
+        {
+            scope.fork(task("late", 0L));
+            fail("Expected the scope to refuse new tasks");
+        }
+        catch(IllegalStateException e)
+        {
+        }
+    }
+
+    @Test
+    public void testQueuedTasksGetTheirOwnTimeout() throws Exception
+    {
+        // Each task fits its timeout, but the batch takes longer than one timeout
+        executor = new TaskExecutor(1, 300L, false);
+        List<String> results = executor.invokeAll(Arrays.asList(task("a", 150L), task("b", 150L),
+            task("c", 150L), task("d", 150L)));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), results);
+    }
+
+    @Test
+    public void testJoinSuccessfulSkipsFailures() throws Exception
+    {
+        executor = new TaskExecutor(4, 100L, false);
+        TaskScope<String> scope = executor.newScope();
+
+        try
+        {
+            scope.fork(task("a", 0L));
+            scope.fork(failure(0L));
+            scope.fork(task("slow", 5000L));
+            scope.fork(task("d", 10L));
+            assertEquals(Arrays.asList("a", "d"), scope.joinSuccessful());
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    @Test
+    public void testStartTimeout() throws Exception
+    {
+        executor = new TaskExecutor(1, 0L, false);
+        TaskScope<String> scope = executor.newScope();
+        scope.setStartTimeout(100L);
+
+        try
+        {
+            scope.fork(task("a", 300L));
+            Future<String> queued = scope.fork(task("b", 0L));
+            assertEquals(Arrays.asList("a"), scope.joinSuccessful());
+            assertTrue(queued.isCancelled());
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+}